@@ -0,0 +1,101 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.Engine;
+import engine.collision.BroadPhase;
+import engine.collision.BruteForceBroadPhase;
+import engine.collision.SpatialHashBroadPhase;
+import engine.collision.SweepAndPruneBroadPhase;
+import engine.systems.CollisionSystem;
+import engine.systems.MotionSystem;
+import world.TileMap;
+
+/**
+ * Passata di collisione completa (tile, entità-entità, seconda passata sulle tile e
+ * controllo del terreno) su N entità in una mappa M×M con il 20% di tile solide,
+ * con ciascuna delle broad phase disponibili.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+    private static final float DELTA_TIME = 1f / 60f;
+
+    @Param({ "100", "500", "2000" })
+    public int entities;
+
+    @Param({ "64", "256" })
+    public int mapSize;
+
+    @Param({ "spatialHash", "sweepAndPrune", "bruteForce" })
+    public String broadPhase;
+
+    private Engine engine;
+    private MotionSystem motionSystem;
+    private CollisionSystem collisionSystem;
+
+    @Setup
+    public void setup() {
+        engine = SyntheticWorld.createEngine();
+        TileMap tileMap = SyntheticWorld.createTileMap(SyntheticWorld.createGrid(mapSize, 0.2, 7L));
+        SyntheticWorld.addEntities(engine, entities, tileMap, false, 42L);
+        motionSystem = new MotionSystem(engine);
+        collisionSystem = new CollisionSystem(engine);
+        collisionSystem.setBroadPhase(createBroadPhase(broadPhase));
+        SyntheticWorld.settle(engine);
+    }
+
+    static BroadPhase createBroadPhase(String name) {
+        switch (name) {
+            case "spatialHash":
+                return new SpatialHashBroadPhase();
+            case "sweepAndPrune":
+                return new SweepAndPruneBroadPhase();
+            case "bruteForce":
+                return new BruteForceBroadPhase();
+            default:
+                throw new IllegalArgumentException("Unknown broad phase: " + name);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.cleanup();
+    }
+
+    @Benchmark
+    public void collisionPass() {
+        collisionSystem.update(DELTA_TIME);
+    }
+
+    @Benchmark
+    public void motionAndCollision() {
+        // Le entità si muovono a ogni passo, così la risoluzione non si ferma su uno stato stabile
+        motionSystem.update(DELTA_TIME);
+        collisionSystem.update(DELTA_TIME);
+    }
+}
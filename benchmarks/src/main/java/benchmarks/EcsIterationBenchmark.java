@@ -0,0 +1,116 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import engine.ComponentStorage;
+import engine.Engine;
+import engine.Entity;
+import engine.EntityQuery;
+import engine.components.ColliderComponent;
+import engine.components.MotionComponent;
+
+/**
+ * Iterazione sulle entità: lista completa con getComponent, vista di una query e
+ * storage denso di un tipo di componente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EcsIterationBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int entities;
+
+    private Engine engine;
+    private EntityQuery bodies;
+
+    @Setup
+    public void setup() {
+        engine = SyntheticWorld.createEngine();
+        SyntheticWorld.addEntities(engine, entities, null, false, 42L);
+        bodies = engine.query(MotionComponent.class, ColliderComponent.class);
+        SyntheticWorld.settle(engine);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.cleanup();
+    }
+
+    @Benchmark
+    public void accessEntities(Blackhole blackhole) {
+        engine.accessEntities(list -> {
+            float sum = 0;
+            for (int i = 0; i < list.size(); i++) {
+                MotionComponent motion = list.get(i).getComponent(MotionComponent.class);
+                if (motion != null) {
+                    sum += motion.getX();
+                }
+            }
+            blackhole.consume(sum);
+        });
+    }
+
+    @Benchmark
+    public void accessQuery(Blackhole blackhole) {
+        engine.accessEntities(bodies, list -> {
+            float sum = 0;
+            for (int i = 0; i < list.size(); i++) {
+                Entity entity = list.get(i);
+                sum += entity.getComponent(MotionComponent.class).getX()
+                        + entity.getComponent(ColliderComponent.class).getMass();
+            }
+            blackhole.consume(sum);
+        });
+    }
+
+    @Benchmark
+    public void accessComponents(Blackhole blackhole) {
+        engine.accessComponents(MotionComponent.class, (ComponentStorage<MotionComponent> storage) -> {
+            float sum = 0;
+            for (int i = 0; i < storage.size(); i++) {
+                sum += storage.getComponent(i).getX();
+            }
+            blackhole.consume(sum);
+        });
+    }
+
+    @Benchmark
+    public int iterateWorldList() {
+        // Riferimento: solo lo scorrimento della lista, senza accesso ai componenti
+        int[] count = new int[1];
+        engine.accessEntities((List<Entity> list) -> {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).isAlive()) {
+                    count[0]++;
+                }
+            }
+        });
+        return count[0];
+    }
+}
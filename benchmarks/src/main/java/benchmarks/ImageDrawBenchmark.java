@@ -0,0 +1,134 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import helpers.ImageUtils;
+import main.GamePanel;
+
+/**
+ * Disegno di frame traslucidi su un back buffer opaco, per confrontare il formato in cui
+ * arrivano le immagini al rendering:
+ * ABGR_SUBIMAGE è il caso di ImageIO + getSubimage (prima della conversione),
+ * INT_ARGB un'immagine creata a mano, COMPATIBLE il risultato di ImageUtils
+ * (TYPE_INT_ARGB_PRE in modalità headless).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ImageDrawBenchmark {
+    private static final int FRAME_SIZE = 32;
+    private static final int SHEET_COLS = 8;
+
+    @Param({ "ABGR_SUBIMAGE", "INT_ARGB", "COMPATIBLE" })
+    public String format;
+
+    @Param({ "1000" })
+    public int sprites;
+
+    private BufferedImage[] frames;
+    private int[] xs;
+    private int[] ys;
+    private BufferedImage backBuffer;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        BufferedImage sheet = createSheet(new Random(42L));
+        frames = new BufferedImage[SHEET_COLS];
+        for (int i = 0; i < SHEET_COLS; i++) {
+            BufferedImage frame = sheet.getSubimage(i * FRAME_SIZE, 0, FRAME_SIZE, FRAME_SIZE);
+            switch (format) {
+                case "ABGR_SUBIMAGE":
+                    frames[i] = frame;
+                    break;
+                case "INT_ARGB":
+                    frames[i] = copy(frame, BufferedImage.TYPE_INT_ARGB);
+                    break;
+                case "COMPATIBLE":
+                    frames[i] = ImageUtils.toCompatibleImage(frame);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown format: " + format);
+            }
+        }
+
+        Random random = new Random(7L);
+        xs = new int[sprites];
+        ys = new int[sprites];
+        for (int i = 0; i < sprites; i++) {
+            xs[i] = random.nextInt(GamePanel.GAME_WIDTH - FRAME_SIZE);
+            ys[i] = random.nextInt(GamePanel.GAME_HEIGHT - FRAME_SIZE);
+        }
+        backBuffer = new BufferedImage(GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = backBuffer.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawSprites() {
+        for (int i = 0; i < sprites; i++) {
+            graphics.drawImage(frames[i % SHEET_COLS], xs[i], ys[i], null);
+        }
+        return backBuffer;
+    }
+
+    /**
+     * Spritesheet a una riga nel formato prodotto da ImageIO per i PNG con canale alfa:
+     * cerchi opachi su sfondo trasparente, con un bordo semitrasparente.
+     */
+    private static BufferedImage createSheet(Random random) {
+        BufferedImage sheet = new BufferedImage(FRAME_SIZE * SHEET_COLS, FRAME_SIZE, BufferedImage.TYPE_4BYTE_ABGR);
+        float radius = FRAME_SIZE / 2f;
+        for (int i = 0; i < SHEET_COLS; i++) {
+            int rgb = random.nextInt(0x1000000);
+            for (int y = 0; y < FRAME_SIZE; y++) {
+                for (int x = 0; x < FRAME_SIZE; x++) {
+                    float dx = x + 0.5f - radius;
+                    float dy = y + 0.5f - radius;
+                    float distance = (float) Math.sqrt(dx * dx + dy * dy);
+                    int alpha = distance < radius - 2 ? 255 : (distance < radius ? 128 : 0);
+                    sheet.setRGB(i * FRAME_SIZE + x, y, (alpha << 24) | rgb);
+                }
+            }
+        }
+        return sheet;
+    }
+
+    private static BufferedImage copy(BufferedImage image, int type) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import pathfinder.AStarSearch;
+import pathfinder.JumpPointSearchHV;
+import pathfinder.PathFinder;
+
+/**
+ * Ricerca di un percorso da un angolo all'altro di una griglia M×M con ostacoli casuali.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathfindingBenchmark {
+
+    @Param({ "astar", "jps" })
+    public String algorithm;
+
+    @Param({ "64", "256" })
+    public int mapSize;
+
+    @Param({ "0.1", "0.3" })
+    public double obstacleRatio;
+
+    private PathFinder pathFinder;
+
+    @Setup
+    public void setup() {
+        boolean[][] grid = SyntheticWorld.createGrid(mapSize, obstacleRatio, 7L);
+        pathFinder = algorithm.equals("jps") ? new JumpPointSearchHV(grid) : new AStarSearch(grid);
+        pathFinder.setNodes(0, 0, mapSize - 1, mapSize - 1);
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) {
+        boolean found = pathFinder.search();
+        blackhole.consume(found);
+        blackhole.consume(pathFinder.getExpandedNodes());
+        if (found) {
+            blackhole.consume(pathFinder.getPath().size());
+        }
+    }
+}
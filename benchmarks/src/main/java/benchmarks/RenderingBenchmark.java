@@ -0,0 +1,94 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import engine.Engine;
+import engine.systems.RenderingSystem;
+import main.GamePanel;
+import world.TileMap;
+
+/**
+ * Rendering fuori schermo: preparazione della snapshot sul thread di gioco (update) e
+ * disegno della snapshot su una BufferedImage grande quanto la finestra di gioco (render).
+ * Funziona anche con -Djava.awt.headless=true.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class RenderingBenchmark {
+    private static final float DELTA_TIME = 1f / 60f;
+
+    @Param({ "100", "1000" })
+    public int sprites;
+
+    @Param({ "32", "64" })
+    public int mapSize;
+
+    private Engine engine;
+    private RenderingSystem renderingSystem;
+    private BufferedImage frame;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        engine = SyntheticWorld.createEngine();
+        TileMap tileMap = SyntheticWorld.createTileMap(SyntheticWorld.createGrid(mapSize, 0.2, 7L));
+        SyntheticWorld.addMapEntity(engine, tileMap);
+        SyntheticWorld.addEntities(engine, sprites, null, true, 42L);
+        renderingSystem = new RenderingSystem(engine);
+        SyntheticWorld.settle(engine);
+        renderingSystem.update(DELTA_TIME); // Prima snapshot pubblicata
+
+        frame = new BufferedImage(GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = frame.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+        engine.cleanup();
+    }
+
+    @Benchmark
+    public void buildSnapshot() {
+        renderingSystem.update(DELTA_TIME);
+    }
+
+    @Benchmark
+    public BufferedImage renderSnapshot() {
+        renderingSystem.render(graphics);
+        return frame;
+    }
+
+    @Benchmark
+    public BufferedImage updateAndRender() {
+        renderingSystem.update(DELTA_TIME);
+        renderingSystem.render(graphics);
+        return frame;
+    }
+}
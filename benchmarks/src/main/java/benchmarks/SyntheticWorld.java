@@ -0,0 +1,152 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import engine.Engine;
+import engine.Entity;
+import engine.components.ColliderComponent;
+import engine.components.CollisionMapComponent;
+import engine.components.MotionComponent;
+import engine.components.SpriteComponent;
+import engine.components.TileMapComponent;
+import enums.Action;
+import enums.CollisionBehavior;
+import enums.Direction;
+import enums.EngineState;
+import enums.EntityType;
+import world.CharacterSpritesheet;
+import world.Tile;
+import world.TileMap;
+
+/**
+ * Mondi sintetici per i benchmark: mappe M×M con ostacoli generati da un seme fisso
+ * e N entità in posizioni casuali ma riproducibili. Non servono file di risorse.
+ */
+final class SyntheticWorld {
+    static final int TILE_SIZE = 16;
+    static final int ENTITY_SIZE = 12;
+
+    private SyntheticWorld() {
+        // Classe di utility, non istanziabile
+    }
+
+    /**
+     * Engine without game states, already in RUNNING so that systems update.
+     */
+    static Engine createEngine() {
+        Engine engine = new Engine(null, null) {
+            @Override
+            protected void init() {
+                // Nessuno stato di gioco: i benchmark aggiungono entità e sistemi direttamente
+            }
+        };
+        engine.getStateManager().requestStateChange(EngineState.RUNNING);
+        return engine;
+    }
+
+    /**
+     * Griglia M×M di ostacoli (true = solido). Gli angoli restano liberi, così la
+     * ricerca di un percorso dall'angolo in alto a sinistra a quello in basso a destra ha senso.
+     */
+    static boolean[][] createGrid(int size, double obstacleRatio, long seed) {
+        Random random = new Random(seed);
+        boolean[][] grid = new boolean[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = random.nextDouble() < obstacleRatio;
+            }
+        }
+        grid[0][0] = false;
+        grid[size - 1][size - 1] = false;
+        return grid;
+    }
+
+    static TileMap createTileMap(boolean[][] grid) {
+        BufferedImage floor = filledImage(TILE_SIZE, TILE_SIZE, Color.darkGray);
+        BufferedImage wall = filledImage(TILE_SIZE, TILE_SIZE, Color.gray);
+        Tile[][] tiles = new Tile[grid.length][grid[0].length];
+        for (int row = 0; row < grid.length; row++) {
+            for (int col = 0; col < grid[0].length; col++) {
+                boolean solid = grid[row][col];
+                tiles[row][col] = new Tile(solid ? wall : floor, solid, row, col);
+            }
+        }
+        return new TileMap(tiles, TILE_SIZE, TILE_SIZE, 1, 0.1f);
+    }
+
+    /**
+     * Entità che rappresenta la mappa (disegnata dal RenderingSystem).
+     */
+    static void addMapEntity(Engine engine, TileMap tileMap) {
+        Entity map = new Entity(EntityType.TILEMANAGER, 0);
+        map.addComponent(new TileMapComponent(map, tileMap));
+        engine.addEntity(map);
+    }
+
+    /**
+     * Adds {@code count} moving entities with a collider; when tileMap is not null they also
+     * collide with it, when withSprites is true they also have a sprite.
+     */
+    static void addEntities(Engine engine, int count, TileMap tileMap, boolean withSprites, long seed) {
+        Random random = new Random(seed);
+        float worldWidth = (tileMap != null) ? tileMap.getWorldWidth() : 1024;
+        float worldHeight = (tileMap != null) ? tileMap.getWorldHeight() : 1024;
+        CharacterSpritesheet spritesheet = withSprites ? createSpritesheet() : null;
+
+        for (int i = 0; i < count; i++) {
+            Entity entity = new Entity(EntityType.ENEMY, 1);
+            float x = random.nextFloat() * (worldWidth - ENTITY_SIZE);
+            float y = random.nextFloat() * (worldHeight - ENTITY_SIZE);
+            MotionComponent motion = new MotionComponent(entity, x, y, 100f);
+            motion.setVx((random.nextFloat() - 0.5f) * 200f);
+            motion.setVy((random.nextFloat() - 0.5f) * 200f);
+            entity.addComponent(motion);
+            entity.addComponent(new ColliderComponent(entity, 0, 0, ENTITY_SIZE, ENTITY_SIZE, CollisionBehavior.DYNAMIC));
+            if (tileMap != null) {
+                entity.addComponent(new CollisionMapComponent(entity, tileMap));
+            }
+            if (spritesheet != null) {
+                entity.addComponent(new SpriteComponent(entity, spritesheet, 0.1f, true));
+            }
+            engine.addEntity(entity);
+        }
+    }
+
+    /**
+     * Applica le entità in attesa: dopo questo update il mondo è completo.
+     */
+    static void settle(Engine engine) {
+        engine.update(0f);
+    }
+
+    private static CharacterSpritesheet createSpritesheet() {
+        BufferedImage[][][] images = new BufferedImage[Action.values().length][Direction.values().length][];
+        BufferedImage frame = filledImage(ENTITY_SIZE, ENTITY_SIZE, Color.orange);
+        for (BufferedImage[][] action : images) {
+            for (int direction = 0; direction < action.length; direction++) {
+                action[direction] = new BufferedImage[] { frame };
+            }
+        }
+        return new CharacterSpritesheet(images, ENTITY_SIZE, ENTITY_SIZE, new Rectangle(0, 0, ENTITY_SIZE, ENTITY_SIZE));
+    }
+
+    private static BufferedImage filledImage(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+}
@@ -10,13 +10,26 @@ package engine;
 
 import java.awt.Graphics2D;
 import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import engine.jfr.SystemUpdateEvent;
 import enums.EngineState;
 
 public abstract class BaseSystem {
     protected Engine engine;
     protected int priority;
     private final EnumMap<EngineState, Boolean> stateUpdateMap;
+    // Componenti letti e scritti dal sistema: se non dichiarati il sistema viene eseguito da solo
+    private ComponentSignature readSet;
+    private ComponentSignature writeSet;
+    // Iterazione parallela a blocchi di entità (disattivata di default)
+    private boolean parallelIteration = false;
+    private int chunkSize = 256;
+    // Tempi di esecuzione misurati dall'engine
+    private final TimingStats updateStats = new TimingStats();
+    private final TimingStats renderStats = new TimingStats();
 /*
  * Ordine di esecuzione dei sistemi:
  * 
@@ -52,27 +65,134 @@ public abstract class BaseSystem {
     
     public void update(float deltaTime) {
         engine.accessEntities(entities -> {
-            for (Entity entity : entities) {
-                updateEntity(entity, deltaTime);
+            if (parallelIteration) {
+                forEachChunk(entities.size(), (from, to) -> updateEntities(entities, from, to, deltaTime));
+            } else {
+                updateEntities(entities, 0, entities.size(), deltaTime);
             }
         });
     }
 
-    protected void updateEntity(Entity entity, float deltaTime) { }
+    /**
+     * Aggiornamento misurato: usato dall'engine (e dallo scheduler) al posto di update().
+     */
+    final void timedUpdate(float deltaTime) {
+        SystemUpdateEvent event = new SystemUpdateEvent();
+        event.begin();
+        long start = System.nanoTime();
+        update(deltaTime);
+        updateStats.record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.system = getName();
+            event.priority = priority;
+            event.entities = engine.getEntityCount();
+            event.commit();
+        }
+    }
 
-    public void render(Graphics2D g) {
-        engine.accessEntities(entities -> {
-            for (Entity entity : entities) {
-                renderEntity(entity, g);
-            }
-        });
+    final void timedRender(Graphics2D g) {
+        long start = System.nanoTime();
+        render(g);
+        renderStats.record(System.nanoTime() - start);
+    }
+
+    private void updateEntities(List<Entity> entities, int from, int to, float deltaTime) {
+        for (int i = from; i < to; i++) {
+            updateEntity(entities.get(i), deltaTime);
+        }
     }
 
+    /**
+     * Splits the range [0, size) into chunks of at most getChunkSize() elements.
+     * With parallel iteration enabled the chunks are processed by the common
+     * ForkJoinPool, otherwise the whole range is processed on the calling thread.
+     */
+    protected final void forEachChunk(int size, ChunkAction action) {
+        if (!parallelIteration || size <= chunkSize) {
+            action.process(0, size);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new ChunkTask(action, 0, size, chunkSize));
+    }
+
+    protected void updateEntity(Entity entity, float deltaTime) { }
+
+    /**
+     * Called from the Swing EDT, concurrently with update().
+     * By default a system draws nothing: systems that draw should prepare a
+     * snapshot during update() (see RenderingSystem) instead of locking the entities here.
+     */
+    public void render(Graphics2D g) { }
+
     protected void renderEntity(Entity entity, Graphics2D g) { }
     
+    /**
+     * Enables processing the entities of this system in parallel chunks.
+     * Only for systems whose updateEntity() touches nothing but the entity itself
+     * (for example MotionSystem, AnimationSystem, TimerSystem): entities and components
+     * can still be created or removed, as those changes are applied at the end of the update.
+     *
+     * The game callbacks these systems trigger (timers, end of animations, ...) do not run
+     * on the worker threads: they go through Engine.runOnGameThread() and run on the game
+     * thread after the system, in the order the chunks queued them, which is not the order
+     * of the entities. A system that calls game code directly must not enable this.
+     */
+    public void setParallelIteration(boolean parallelIteration) {
+        this.parallelIteration = parallelIteration;
+    }
+
+    public boolean isParallelIteration() {
+        return parallelIteration;
+    }
+
+    /**
+     * Number of consecutive entities processed by a single task.
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
     public int getPriority() {
         return priority;
     }
+
+    /**
+     * Durations of the last updates of this system, measured by the engine.
+     */
+    public TimingStats getUpdateStats() {
+        return updateStats;
+    }
+
+    /**
+     * Durations of the last render() calls of this system, measured on the EDT.
+     */
+    public TimingStats getRenderStats() {
+        return renderStats;
+    }
+
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    public String getDebugInfo() {
+        return getName() + " update: " + updateStats + " | render: " + renderStats;
+    }
+
+    /**
+     * Short text shown next to the system in the debug overlay (for example counters of
+     * the last update), or null if the system has nothing to add.
+     */
+    public String getOverlayInfo() {
+        return null;
+    }
     
     public boolean shouldUpdateInState(EngineState state) {
         return stateUpdateMap.getOrDefault(state, false);
@@ -80,5 +200,99 @@ public abstract class BaseSystem {
 
     public void setUpdateInState(EngineState state, boolean shouldUpdate) {
         stateUpdateMap.put(state, shouldUpdate);
+        if (engine != null) {
+            engine.systemsChanged();
+        }
+    }
+
+    /**
+     * Declares the component types this system only reads.
+     * Together with writes(...) it allows the parallel scheduler to run this system
+     * concurrently with the systems it does not conflict with. Callbacks set by the game
+     * (Runnables on the components) can touch any component, so a system that declares its
+     * access must not run them directly but through Engine.runOnGameThread() (components
+     * do it with runCallback()), which runs them after the system.
+     */
+    @SafeVarargs
+    protected final void reads(Class<? extends Component>... componentClasses) {
+        readSet = addAll(readSet, componentClasses);
+        writeSet = addAll(writeSet);
+    }
+
+    /**
+     * Declares the component types this system modifies.
+     */
+    @SafeVarargs
+    protected final void writes(Class<? extends Component>... componentClasses) {
+        writeSet = addAll(writeSet, componentClasses);
+        readSet = addAll(readSet);
+    }
+
+    @SafeVarargs
+    private static ComponentSignature addAll(ComponentSignature signature, Class<? extends Component>... componentClasses) {
+        if (signature == null) {
+            signature = new ComponentSignature();
+        }
+        for (Class<? extends Component> componentClass : componentClasses) {
+            signature.set(ComponentType.idOf(componentClass));
+        }
+        return signature;
+    }
+
+    /**
+     * True if the system declared its read and write sets.
+     */
+    public boolean isAccessDeclared() {
+        return writeSet != null;
+    }
+
+    /**
+     * Two systems conflict when one writes a component the other reads or writes.
+     * A system without declarations conflicts with every other system.
+     */
+    public boolean conflictsWith(BaseSystem other) {
+        if (!isAccessDeclared() || !other.isAccessDeclared()) {
+            return true;
+        }
+        return writeSet.intersects(other.writeSet)
+            || writeSet.intersects(other.readSet)
+            || other.writeSet.intersects(readSet);
+    }
+
+    /**
+     * Elaborazione di un intervallo di indici [from, to).
+     */
+    @FunctionalInterface
+    protected interface ChunkAction {
+        void process(int from, int to);
+    }
+
+    /**
+     * Divide ricorsivamente l'intervallo a metà finché i blocchi non sono abbastanza piccoli.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ChunkAction action;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkTask(ChunkAction action, int from, int to, int chunkSize) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                action.process(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(action, from, middle, chunkSize),
+                      new ChunkTask(action, middle, to, chunkSize));
+        }
     }
 }
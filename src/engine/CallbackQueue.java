@@ -0,0 +1,57 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Game callbacks (timers, end of animations, deaths, ...) requested while the systems are
+ * updating, run later by the game thread between one system (or wave of parallel systems)
+ * and the next, so that they never run concurrently with a system.
+ *
+ * Callbacks can be added from any thread; the two arrays are swapped at every pass, so
+ * running the queue allocates nothing once they have grown.
+ */
+class CallbackQueue {
+    private Runnable[] pending = new Runnable[32];
+    private Runnable[] running = new Runnable[32];
+    private int size;
+
+    synchronized void add(Runnable callback) {
+        if (size == pending.length) {
+            pending = Arrays.copyOf(pending, size * 2);
+        }
+        pending[size++] = callback;
+    }
+
+    /**
+     * Esegue le callback in coda sul thread chiamante, nell'ordine di inserimento.
+     * Quelle aggiunte nel frattempo (da un'altra callback) vengono eseguite nello stesso passaggio.
+     */
+    void runAll() {
+        while (true) {
+            Runnable[] batch;
+            int count;
+            synchronized (this) {
+                if (size == 0) {
+                    return;
+                }
+                batch = pending;
+                count = size;
+                pending = running.length >= batch.length ? running : new Runnable[batch.length];
+                running = batch;
+                size = 0;
+            }
+            for (int i = 0; i < count; i++) {
+                Runnable callback = batch[i];
+                batch[i] = null;
+                callback.run();
+            }
+        }
+    }
+}
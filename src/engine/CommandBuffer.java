@@ -0,0 +1,136 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Coda di modifiche strutturali al mondo (creazione e rimozione di entità,
+ * aggiunta e rimozione di componenti) registrate durante l'aggiornamento dei sistemi.
+ * 
+ * I sistemi possono registrare comandi mentre scorrono le entità senza invalidare
+ * le liste che stanno iterando: l'engine li applica tutti insieme, nell'ordine
+ * in cui sono stati registrati, in un unico punto di sincronizzazione alla fine di update().
+ * I comandi sono memorizzati in array paralleli riutilizzati da un frame all'altro.
+ */
+public class CommandBuffer {
+    private static final byte SPAWN = 0;
+    private static final byte DESPAWN = 1;
+    private static final byte ADD_COMPONENT = 2;
+    private static final byte REMOVE_COMPONENT = 3;
+    private static final byte SYNC_COMPONENTS = 4;
+
+    private byte[] operations = new byte[64];
+    private Entity[] targets = new Entity[64];
+    private Component[] components = new Component[64];
+    private Class<?>[] componentClasses = new Class<?>[64];
+    private int size;
+
+    /**
+     * Records the addition of an entity to the world.
+     */
+    public synchronized void spawn(Entity entity) {
+        record(SPAWN, entity, null, null);
+    }
+
+    /**
+     * Records the removal of an entity from the world. The entity is removed only
+     * if it is still not alive when the buffer is applied.
+     */
+    public synchronized void despawn(Entity entity) {
+        record(DESPAWN, entity, null, null);
+    }
+
+    public synchronized void addComponent(Entity entity, Component component) {
+        record(ADD_COMPONENT, entity, component, null);
+    }
+
+    public synchronized void removeComponent(Entity entity, Class<? extends Component> componentClass) {
+        record(REMOVE_COMPONENT, entity, null, componentClass);
+    }
+
+    /**
+     * Registra che i componenti di un'entità sono cambiati durante l'iterazione del mondo:
+     * storage e query verranno riallineati al punto di sincronizzazione.
+     */
+    synchronized void syncComponents(Entity entity) {
+        record(SYNC_COMPONENTS, entity, null, null);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void record(byte operation, Entity entity, Component component, Class<?> componentClass) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity cannot be null.");
+        }
+        if (size == operations.length) {
+            int capacity = size * 2;
+            operations = Arrays.copyOf(operations, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            components = Arrays.copyOf(components, capacity);
+            componentClasses = Arrays.copyOf(componentClasses, capacity);
+        }
+        operations[size] = operation;
+        targets[size] = entity;
+        components[size] = component;
+        componentClasses[size] = componentClass;
+        size++;
+    }
+
+    /**
+     * Applica e svuota la coda. I comandi registrati durante l'applicazione
+     * (ad esempio da un componente aggiunto) vengono eseguiti nello stesso passaggio.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void apply(Engine engine) {
+        for (int i = 0; i < size; i++) {
+            Entity entity = targets[i];
+            switch (operations[i]) {
+                case SPAWN:
+                    engine.applySpawn(entity);
+                    break;
+                case DESPAWN:
+                    engine.applyDespawn(entity);
+                    break;
+                case ADD_COMPONENT:
+                    entity.addComponent(components[i]);
+                    break;
+                case REMOVE_COMPONENT:
+                    entity.removeComponent((Class<? extends Component>) componentClasses[i]);
+                    break;
+                case SYNC_COMPONENTS:
+                    engine.applySyncComponents(entity);
+                    break;
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Scarta i comandi in sospeso (ad esempio al cambio di stato), liberando gli slot
+     * delle entità che non sono mai entrate nel mondo.
+     */
+    synchronized void discard(Engine engine) {
+        for (int i = 0; i < size; i++) {
+            if (operations[i] == SPAWN) {
+                engine.releaseSlot(targets[i]);
+            }
+        }
+        clear();
+    }
+
+    private void clear() {
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(components, 0, size, null);
+        Arrays.fill(componentClasses, 0, size, null);
+        size = 0;
+    }
+}
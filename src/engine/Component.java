@@ -18,4 +18,28 @@ public abstract class Component {
     public Entity getParentEntity() {
         return entity;
     }
+
+    /**
+     * Runs a callback set by the game through Engine.runOnGameThread(), so that it never
+     * runs concurrently with the systems; directly if the entity is not in an engine.
+     */
+    protected void runCallback(Runnable callback) {
+        if (callback == null) {
+            return;
+        }
+        Engine engine = (entity != null) ? entity.getEngine() : null;
+        if (engine != null) {
+            engine.runOnGameThread(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * Restores the state the component had when it was created, so that an entity
+     * returned to an EntityPool can be reused. Configuration (sizes, speeds, images)
+     * is kept; only runtime state such as timers and velocities is cleared.
+     */
+    public void reset() {
+    }
 }
@@ -0,0 +1,95 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Insieme di tipi di componente rappresentato come bitset: il bit i è acceso
+ * se è presente il componente con ComponentType.idOf(...) == i.
+ * Ogni entità ha la propria firma; una query è soddisfatta quando la firma
+ * dell'entità contiene tutti i bit della firma richiesta.
+ */
+public final class ComponentSignature {
+    private long[] words;
+
+    public ComponentSignature() {
+        this.words = new long[1];
+    }
+
+    public void set(int typeId) {
+        int word = typeId >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, word + 1);
+        }
+        words[word] |= 1L << typeId;
+    }
+
+    public void clear(int typeId) {
+        int word = typeId >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << typeId);
+        }
+    }
+
+    public boolean get(int typeId) {
+        int word = typeId >>> 6;
+        return word < words.length && (words[word] & (1L << typeId)) != 0;
+    }
+
+    /**
+     * Returns true if every bit set in {@code required} is also set here.
+     */
+    public boolean containsAll(ComponentSignature required) {
+        long[] other = required.words;
+        for (int i = 0; i < other.length; i++) {
+            long mine = i < words.length ? words[i] : 0L;
+            if ((mine & other[i]) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if at least one bit is set both here and in {@code other}.
+     */
+    public boolean intersects(ComponentSignature other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ComponentSignature)) return false;
+        long[] other = ((ComponentSignature) obj).words;
+        int length = Math.max(words.length, other.length);
+        for (int i = 0; i < length; i++) {
+            long a = i < words.length ? words[i] : 0L;
+            long b = i < other.length ? other[i] : 0L;
+            if (a != b) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int last = words.length - 1;
+        while (last > 0 && words[last] == 0L) {
+            last--; // Gli zeri finali non cambiano l'insieme
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, last + 1));
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Sparse set che contiene tutti i componenti di un certo tipo presenti nel mondo.
+ * I componenti sono impacchettati in array densi, senza buchi, così i sistemi
+ * possono scorrerli in sequenza; l'array sparso permette di trovare in O(1)
+ * la posizione del componente di una data entità.
+ * La rimozione sposta l'ultimo elemento nel posto liberato (swap-remove).
+ */
+public class ComponentStorage<T extends Component> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Class<T> componentClass;
+    private Component[] dense;
+    private Entity[] owners;
+    private int[] sparse; // slot dell'entità -> posizione densa + 1 (0 = assente)
+    private int size;
+
+    public ComponentStorage(Class<T> componentClass) {
+        this.componentClass = componentClass;
+        this.dense = new Component[INITIAL_CAPACITY];
+        this.owners = new Entity[INITIAL_CAPACITY];
+        this.sparse = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    void add(Entity entity, Component component) {
+        int key = entity.getSlot();
+        if (key >= sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.max(key + 1, sparse.length * 2));
+        }
+        int position = sparse[key] - 1;
+        if (position >= 0) {
+            dense[position] = component; // Già presente: sostituisce
+            return;
+        }
+        if (size == dense.length) {
+            dense = Arrays.copyOf(dense, size * 2);
+            owners = Arrays.copyOf(owners, size * 2);
+        }
+        dense[size] = component;
+        owners[size] = entity;
+        sparse[key] = ++size;
+    }
+
+    void remove(Entity entity) {
+        int key = entity.getSlot();
+        if (key >= sparse.length || sparse[key] == 0) {
+            return;
+        }
+        int position = sparse[key] - 1;
+        int last = --size;
+        if (position != last) {
+            dense[position] = dense[last];
+            owners[position] = owners[last];
+            sparse[owners[position].getSlot()] = position + 1;
+        }
+        dense[last] = null;
+        owners[last] = null;
+        sparse[key] = 0;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            sparse[owners[i].getSlot()] = 0;
+            dense[i] = null;
+            owners[i] = null;
+        }
+        size = 0;
+    }
+
+    public boolean contains(Entity entity) {
+        int key = entity.getSlot();
+        return key < sparse.length && sparse[key] != 0;
+    }
+
+    public T get(Entity entity) {
+        int key = entity.getSlot();
+        if (key >= sparse.length || sparse[key] == 0) {
+            return null;
+        }
+        return componentClass.cast(dense[sparse[key] - 1]);
+    }
+
+    /**
+     * Number of components currently packed in this storage.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Component at dense position {@code index} (0 &lt;= index &lt; size()).
+     */
+    public T getComponent(int index) {
+        return componentClass.cast(dense[index]);
+    }
+
+    /**
+     * Entity owning the component at dense position {@code index}.
+     */
+    public Entity getEntity(int index) {
+        return owners[index];
+    }
+
+    public Class<T> getComponentClass() {
+        return componentClass;
+    }
+}
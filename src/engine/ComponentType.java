@@ -0,0 +1,45 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assegna a ogni classe di componente un identificativo intero denso (0, 1, 2, ...).
+ * Gli id vengono usati come indici negli array di componenti di Entity e Engine,
+ * evitando hash e boxing a ogni accesso.
+ */
+public final class ComponentType {
+    private static final AtomicInteger typeCount = new AtomicInteger();
+
+    private static final ClassValue<Integer> typeIds = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return typeCount.getAndIncrement();
+        }
+    };
+
+    private ComponentType() {
+        // Classe di utility, non istanziabile
+    }
+
+    /**
+     * Returns the dense id of the given component class, assigning one on first use.
+     */
+    public static int idOf(Class<? extends Component> componentClass) {
+        return typeIds.get(componentClass);
+    }
+
+    /**
+     * Returns how many component classes have been assigned an id so far.
+     */
+    public static int count() {
+        return typeCount.get();
+    }
+}
@@ -9,33 +9,94 @@
 package engine;
 
 import java.awt.Graphics2D;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import engine.components.MotionComponent;
+import engine.jfr.FrameRenderEvent;
+import engine.jfr.FrameUpdateEvent;
+import engine.jfr.StateSwitchEvent;
 import enums.EngineState;
 import helpers.Logger;
+import input.InputRecorder;
+import input.InputReplay;
 import input.KeyboardInputHandler;
 import input.MouseInputHandler;
 import state.GameState;
+import transition.LoadingScreen;
 import transition.TransitionEffect;
+import world.AssetCache;
 
 public abstract class Engine {
     private final EngineStateManager stateManager;
-    private GameState currentState, nextState;
-    private final List<Entity> entities = new ArrayList<>();
-    private final List<Entity> entitiesToRemove = new ArrayList<>();
-    private final List<Entity> entitiesToAdd = new ArrayList<>();
-    private final Map<Integer, Entity> entityMap = new HashMap<>();    
-    private final List<BaseSystem> systems = new ArrayList<>();
+    private GameState currentState;
+    private volatile GameState nextState; // Letto anche dall'EDT per la schermata di caricamento
+    // Tutte le entità del mondo, in array densi con rimozione O(1) per scambio con l'ultima
+    private final EntityQuery allEntities = new EntityQuery(new ComponentSignature());
+    private final List<Entity> entities = allEntities.getEntities(); // Vista in sola lettura
+    private final CommandBuffer commandBuffer = new CommandBuffer();
+    private final CallbackQueue callbacks = new CallbackQueue(); // Callback del gioco richieste durante l'update
+    private final EventBus eventBus = new EventBus();
+    // I sistemi leggono il mondo in parallelo (read lock), le modifiche strutturali sono esclusive (write lock)
+    private final ReentrantReadWriteLock entityLock = new ReentrantReadWriteLock();
+    private final Object registryLock = new Object(); // Creazione pigra di query e storage sotto read lock
+    private final Object slotLock = new Object();
+    private volatile boolean updatingSystems = false; // Fase di aggiornamento dei sistemi in corso
+    // Tabella degli slot: indice -> entità, con generazione per riconoscere gli handle scaduti
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << 11) - 1;
+    private Entity[] slots = new Entity[64];
+    private int[] generations = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount; // Slot usati almeno una volta
+    private ComponentStorage<?>[] storages = new ComponentStorage<?>[16]; // Indicizzati per ComponentType
+    private final Map<ComponentSignature, EntityQuery> queryCache = new HashMap<>();
+    private final List<EntityQuery> queries = new ArrayList<>();
+    private final List<BaseSystem> systems = new CopyOnWriteArrayList<>(); // Letta senza lock dal thread di rendering
+    private final List<BaseSystem> systemsView = Collections.unmodifiableList(systems);
+    // Durata complessiva di update() e render(), oltre ai tempi dei singoli sistemi
+    private final TimingStats updateStats = new TimingStats();
+    private final TimingStats renderStats = new TimingStats();
     private final Comparator<BaseSystem> systemComparator;
+    private final SystemScheduler scheduler = new SystemScheduler();
+    private boolean parallelSystems = false;
     private final KeyboardInputHandler inputHandler;
     private final MouseInputHandler mouseInputHandler;
+    // Registrazione e riproduzione dell'input, impostabili da un altro thread (ad esempio l'EDT)
+    private volatile InputRecorder inputRecorder;
+    private volatile InputReplay inputReplay;
+    private volatile WorldSnapshot pendingRestore; // Snapshot da ripristinare alla fine del tick in corso
     private TransitionEffect transitionEffect;
+    // Caricamento anticipato dello stato successivo (GameState.preload) su un thread separato
+    private final ExecutorService preloadExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "RetroEdge-preload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile CompletableFuture<Void> preloading;
+    private volatile boolean waitingForPreload; // Il gioco è fermo in attesa del caricamento
+    private LoadingScreen loadingScreen = new LoadingScreen();
     private boolean debug = false;
+    private volatile float interpolationAlpha = 1f;
 
     public Engine(KeyboardInputHandler inputHandler, MouseInputHandler mouseInputHandler) {
         this.inputHandler = inputHandler;
@@ -53,8 +114,9 @@ public abstract class Engine {
         if (nextState != null && transitionEffect == null && 
             (currentState == null || stateManager.getCurrentState() == EngineState.RUNNING)) {
             // Trigger state switching logic
-            switchState();
-            return; // Wait until next frame to proceed
+            if (switchState()) {
+                return; // Wait until next frame to proceed
+            }
         }
 
         if (transitionEffect != null) {
@@ -64,45 +126,80 @@ public abstract class Engine {
         // If we reach here and no transitions are in progress:
         EngineState currentEngineState = stateManager.getCurrentState();
 
+        FrameUpdateEvent event = new FrameUpdateEvent();
+        event.begin();
+        long start = System.nanoTime();
         synchronized (systems) {
-            systems.stream()
-                .filter(system -> system.shouldUpdateInState(currentEngineState))
-                .forEach(system -> system.update(deltaTime));
+            updatingSystems = true;
+            try {
+                if (parallelSystems) {
+                    scheduler.update(this, systems, currentEngineState, deltaTime);
+                } else {
+                    // Ciclo per indice: nessun iteratore o lambda allocati a ogni frame
+                    for (int i = 0; i < systems.size(); i++) {
+                        BaseSystem system = systems.get(i);
+                        if (system.shouldUpdateInState(currentEngineState)) {
+                            system.timedUpdate(deltaTime);
+                            callbacks.runAll(); // Callback richieste dal sistema, prima del successivo
+                        }
+                    }
+                }
+                // Consegna in blocco gli eventi del tick: le modifiche dei gestori restano differite
+                eventBus.dispatch();
+                callbacks.runAll();
+            } finally {
+                updatingSystems = false;
+            }
         }
         
-        // Add new entities
-        synchronized (entities) {
-            if (!entitiesToAdd.isEmpty()) {
-//                Logger.log("Adding new entities: " + entitiesToAdd.size());
-                entities.addAll(entitiesToAdd);
-                entitiesToAdd.clear();
+        // Punto di sincronizzazione: applica creazioni, rimozioni e modifiche ai componenti
+        entityLock.writeLock().lock();
+        try {
+            commandBuffer.apply(this);
+            // Un ripristino richiesto durante il tick avviene ora, a mondo fermo
+            WorldSnapshot restore = pendingRestore;
+            if (restore != null) {
+                pendingRestore = null;
+                applyRestore(restore);
             }
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+        // Tick registrato: il checksum dello stato a fine tick verifica la riproduzione
+        InputRecorder recorder = inputRecorder;
+        if (recorder != null && recorder.isChecksumPending()) {
+            recorder.recordChecksum(computeStateChecksum());
+        }
+        updateStats.record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.engineState = currentEngineState.name();
+            event.entities = entities.size();
+            event.systems = systems.size();
+            event.deltaTime = (long) (deltaTime * 1_000_000_000L);
+            event.parallel = parallelSystems;
+            event.commit();
         }
-
-        // Remove dead entities
-        removeDeadEntities();
     }
     
-    private void switchState() {
-        Logger.log(String.format(
-            "Switching game state: %s -> %s",
-            currentState != null ? currentState.getClass().getSimpleName() : "None",
-            nextState != null ? nextState.getClass().getSimpleName() : "None"
-        ));
-
+    /**
+     * Avvia il passaggio allo stato successivo. Restituisce true se l'aggiornamento del frame
+     * deve fermarsi, false se lo stato corrente continua a girare in attesa di preload().
+     */
+    private boolean switchState() {
         if (nextState == null) {
 //            Logger.log("No nextState is set. Nothing to do in switchState().");
-            return;
+            return false;
         }
 
         if (currentState == null) {
             // Case (a): Engine just started, no current state yet.
+            if (!isPreloadComplete()) {
+                waitingForPreload = true; // Non c'è nulla da aggiornare: si mostra la schermata di caricamento
+                return true;
+            }
 //            Logger.log("No current state, engine just started. Switching directly to nextState.");
-        	cleanup();
-            currentState = nextState;
-            nextState = null;
-
-            currentState.init();
+            replaceState(false);
             
             // If the new state has an enter transition, start it
             TransitionEffect enterEffect = currentState.getEnterTransition();
@@ -125,20 +222,18 @@ public abstract class Engine {
 
             TransitionEffect exitEffect = currentState.getExitTransition();
             if (exitEffect != null) {
-                // Start the exit transition
+                // Start the exit transition (preload() goes on meanwhile, see handleTransition)
 //                Logger.log("Starting exit transition: " + exitEffect.getClass().getSimpleName());
                 transitionEffect = exitEffect;
                 transitionEffect.start();
                 stateManager.requestStateChange(EngineState.EXITING);
+            } else if (!isPreloadComplete()) {
+                // Nessuna transizione: lo stato corrente continua finché il caricamento non termina
+                return false;
             } else {
                 // No exit transition, clean up immediately and move on
 //                Logger.log("No exit transition. Cleaning up current state and switching now.");
-                cleanup();
-
-                currentState = nextState;
-                nextState = null;
-
-                currentState.init();
+                replaceState(false);
                 TransitionEffect enterEffect = currentState.getEnterTransition();
                 if (enterEffect != null) {
 //                    Logger.log("Starting enter transition: " + enterEffect.getClass().getSimpleName());
@@ -154,12 +249,53 @@ public abstract class Engine {
                 }
             }
         }
+        return true;
     }
     
+    /**
+     * Pulisce lo stato corrente e inizializza quello successivo (registrato come evento JFR).
+     */
+    private void replaceState(boolean afterTransition) {
+        StateSwitchEvent event = new StateSwitchEvent();
+        event.begin();
+        int entitiesRemoved = entities.size();
+        String fromState = currentState != null ? currentState.getClass().getSimpleName() : "None";
+        Logger.log("Switching game state: " + fromState + " -> " + nextState.getClass().getSimpleName());
+        waitingForPreload = false;
+        preloading = null;
+
+        GameState previousState = currentState;
+        cleanup();
+        if (previousState != null) {
+            AssetCache.releaseScope(previousState); // Restano in memoria solo gli asset usati anche dal nuovo stato
+        }
+        currentState = nextState;
+        nextState = null;
+        AssetCache.setThreadScope(currentState); // Gli asset caricati dal thread di gioco appartengono al nuovo stato
+        currentState.init();
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.fromState = fromState;
+            event.toState = currentState.getClass().getSimpleName();
+            event.entitiesRemoved = entitiesRemoved;
+            synchronized (slotLock) {
+                event.entitiesCreated = slotCount - freeCount; // Entità aggiunte da init(), in attesa del prossimo update
+            }
+            event.afterTransition = afterTransition;
+            event.commit();
+        }
+    }
+
     private void handleTransition(float deltaTime) {
         // Update the transition effect
         transitionEffect.update(deltaTime);
         if (transitionEffect.isCompleted()) {
+            if (stateManager.getCurrentState() == EngineState.EXITING && !isPreloadComplete()) {
+                // La transizione resta sull'ultimo fotogramma finché preload() non termina
+                waitingForPreload = true;
+                return;
+            }
 //            Logger.log("Transition effect completed.");
             transitionEffect = null;
 
@@ -170,12 +306,7 @@ public abstract class Engine {
 //                if (currentState != null) {
 //                    currentState.cleanup();
 //                }
-                cleanup();
-
-                currentState = nextState;
-                nextState = null;
-
-                currentState.init();
+                replaceState(true);
                 TransitionEffect enterEffect = currentState.getEnterTransition();
                 if (enterEffect != null) {
 //                    Logger.log("Starting enter transition: " + enterEffect.getClass().getSimpleName());
@@ -203,27 +334,244 @@ public abstract class Engine {
     	
     }
     
-    private void removeDeadEntities() {
-        synchronized (entities) {
-            entitiesToRemove.clear();
-            for (Entity entity : entities) {
-                if (!entity.isAlive()) {
-                    entitiesToRemove.add(entity);
-                    entityMap.remove(entity.getId());
+    /**
+     * Inserisce nel mondo un'entità registrata con addEntity(). Chiamato dal CommandBuffer.
+     */
+    void applySpawn(Entity entity) {
+        if (!entity.isAlive()) {
+            // Morta prima ancora di entrare nel mondo
+            releaseSlot(entity);
+            returnToPool(entity);
+            return;
+        }
+        allEntities.add(entity);
+        registerComponents(entity);
+    }
+
+    /**
+     * Rimuove un'entità dal mondo in O(1). Chiamato dal CommandBuffer.
+     */
+    void applyDespawn(Entity entity) {
+        // L'entità potrebbe essere stata rianimata o già rimossa dopo la registrazione del comando
+        if (entity.isAlive() || entity.getEngine() != this) {
+            return;
+        }
+        unregisterComponents(entity);
+        allEntities.remove(entity);
+        releaseSlot(entity);
+        returnToPool(entity);
+    }
+
+    /**
+     * Restituisce al proprio pool un'entità che ha lasciato il mondo, così da poterla riusare.
+     */
+    private void returnToPool(Entity entity) {
+        EntityPool pool = entity.getPool();
+        if (pool != null) {
+            pool.release(entity);
+        }
+    }
+
+    /**
+     * Assegna all'entità uno slot libero (riusando quelli delle entità rimosse) e il relativo handle.
+     * Restituisce false se l'entità ha già uno slot, cioè è già stata aggiunta.
+     */
+    private boolean acquireSlot(Entity entity) {
+        synchronized (slotLock) {
+            if (entity.getHandle() != Entity.NULL_HANDLE) {
+                return false;
+            }
+            int slot;
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (slotCount > SLOT_MASK) {
+                    throw new IllegalStateException("Too many entities: " + slotCount);
+                }
+                slot = slotCount++;
+                if (slot == slots.length) {
+                    slots = Arrays.copyOf(slots, slot * 2);
+                    generations = Arrays.copyOf(generations, slot * 2);
                 }
+                generations[slot] = 1;
+            }
+            slots[slot] = entity;
+            entity.setSlot(slot, (generations[slot] << SLOT_BITS) | slot);
+            return true;
+        }
+    }
+
+    /**
+     * Libera lo slot dell'entità incrementandone la generazione: gli handle già distribuiti diventano scaduti.
+     */
+    void releaseSlot(Entity entity) {
+        synchronized (slotLock) {
+            int slot = entity.getSlot();
+            if (slot < 0) {
+                return;
             }
-            entities.removeAll(entitiesToRemove);
+            slots[slot] = null;
+            int generation = (generations[slot] + 1) & GENERATION_MASK;
+            generations[slot] = (generation == 0) ? 1 : generation; // La generazione 0 è riservata a NULL_HANDLE
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            entity.clearSlot();
         }
     }
 
+    /**
+     * Inserisce i componenti di un'entità appena entrata nel mondo nei rispettivi storage.
+     */
+    private void registerComponents(Entity entity) {
+        entity.setEngine(this);
+        int capacity = entity.getComponentTypeCapacity();
+        for (int typeId = 0; typeId < capacity; typeId++) {
+            Component component = entity.getComponent(typeId);
+            if (component != null) {
+                storageFor(typeId, component.getClass()).add(entity, component);
+            }
+        }
+        for (int i = 0; i < queries.size(); i++) {
+            EntityQuery query = queries.get(i);
+            if (query.matches(entity)) {
+                query.add(entity);
+            }
+        }
+    }
+
+    private void unregisterComponents(Entity entity) {
+        // Si controllano tutti gli storage: una modifica differita potrebbe non essere ancora stata applicata
+        for (int typeId = 0; typeId < storages.length; typeId++) {
+            if (storages[typeId] != null) {
+                storages[typeId].remove(entity);
+            }
+        }
+        for (int i = 0; i < queries.size(); i++) {
+            queries.get(i).remove(entity);
+        }
+        entity.setEngine(null);
+    }
+
+    void componentAdded(Entity entity, int typeId, Component component) {
+        if (isIterating()) {
+            // Chiamato mentre si itera il mondo: storage e query vengono aggiornati al punto di sincronizzazione
+            commandBuffer.syncComponents(entity);
+            return;
+        }
+        entityLock.writeLock().lock();
+        try {
+            storageFor(typeId, component.getClass()).add(entity, component);
+            updateQueries(entity);
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    void componentRemoved(Entity entity, int typeId) {
+        if (isIterating()) {
+            commandBuffer.syncComponents(entity);
+            return;
+        }
+        entityLock.writeLock().lock();
+        try {
+            if (typeId < storages.length && storages[typeId] != null) {
+                storages[typeId].remove(entity);
+            }
+            updateQueries(entity);
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * True durante l'aggiornamento dei sistemi (anche sui thread worker, che non possiedono
+     * il read lock) o se il thread corrente sta scorrendo il mondo: in questi casi
+     * storage e query non possono essere modificati subito.
+     */
+    private boolean isIterating() {
+        return updatingSystems || entityLock.getReadHoldCount() > 0;
+    }
+
+    /**
+     * Riallinea storage e query ai componenti attuali di un'entità. Chiamato dal CommandBuffer
+     * per le modifiche ai componenti fatte durante l'iterazione.
+     */
+    void applySyncComponents(Entity entity) {
+        if (entity.getEngine() != this) {
+            return;
+        }
+        int capacity = Math.max(entity.getComponentTypeCapacity(), storages.length);
+        for (int typeId = 0; typeId < capacity; typeId++) {
+            Component component = entity.getComponent(typeId);
+            if (component != null) {
+                storageFor(typeId, component.getClass()).add(entity, component);
+            } else if (typeId < storages.length && storages[typeId] != null) {
+                storages[typeId].remove(entity);
+            }
+        }
+        updateQueries(entity);
+    }
+
+    private void updateQueries(Entity entity) {
+        for (int i = 0; i < queries.size(); i++) {
+            EntityQuery query = queries.get(i);
+            boolean matches = query.matches(entity);
+            if (matches && !query.contains(entity)) {
+                query.add(entity);
+            } else if (!matches && query.contains(entity)) {
+                query.remove(entity);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Component> ComponentStorage<T> storageFor(int typeId, Class<T> componentClass) {
+        if (typeId >= storages.length) {
+            storages = Arrays.copyOf(storages, Math.max(typeId + 1, storages.length * 2));
+        }
+        if (storages[typeId] == null) {
+            storages[typeId] = new ComponentStorage<>(componentClass);
+        }
+        return (ComponentStorage<T>) storages[typeId];
+    }
+
+    /**
+     * Called from the Swing EDT. Systems draw from the snapshots published by the
+     * game thread, so the list of systems is iterated without taking any lock.
+     */
     public void render(Graphics2D g) {
-        synchronized (systems) {
-            systems.forEach(system -> system.render(g));
+        render(g, 1f);
+    }
+
+    /**
+     * Renders interpolating between the last two updates: alpha is the fraction of the
+     * update interval elapsed since the last update (0 = previous state, 1 = current state).
+     */
+    public void render(Graphics2D g, float alpha) {
+        interpolationAlpha = alpha;
+        FrameRenderEvent event = new FrameRenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        for (int i = 0; i < systems.size(); i++) {
+            systems.get(i).timedRender(g);
         }
        
         if (transitionEffect != null) {
         	transitionEffect.render(g);
         }
+        if (waitingForPreload && loadingScreen != null) {
+            loadingScreen.render(g, getLoadingProgress());
+        }
+        renderStats.record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.systems = systems.size();
+            event.alpha = alpha;
+            event.transition = transitionEffect != null;
+            event.commit();
+        }
    }
 
     public void addEntity(Entity entity) {
@@ -232,19 +580,19 @@ public abstract class Engine {
         	return;
         }
 
-        int id = entity.getId();
+        if (entity.isInPool()) {
+            Logger.log("Entity " + entity.getId() + " is inside pool " + entity.getPool().getName()
+                + ": acquire it before adding it.");
+            return;
+        }
 
-        // Controllo duplicato
-        if (entityMap.containsKey(id)) {
+        // Controllo duplicato: un'entità nel mondo ha già uno slot
+        if (!acquireSlot(entity)) {
             Logger.log("Duplicated entity ID "
-                + id + " (" + entity.getType() + ")");
+                + entity.getId() + " (" + entity.getType() + ")");
             return;
         }
-        
-        synchronized (entities) {
-            entitiesToAdd.add(entity);
-            entityMap.put(id, entity);
-        }
+        commandBuffer.spawn(entity);
     }
 
     public void addSystem(BaseSystem system) {
@@ -254,11 +602,80 @@ public abstract class Engine {
 
         synchronized (systems) {
             systems.add(system);
+            scheduler.invalidate();
         }
     }
 
+    /**
+     * Enables the parallel scheduler: systems are grouped in waves according to the
+     * components they declare to read and write (see BaseSystem.reads/writes) and the
+     * systems of a wave run concurrently on a ForkJoinPool. Systems that declare nothing
+     * always run alone, so the default is the same order as the sequential update.
+     * Game callbacks (timers, animation end, death, ...) still run alone on the game thread,
+     * after the wave that requested them (see runOnGameThread).
+     */
+    public void setParallelSystems(boolean parallelSystems) {
+        this.parallelSystems = parallelSystems;
+        Logger.log("Parallel systems are " + (parallelSystems ? "ON" : "OFF"));
+    }
+
+    public boolean isParallelSystems() {
+        return parallelSystems;
+    }
+
+    /**
+     * Da chiamare quando cambiano le condizioni di aggiornamento di un sistema.
+     */
+    void systemsChanged() {
+        scheduler.invalidate();
+    }
+
+    /**
+     * Requests a switch to the given state. Its preload() starts immediately on a background
+     * thread; the switch (cleanup of the current state and init() of the new one) happens
+     * once preloading has finished and the exit transition, if any, has completed.
+     */
     public void setNextState(GameState nextState) {
         this.nextState = nextState;
+        preloading = nextState != null ? CompletableFuture.runAsync(() -> preload(nextState), preloadExecutor) : null;
+    }
+
+    private void preload(GameState state) {
+        long start = System.nanoTime();
+        AssetCache.setThreadScope(state);
+        try {
+            state.preload();
+            Logger.log(String.format("Preloaded %s in %.1f ms", state.getClass().getSimpleName(),
+                (System.nanoTime() - start) / 1e6));
+        } catch (RuntimeException e) {
+            // Lo stato caricherà in init() quello che manca
+            Logger.log("Error while preloading " + state.getClass().getSimpleName(), e);
+        } finally {
+            AssetCache.setThreadScope(null);
+        }
+    }
+
+    /**
+     * True when the preload() of the requested next state has finished (or there is none).
+     */
+    public boolean isPreloadComplete() {
+        CompletableFuture<Void> future = preloading;
+        return future == null || future.isDone();
+    }
+
+    /**
+     * Progress of the preload() of the requested next state, from 0 to 1.
+     */
+    public float getLoadingProgress() {
+        GameState state = nextState;
+        return state != null && !isPreloadComplete() ? state.getLoadingProgress() : 1f;
+    }
+
+    /**
+     * Screen drawn while the game is blocked waiting for preload() (null draws nothing).
+     */
+    public void setLoadingScreen(LoadingScreen loadingScreen) {
+        this.loadingScreen = loadingScreen;
     }
 
     public EngineStateManager getStateManager() {
@@ -269,17 +686,64 @@ public abstract class Engine {
      * Sort entities using a given comparator.
      */
     public void sortEntities(Comparator<Entity> comparator) {
-        synchronized (entities) {
-            entities.sort(comparator);
+        entityLock.writeLock().lock();
+        try {
+            allEntities.sort(comparator);
+        } finally {
+            entityLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Runs a callback set by the game (timer over, animation ended, death, ...). While the
+     * systems are updating the callback is queued and run by the game thread right after the
+     * system, or the wave of parallel systems, that requested it: callbacks never run
+     * concurrently with a system, so they may touch any component. Otherwise it runs at once.
+     * Components call it through Component.runCallback().
+     */
+    public void runOnGameThread(Runnable callback) {
+        if (callback == null) {
+            return;
+        }
+        if (updatingSystems) {
+            callbacks.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * Esegue le callback in coda: chiamato dallo scheduler alla fine di ogni ondata.
+     */
+    void runPendingCallbacks() {
+        callbacks.runAll();
+    }
+
+    /**
+     * Buffer in which systems record structural changes (spawns, despawns, component
+     * additions and removals) while iterating; they are applied at the end of update().
+     */
+    public CommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+
+    /**
+     * Bus on which systems publish gameplay events; subscribers receive them in batches
+     * once per tick, after all systems have updated. Subscriptions are dropped on state change.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
     /**
      * Thread-safe access to entities via a consumer action.
      */
     public void accessEntities(Consumer<List<Entity>> action) {
-        synchronized (entities) {
+        entityLock.readLock().lock();
+        try {
             action.accept(entities);
+        } finally {
+            entityLock.readLock().unlock();
         }
     }
 
@@ -287,20 +751,98 @@ public abstract class Engine {
      * Thread-safe access to entities with a specific component via a consumer action.
      */
     public <T extends Component> void accessEntitiesWithComponent(Class<T> componentClass, Consumer<List<Entity>> action) {
-        synchronized (entities) {
-            List<Entity> filteredEntities = entities.stream()
-                .filter(entity -> entity.hasComponent(componentClass))
-                .collect(Collectors.toList());
-            action.accept(filteredEntities);
+        accessEntities(query(componentClass), action);
+    }
+
+    /**
+     * Returns the cached view of the entities owning all the given component types.
+     * The view is created on first request and then kept up to date incrementally,
+     * so systems should obtain it once (e.g. in their constructor) and reuse it.
+     */
+    @SafeVarargs
+    public final EntityQuery query(Class<? extends Component>... componentClasses) {
+        ComponentSignature required = new ComponentSignature();
+        for (Class<? extends Component> componentClass : componentClasses) {
+            required.set(ComponentType.idOf(componentClass));
+        }
+        // Sotto read lock il mondo non cambia: basta escludere le altre creazioni concorrenti
+        entityLock.readLock().lock();
+        try {
+            synchronized (registryLock) {
+                EntityQuery query = queryCache.get(required);
+                if (query == null) {
+                    query = new EntityQuery(required);
+                    for (int i = 0; i < entities.size(); i++) {
+                        Entity entity = entities.get(i);
+                        if (query.matches(entity)) {
+                            query.add(entity);
+                        }
+                    }
+                    queryCache.put(required, query);
+                    queries.add(query);
+                }
+                return query;
+            }
+        } finally {
+            entityLock.readLock().unlock();
         }
     }
 
-    public Entity getEntityById(int id) {
-    	Entity entity = null;
-        synchronized (entities) {
-        	entity = entityMap.get(id);
+    /**
+     * Thread-safe access to the entities of a query via a consumer action.
+     */
+    public void accessEntities(EntityQuery query, Consumer<List<Entity>> action) {
+        entityLock.readLock().lock();
+        try {
+            action.accept(query.getEntities());
+        } finally {
+            entityLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sort the entities of a query using a given comparator.
+     */
+    public void sortEntities(EntityQuery query, Comparator<Entity> comparator) {
+        entityLock.writeLock().lock();
+        try {
+            query.sort(comparator);
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Thread-safe access to the packed storage of a component type via a consumer action.
+     * The storage lists every component of that type currently in the world, contiguously.
+     */
+    public <T extends Component> void accessComponents(Class<T> componentClass, Consumer<ComponentStorage<T>> action) {
+        entityLock.readLock().lock();
+        try {
+            ComponentStorage<T> storage;
+            synchronized (registryLock) {
+                storage = storageFor(ComponentType.idOf(componentClass), componentClass);
+            }
+            action.accept(storage);
+        } finally {
+            entityLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a handle obtained from Entity.getHandle() in O(1).
+     * Returns null if the handle is NULL_HANDLE or stale, i.e. the entity it referred to
+     * has been removed (its slot may now hold a different entity).
+     */
+    public Entity getEntityByHandle(int handle) {
+        int slot = handle & SLOT_MASK;
+        int generation = handle >>> SLOT_BITS;
+        synchronized (slotLock) {
+            if (handle == Entity.NULL_HANDLE || slot >= slotCount || generations[slot] != generation) {
+                return null;
+            }
+            return slots[slot];
         }
-        return entity;
     }
     
     public KeyboardInputHandler getInputHandler() {
@@ -311,9 +853,107 @@ public abstract class Engine {
         return mouseInputHandler;
     }
 
+    public InputRecorder getInputRecorder() {
+        return inputRecorder;
+    }
+
+    /**
+     * Records the actions of every following tick (null stops recording; closing the
+     * recorder is up to the caller).
+     */
+    public void setInputRecorder(InputRecorder inputRecorder) {
+        this.inputRecorder = inputRecorder;
+    }
+
+    public InputReplay getInputReplay() {
+        return inputReplay;
+    }
+
+    /**
+     * Takes the actions of every following tick from a recording instead of the keyboard
+     * (null goes back to the keyboard).
+     */
+    public void setInputReplay(InputReplay inputReplay) {
+        this.inputReplay = inputReplay;
+    }
+
+    /**
+     * Copies the runtime state of every entity into the given snapshot (see WorldSnapshot).
+     * Can be called at any time, also by a system during its update.
+     */
+    public void captureSnapshot(WorldSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null.");
+        }
+        entityLock.readLock().lock();
+        try {
+            snapshot.capture(entities);
+        } finally {
+            entityLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Brings the world back to the state of a snapshot. Called during an update (for example
+     * by a key action) the restore is applied at the end of the tick, when the world is
+     * not being iterated.
+     */
+    public void restoreSnapshot(WorldSnapshot snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null.");
+        }
+        if (isIterating()) {
+            pendingRestore = snapshot;
+            return;
+        }
+        entityLock.writeLock().lock();
+        try {
+            commandBuffer.apply(this); // Prima i comandi già in coda, poi lo stato salvato
+            applyRestore(snapshot);
+        } finally {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+    private void applyRestore(WorldSnapshot snapshot) {
+        snapshot.restore(this, entities);
+        commandBuffer.apply(this); // Entità riportate nel mondo o rimosse dal ripristino
+    }
+
+    /**
+     * CRC32 of the state of the world: type, layer, alive flag and position of every entity,
+     * in world order. Two runs fed with the same input and the same fixed delta time must
+     * end with the same checksum (entity ids are excluded, they depend on what else was
+     * created in the same JVM).
+     */
+    public long computeStateChecksum() {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        entityLock.readLock().lock();
+        try {
+            buffer.putInt(entities.size()).flip();
+            crc.update(buffer);
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                MotionComponent motion = entity.getComponent(MotionComponent.class);
+                buffer.clear();
+                buffer.putInt(entity.getType() != null ? entity.getType().ordinal() : -1);
+                buffer.putInt(entity.getLayer());
+                buffer.putInt(entity.isAlive() ? 1 : 0);
+                buffer.putFloat(motion != null ? motion.getX() : 0f);
+                buffer.putFloat(motion != null ? motion.getY() : 0f);
+                buffer.flip();
+                crc.update(buffer);
+            }
+        } finally {
+            entityLock.readLock().unlock();
+        }
+        return crc.getValue();
+    }
+
     /**
      * Pulisce tutte le entità e i sistemi.
-     * I blocchi synchronized su entities e systems sono separati
+     * Il lock delle entità e quello dei sistemi sono presi separatamente
      * per evitare deadlock dovuti al thread di rendering Swing.
      */
     public void cleanup() {
@@ -321,14 +961,34 @@ public abstract class Engine {
             if (currentState != null) {
                 currentState.cleanup();
             }
-            synchronized (entities) {
-                entities.clear();
-                entitiesToAdd.clear();
-                entitiesToRemove.clear();
-                entityMap.clear();
+            entityLock.writeLock().lock();
+            try {
+                for (ComponentStorage<?> storage : storages) {
+                    if (storage != null) {
+                        storage.clear();
+                    }
+                }
+                for (EntityQuery query : queries) {
+                    query.clear();
+                }
+                // Gli slot vengono liberati (non azzerati) così gli handle del vecchio stato restano scaduti
+                while (!entities.isEmpty()) {
+                    Entity entity = entities.get(entities.size() - 1);
+                    allEntities.remove(entity);
+                    entity.setEngine(null);
+                    releaseSlot(entity);
+                    returnToPool(entity);
+                }
+                // Le entità in attesa di entrare nel mondo hanno già uno slot da liberare
+                commandBuffer.discard(this);
+                eventBus.clear();
+                pendingRestore = null;
+            } finally {
+                entityLock.writeLock().unlock();
             }
             synchronized (systems) {
                 systems.clear();
+                scheduler.invalidate();
             }
 
             Logger.log("Engine cleaned up successfully.");
@@ -350,6 +1010,13 @@ public abstract class Engine {
         return currentState;
     }
     
+	/**
+	 * Interpolation factor of the frame being rendered, see render(Graphics2D, float).
+	 */
+	public float getInterpolationAlpha() {
+		return interpolationAlpha;
+	}
+
 	public boolean isDebug() {
 		return debug;
 	}
@@ -359,13 +1026,65 @@ public abstract class Engine {
     	Logger.log("Debug is "+(debug?"ON":"OFF"));
 	}
 
+    /**
+     * Number of entities currently in the world (pending spawns excluded).
+     */
+    public int getEntityCount() {
+        return entities.size();
+    }
+
+    /**
+     * Read-only view of the registered systems, in priority order once the state is running.
+     */
+    public List<BaseSystem> getSystems() {
+        return systemsView;
+    }
+
+    /** Duration of the whole systems phase plus the command buffer, per update. */
+    public TimingStats getUpdateStats() {
+        return updateStats;
+    }
+
+    /** Duration of render(), measured on the EDT. */
+    public TimingStats getRenderStats() {
+        return renderStats;
+    }
+
+    /**
+     * Writes the timings of every system (and of the whole update and render) to a CSV
+     * file, in microseconds. Returns false if the file could not be written.
+     */
+    public boolean writeProfileCsv(Path file) {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            out.println("name,phase,samples,last_us,min_us,avg_us,p99_us,max_us");
+            writeProfileRow(out, "Engine", "update", updateStats);
+            writeProfileRow(out, "Engine", "render", renderStats);
+            for (BaseSystem system : systems) {
+                writeProfileRow(out, system.getName(), "update", system.getUpdateStats());
+                writeProfileRow(out, system.getName(), "render", system.getRenderStats());
+            }
+        } catch (IOException e) {
+            Logger.log("Cannot write profile to " + file, e);
+            return false;
+        }
+        Logger.log("Profile written to " + file.toAbsolutePath());
+        return true;
+    }
+
+    private void writeProfileRow(PrintWriter out, String name, String phase, TimingStats stats) {
+        out.printf(Locale.ROOT, "%s,%s,%d,%.1f,%.1f,%.1f,%.1f,%.1f%n", name, phase, stats.getSampleCount(),
+            stats.getLast() / 1e3, stats.getMin() / 1e3, stats.getAverage() / 1e3,
+            stats.getPercentile99() / 1e3, stats.getMax() / 1e3);
+    }
+
 	public String getDebugInfo() {
         return String.format(
-            "Entities: %d | Systems: %d | State: %s - %s",
+            "Entities: %d | Systems: %d | State: %s - %s | Update %.2f ms",
             entities.size(),
             systems.size(),
             currentState != null ? currentState.getClass().getSimpleName() : "None",
-            stateManager.getCurrentState()
+            stateManager.getCurrentState(),
+            updateStats.getAverage() / 1e6
         );
     }
 }
\ No newline at end of file
@@ -8,55 +8,180 @@
 
 package engine;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import enums.EntityType;
 import java.util.HashMap;
 
 public class Entity {
+    /**
+     * Handle che non corrisponde a nessuna entità (generazione 0 non viene mai assegnata).
+     */
+    public static final int NULL_HANDLE = 0;
+
     private int id;
     private static int idCount = 1;
     private EntityType type;
     private int layer; // Priorità di rendering o di gestione
     private boolean alive;
-	private Map<Class<? extends Component>, Component> components;
+	// Componenti indicizzati per ComponentType: l'accesso è un semplice indice di array
+	private Component[] components;
+	private final ComponentSignature signature = new ComponentSignature(); // Tipi di componente presenti
+	private Engine engine; // Motore che contiene l'entità (null se non ancora aggiunta)
+	private int slot = -1; // Slot nella tabella delle entità dell'engine (-1 se non assegnato)
+	private int handle = NULL_HANDLE; // Slot + generazione, valido finché l'entità resta nel mondo
+	private EntityPool pool; // Pool a cui l'entità ritorna quando esce dal mondo (null se non gestita da un pool)
+	private boolean inPool; // true mentre l'entità è disponibile nel pool
 
 	public Entity(EntityType type, int layer) {
 		this.id = idCount++;
 		this.type = type;
 		this.layer = layer;
-		components = new HashMap<>();
+		components = new Component[Math.max(ComponentType.count(), 8)];
 		alive = true;
 	}
 
 	public <T extends Component> void addComponent(T component) {
-	    if (components.containsKey(component.getClass())) {
+		int typeId = ComponentType.idOf(component.getClass());
+	    if (typeId < components.length && components[typeId] != null) {
 	        throw new IllegalArgumentException(
 	            "Component of type " + component.getClass().getSimpleName() + " already exists in Entity " + id
 	        );
 	    }
-	    components.put(component.getClass(), component);
+	    if (typeId >= components.length) {
+	    	components = Arrays.copyOf(components, Math.max(typeId + 1, components.length * 2));
+	    }
+	    components[typeId] = component;
+	    signature.set(typeId);
+	    if (engine != null) {
+	    	engine.componentAdded(this, typeId, component);
+	    }
 	}
 
 	public <T extends Component> boolean hasComponent(Class<T> componentClass) {
-		return components.containsKey(componentClass);
+		int typeId = ComponentType.idOf(componentClass);
+		return typeId < components.length && components[typeId] != null;
 	}
 
 	public <T extends Component> T getComponent(Class<T> componentClass) {
-		return componentClass.cast(components.get(componentClass));
+		int typeId = ComponentType.idOf(componentClass);
+		return typeId < components.length ? componentClass.cast(components[typeId]) : null;
 	}
 	
     public Map<Class<? extends Component>, Component> getAllComponents() {
-        return new HashMap<>(components); // Restituisce una copia per sicurezza
+        Map<Class<? extends Component>, Component> copy = new HashMap<>(); // Restituisce una copia per sicurezza
+        for (Component component : components) {
+        	if (component != null) {
+        		copy.put(component.getClass(), component);
+        	}
+        }
+        return copy;
     }
 
     public <T extends Component> T removeComponent(Class<T> componentClass) {
-		return componentClass.cast(components.remove(componentClass));
+		int typeId = ComponentType.idOf(componentClass);
+		if (typeId >= components.length || components[typeId] == null) {
+			return null;
+		}
+		T removed = componentClass.cast(components[typeId]);
+		components[typeId] = null;
+		signature.clear(typeId);
+		if (engine != null) {
+			engine.componentRemoved(this, typeId);
+		}
+		return removed;
+	}
+
+	/**
+	 * Componente con l'id di tipo indicato, usato dal motore per popolare gli storage.
+	 */
+	Component getComponent(int typeId) {
+		return typeId < components.length ? components[typeId] : null;
+	}
+
+	ComponentSignature getSignature() {
+		return signature;
+	}
+
+	int getComponentTypeCapacity() {
+		return components.length;
+	}
+
+	Engine getEngine() {
+		return engine;
+	}
+
+	void setEngine(Engine engine) {
+		this.engine = engine;
+	}
+
+	void setSlot(int slot, int handle) {
+		this.slot = slot;
+		this.handle = handle;
+	}
+
+	void clearSlot() {
+		this.slot = -1;
+		this.handle = NULL_HANDLE;
+	}
+
+	/**
+	 * Indice dello slot occupato nell'engine, usato come chiave negli array sparsi.
+	 */
+	int getSlot() {
+		return slot;
+	}
+
+	EntityPool getPool() {
+		return pool;
+	}
+
+	void setPool(EntityPool pool) {
+		this.pool = pool;
+	}
+
+	boolean isInPool() {
+		return inPool;
+	}
+
+	void setInPool(boolean inPool) {
+		this.inPool = inPool;
+	}
+
+	/**
+	 * Riporta tutti i componenti allo stato iniziale prima di rimettere l'entità nel pool.
+	 */
+	void resetComponents() {
+		for (Component component : components) {
+			if (component != null) {
+				component.reset();
+			}
+		}
+	}
+
+	/**
+	 * Array dei componenti indicizzato per ComponentType (con posizioni null); da non modificare.
+	 */
+	Component[] getComponentArray() {
+		return components;
 	}
 
 	public int getId() {
 		return id;
 	}
+
+	/**
+	 * Generational handle (slot index + generation) assigned when the entity is added
+	 * to an engine, or NULL_HANDLE if it is not in a world. Once the entity is removed
+	 * its slot is recycled with a new generation, so an old handle no longer resolves.
+	 * @see Engine#getEntityByHandle(int)
+	 */
+	public int getHandle() {
+		return handle;
+	}
 	
     public EntityType getType() {
         return this.type;
@@ -66,8 +191,16 @@ public class Entity {
 		return alive;
 	}
 
+	/**
+	 * Setting an entity in a world as not alive schedules its removal,
+	 * which is applied at the end of the current engine update.
+	 */
 	public void setAlive(boolean alive) {
+		boolean wasAlive = this.alive;
 		this.alive = alive;
+		if (wasAlive && !alive && engine != null) {
+			engine.getCommandBuffer().despawn(this);
+		}
 	}
 	
     public int getLayer() {
@@ -99,11 +232,17 @@ public class Entity {
     public String toString() {
         return String.format(
             "Entity {id=%d, type=%s, layer=%d, alive=%s, components=%s}",
-            id, type, layer, alive, 
-            components.keySet().stream()
-                     .map(Class::getSimpleName) // Ottiene solo il nome semplice della classe
-                     .toList()                 // Converte il risultato in una lista
-        );
+            id, type, layer, alive, componentNames());
+    }
+
+    private List<String> componentNames() {
+        List<String> names = new ArrayList<>();
+        for (Component component : components) {
+        	if (component != null) {
+        		names.add(component.getClass().getSimpleName()); // Ottiene solo il nome semplice della classe
+        	}
+        }
+        return names;
     }
 
 }
@@ -0,0 +1,154 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import helpers.Logger;
+
+/**
+ * Pool of reusable entities built from the same prefab (for example projectiles or
+ * short-lived effects). The entities are created up front; acquire() hands out a free
+ * one and, when it is despawned with setAlive(false), the engine gives it back to the
+ * pool after resetting its components (see Component.reset()). In the steady state
+ * spawning a pooled entity allocates nothing.
+ */
+public class EntityPool {
+    private final String name;
+    private final Supplier<Entity> prefab;
+    private Entity[] free; // Pila delle entità disponibili
+    private int freeCount;
+    private int created;
+    private int inUse;
+    private int peakInUse;
+    private int misses; // Acquisizioni che hanno dovuto creare una nuova entità
+
+    /**
+     * @param name        name shown in the statistics
+     * @param prefab      builds a new entity with all its components
+     * @param initialSize number of entities created immediately
+     */
+    public EntityPool(String name, Supplier<Entity> prefab, int initialSize) {
+        if (prefab == null) {
+            throw new IllegalArgumentException("Prefab cannot be null.");
+        }
+        if (initialSize < 0) {
+            throw new IllegalArgumentException("Initial size cannot be negative: " + initialSize);
+        }
+        this.name = name;
+        this.prefab = prefab;
+        this.free = new Entity[Math.max(initialSize, 4)];
+        for (int i = 0; i < initialSize; i++) {
+            free[freeCount++] = create();
+        }
+    }
+
+    /**
+     * Returns a free entity, alive and with its components reset, ready to be
+     * positioned and added with Engine.addEntity(). If the pool is empty a new
+     * entity is built from the prefab (counted as a miss).
+     */
+    public synchronized Entity acquire() {
+        Entity entity;
+        if (freeCount > 0) {
+            entity = free[--freeCount];
+            free[freeCount] = null;
+            entity.setInPool(false);
+        } else {
+            entity = create();
+            entity.setInPool(false);
+            misses++;
+        }
+        inUse++;
+        if (inUse > peakInUse) {
+            peakInUse = inUse;
+        }
+        entity.setAlive(true);
+        return entity;
+    }
+
+    /**
+     * Gives an entity back to the pool. Called by the engine when a pooled entity
+     * leaves the world; it can also be called directly for an entity that was
+     * acquired but never added.
+     */
+    public synchronized void release(Entity entity) {
+        if (entity == null || entity.getPool() != this) {
+            Logger.log("Entity does not belong to pool " + name + ": " + entity);
+            return;
+        }
+        if (entity.getEngine() != null) {
+            Logger.log("Entity " + entity.getId() + " is still in a world and cannot return to pool " + name);
+            return;
+        }
+        if (entity.isInPool()) {
+            return; // Già restituita
+        }
+        entity.setInPool(true);
+        entity.setAlive(false);
+        entity.resetComponents();
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = entity;
+        inUse--;
+    }
+
+    private Entity create() {
+        Entity entity = prefab.get();
+        if (entity == null) {
+            throw new IllegalStateException("Prefab of pool " + name + " returned null.");
+        }
+        entity.setPool(this);
+        entity.setInPool(true);
+        entity.setAlive(false); // Nel pool le entità sono inattive
+        created++;
+        return entity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Number of entities ready to be acquired. */
+    public synchronized int getAvailable() {
+        return freeCount;
+    }
+
+    /** Number of entities acquired and not yet released. */
+    public synchronized int getInUse() {
+        return inUse;
+    }
+
+    /** Highest number of entities in use at the same time. */
+    public synchronized int getPeakInUse() {
+        return peakInUse;
+    }
+
+    /** Total number of entities built from the prefab. */
+    public synchronized int getCreated() {
+        return created;
+    }
+
+    /** Number of acquisitions that found the pool empty. */
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized String getStats() {
+        return String.format("Pool %s: in use=%d, available=%d, peak=%d, created=%d, misses=%d",
+            name, inUse, freeCount, peakInUse, created, misses);
+    }
+
+    @Override
+    public String toString() {
+        return getStats();
+    }
+}
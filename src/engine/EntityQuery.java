@@ -0,0 +1,100 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Vista pre-filtrata delle entità che possiedono tutti i componenti richiesti.
+ * Le query vengono create da Engine.query(...) e aggiornate in modo incrementale
+ * quando un'entità entra o esce dal mondo o cambia i propri componenti:
+ * i sistemi possono quindi scorrerle a ogni frame senza rifiltrare tutto il mondo.
+ */
+public class EntityQuery {
+    private final ComponentSignature required;
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<Entity> view = Collections.unmodifiableList(entities);
+    private int[] positions = new int[16]; // slot dell'entità -> posizione + 1 (0 = assente)
+
+    EntityQuery(ComponentSignature required) {
+        this.required = required;
+    }
+
+    boolean matches(Entity entity) {
+        return entity.getSignature().containsAll(required);
+    }
+
+    boolean contains(Entity entity) {
+        int key = entity.getSlot();
+        return key < positions.length && positions[key] != 0;
+    }
+
+    void add(Entity entity) {
+        int key = entity.getSlot();
+        if (key >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(key + 1, positions.length * 2));
+        }
+        if (positions[key] != 0) {
+            return;
+        }
+        entities.add(entity);
+        positions[key] = entities.size();
+    }
+
+    void remove(Entity entity) {
+        int key = entity.getSlot();
+        if (key >= positions.length || positions[key] == 0) {
+            return;
+        }
+        int position = positions[key] - 1;
+        int last = entities.size() - 1;
+        Entity moved = entities.get(last);
+        entities.set(position, moved);
+        positions[moved.getSlot()] = position + 1;
+        entities.remove(last);
+        positions[key] = 0;
+    }
+
+    void clear() {
+        for (Entity entity : entities) {
+            positions[entity.getSlot()] = 0;
+        }
+        entities.clear();
+    }
+
+    /**
+     * Riordina le entità della vista (ad esempio per layer) mantenendo coerenti gli indici.
+     */
+    void sort(Comparator<Entity> comparator) {
+        entities.sort(comparator);
+        for (int i = 0; i < entities.size(); i++) {
+            positions[entities.get(i).getSlot()] = i + 1;
+        }
+    }
+
+    /**
+     * Read-only, live list of the matching entities. Iterate it inside
+     * Engine.accessEntities(query, ...) to be safe against concurrent changes.
+     */
+    public List<Entity> getEntities() {
+        return view;
+    }
+
+    public int size() {
+        return entities.size();
+    }
+
+    public Entity get(int index) {
+        return entities.get(index);
+    }
+}
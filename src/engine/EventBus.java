@@ -0,0 +1,238 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enums.EventType;
+import helpers.Logger;
+
+/**
+ * Engine-level event bus. Systems publish events (collisions, tile contacts, proximity
+ * changes, damage) while they update; the events are stored in a preallocated ring buffer
+ * per type and delivered once per tick, at the end of the systems phase, to the subscribers
+ * of that type as a single batch. Each event has a source entity, an optional target entity
+ * and two integers whose meaning depends on the type (see EventType).
+ * Handlers only see the entities that actually had events, instead of polling every entity.
+ */
+public class EventBus {
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Receives all the events of one type published during a tick.
+     */
+    public interface Subscriber {
+        void onEvents(Batch events);
+    }
+
+    /**
+     * Read-only view of the events being dispatched; valid only inside Subscriber.onEvents.
+     * Indices go from 0 to size() - 1 in publication order.
+     */
+    public static final class Batch {
+        private final EventType type;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Ring buffer in array paralleli: nessun oggetto evento viene allocato
+        private Entity[] sources = new Entity[INITIAL_CAPACITY];
+        private Entity[] targets = new Entity[INITIAL_CAPACITY];
+        private int[] xs = new int[INITIAL_CAPACITY];
+        private int[] ys = new int[INITIAL_CAPACITY];
+        private int mask = INITIAL_CAPACITY - 1;
+        private int head;  // Primo evento non ancora consegnato
+        private int count; // Eventi in coda
+        private int limit; // Eventi visibili nel batch in consegna
+
+        private Batch(EventType type) {
+            this.type = type;
+        }
+
+        public EventType getType() {
+            return type;
+        }
+
+        public int size() {
+            return limit;
+        }
+
+        public Entity getSource(int index) {
+            return sources[slot(index)];
+        }
+
+        public Entity getTarget(int index) {
+            return targets[slot(index)];
+        }
+
+        public int getX(int index) {
+            return xs[slot(index)];
+        }
+
+        public int getY(int index) {
+            return ys[slot(index)];
+        }
+
+        /** Damage amount of a DAMAGE event (same as getX). */
+        public int getAmount(int index) {
+            return xs[slot(index)];
+        }
+
+        private int slot(int index) {
+            if (index < 0 || index >= limit) {
+                throw new IndexOutOfBoundsException("Event " + index + " of " + limit);
+            }
+            return (head + index) & mask;
+        }
+
+        private void push(Entity source, Entity target, int x, int y) {
+            if (count == sources.length) {
+                grow();
+            }
+            int tail = (head + count) & mask;
+            sources[tail] = source;
+            targets[tail] = target;
+            xs[tail] = x;
+            ys[tail] = y;
+            count++;
+        }
+
+        /**
+         * Raddoppia il buffer riportando gli eventi in ordine a partire dall'indice 0.
+         */
+        private void grow() {
+            int capacity = sources.length * 2;
+            Logger.log("Event buffer for " + type + " full, growing to " + capacity + " events.");
+            Entity[] newSources = new Entity[capacity];
+            Entity[] newTargets = new Entity[capacity];
+            int[] newXs = new int[capacity];
+            int[] newYs = new int[capacity];
+            for (int i = 0; i < count; i++) {
+                int from = (head + i) & mask;
+                newSources[i] = sources[from];
+                newTargets[i] = targets[from];
+                newXs[i] = xs[from];
+                newYs[i] = ys[from];
+            }
+            sources = newSources;
+            targets = newTargets;
+            xs = newXs;
+            ys = newYs;
+            mask = capacity - 1;
+            head = 0;
+        }
+
+        /**
+         * Scarta i primi n eventi azzerando i riferimenti alle entità.
+         */
+        private void consume(int n) {
+            for (int i = 0; i < n; i++) {
+                int index = (head + i) & mask;
+                sources[index] = null;
+                targets[index] = null;
+            }
+            head = (head + n) & mask;
+            count -= n;
+        }
+    }
+
+    private final Batch[] batches;
+
+    public EventBus() {
+        EventType[] types = EventType.values();
+        batches = new Batch[types.length];
+        for (EventType type : types) {
+            batches[type.ordinal()] = new Batch(type);
+        }
+    }
+
+    public void subscribe(EventType type, Subscriber subscriber) {
+        if (subscriber == null) {
+            throw new IllegalArgumentException("Subscriber cannot be null.");
+        }
+        batches[type.ordinal()].subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(EventType type, Subscriber subscriber) {
+        batches[type.ordinal()].subscribers.remove(subscriber);
+    }
+
+    /**
+     * Queues an event for the next dispatch. Events of a type nobody subscribed to are dropped.
+     * Thread safe: systems running in parallel may publish at the same time.
+     */
+    public void publish(EventType type, Entity source, Entity target, int x, int y) {
+        Batch batch = batches[type.ordinal()];
+        if (batch.subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (batch) {
+            batch.push(source, target, x, y);
+        }
+    }
+
+    public void publishCollision(Entity a, Entity b) {
+        publish(EventType.COLLISION, a, b, 0, 0);
+    }
+
+    public void publishTileContact(Entity entity, int col, int row) {
+        publish(EventType.TILE_CONTACT, entity, null, col, row);
+    }
+
+    public void publishProximityEnter(Entity trigger, Entity other) {
+        publish(EventType.PROXIMITY_ENTER, trigger, other, 0, 0);
+    }
+
+    public void publishProximityExit(Entity trigger, Entity other) {
+        publish(EventType.PROXIMITY_EXIT, trigger, other, 0, 0);
+    }
+
+    public void publishDamage(Entity attacker, Entity target, int amount) {
+        publish(EventType.DAMAGE, attacker, target, amount, 0);
+    }
+
+    /**
+     * Delivers the queued events, one batch per type. Events published by the handlers
+     * themselves are appended after the batch and delivered at the next dispatch.
+     * Called by the engine once per tick, on the game thread.
+     */
+    void dispatch() {
+        for (Batch batch : batches) {
+            int n;
+            synchronized (batch) {
+                n = batch.count;
+                batch.limit = n;
+            }
+            if (n == 0) {
+                continue;
+            }
+            try {
+                for (Subscriber subscriber : batch.subscribers) {
+                    subscriber.onEvents(batch);
+                }
+            } finally {
+                synchronized (batch) {
+                    batch.limit = 0;
+                    batch.consume(n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops all the queued events and subscribers (used when the game state changes).
+     */
+    void clear() {
+        for (Batch batch : batches) {
+            synchronized (batch) {
+                batch.consume(batch.count);
+                batch.head = 0;
+            }
+            batch.subscribers.clear();
+        }
+    }
+}
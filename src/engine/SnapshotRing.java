@@ -0,0 +1,72 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+/**
+ * Fixed number of in-memory world snapshots for rewinding: capture() overwrites the
+ * oldest one, rewind() goes back to one of the last captures. The snapshots and their
+ * buffers are reused, so capturing (for example every few ticks) does not allocate once
+ * the buffers are large enough.
+ */
+public class SnapshotRing {
+    private final WorldSnapshot[] snapshots;
+    private int next;  // Posizione della prossima cattura
+    private int count; // Snapshot validi
+
+    public SnapshotRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Snapshot ring capacity must be positive: " + capacity);
+        }
+        snapshots = new WorldSnapshot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            snapshots[i] = new WorldSnapshot();
+        }
+    }
+
+    /**
+     * Captures the current state of the world, replacing the oldest snapshot when full.
+     */
+    public void capture(Engine engine) {
+        engine.captureSnapshot(snapshots[next]);
+        next = (next + 1) % snapshots.length;
+        if (count < snapshots.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Restores the snapshot taken {@code steps} captures ago (0 = the last one) and
+     * discards the newer ones. Returns false if there is no such snapshot.
+     */
+    public boolean rewind(Engine engine, int steps) {
+        if (steps < 0 || steps >= count) {
+            return false;
+        }
+        int index = (next - 1 - steps + snapshots.length) % snapshots.length;
+        engine.restoreSnapshot(snapshots[index]);
+        // La cattura ripristinata resta la più recente
+        next = (index + 1) % snapshots.length;
+        count -= steps;
+        return true;
+    }
+
+    /** Number of snapshots available for rewind. */
+    public int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return snapshots.length;
+    }
+
+    public void clear() {
+        next = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A component whose runtime state can be saved in a WorldSnapshot. Only the state that
+ * changes while playing is written (positions, timers, animation frame, AI state):
+ * configuration, images and callbacks stay in the component, so restoring a snapshot
+ * never loads assets.
+ */
+public interface Snapshotable {
+
+    /**
+     * Writes the runtime state. Must write exactly the bytes that readSnapshot() reads.
+     */
+    void writeSnapshot(ByteBuffer out);
+
+    /**
+     * Restores the state written by writeSnapshot().
+     */
+    void readSnapshot(ByteBuffer in);
+}
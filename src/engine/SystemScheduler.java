@@ -0,0 +1,147 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import enums.EngineState;
+import helpers.Logger;
+
+/**
+ * Esegue i sistemi a "ondate": ogni ondata contiene sistemi che non sono in conflitto
+ * tra loro sui componenti letti e scritti, e che possono quindi girare in parallelo.
+ * 
+ * Le ondate vengono calcolate per ogni EngineState scorrendo i sistemi in ordine di priorità:
+ * un sistema finisce nell'ondata successiva a quella dell'ultimo sistema precedente con cui
+ * è in conflitto. L'ordine di priorità resta così garantito per ogni coppia di sistemi
+ * che tocca gli stessi dati, e il risultato è deterministico.
+ */
+class SystemScheduler {
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final EnumMap<EngineState, SystemTask[][]> waves = new EnumMap<>(EngineState.class);
+    private final WaveTask waveTask = new WaveTask();
+    private volatile boolean dirty = true;
+
+    /**
+     * Le ondate vanno ricalcolate (sistemi aggiunti o rimossi, stati di aggiornamento cambiati).
+     */
+    void invalidate() {
+        dirty = true;
+    }
+
+    void update(Engine engine, List<BaseSystem> systems, EngineState state, float deltaTime) {
+        if (dirty) {
+            dirty = false;
+            waves.clear();
+        }
+        SystemTask[][] stateWaves = waves.get(state);
+        if (stateWaves == null) {
+            stateWaves = buildWaves(systems, state);
+            waves.put(state, stateWaves);
+        }
+
+        for (SystemTask[] wave : stateWaves) {
+            if (wave.length == 1) {
+                wave[0].system.timedUpdate(deltaTime); // Nessun parallelismo possibile: resta sul thread di gioco
+                engine.runPendingCallbacks();
+                continue;
+            }
+            for (SystemTask task : wave) {
+                task.reinitialize();
+                task.deltaTime = deltaTime;
+            }
+            waveTask.reinitialize();
+            waveTask.wave = wave;
+            pool.invoke(waveTask);
+            // Le callback del gioco richieste dall'ondata girano ora, sul thread di gioco
+            engine.runPendingCallbacks();
+        }
+    }
+
+    private SystemTask[][] buildWaves(List<BaseSystem> systems, EngineState state) {
+        List<BaseSystem> active = new ArrayList<>();
+        for (BaseSystem system : systems) {
+            if (system.shouldUpdateInState(state)) {
+                active.add(system);
+            }
+        }
+        active.sort(Comparator.comparingInt(BaseSystem::getPriority)); // Ordinamento stabile
+
+        int[] waveOf = new int[active.size()];
+        int waveCount = 0;
+        for (int i = 0; i < active.size(); i++) {
+            int wave = 0;
+            for (int j = 0; j < i; j++) {
+                if (waveOf[j] >= wave && active.get(i).conflictsWith(active.get(j))) {
+                    wave = waveOf[j] + 1;
+                }
+            }
+            waveOf[i] = wave;
+            waveCount = Math.max(waveCount, wave + 1);
+        }
+
+        List<List<SystemTask>> grouped = new ArrayList<>();
+        for (int w = 0; w < waveCount; w++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (int i = 0; i < active.size(); i++) {
+            grouped.get(waveOf[i]).add(new SystemTask(active.get(i)));
+        }
+
+        SystemTask[][] result = new SystemTask[waveCount][];
+        StringBuilder description = new StringBuilder();
+        for (int w = 0; w < waveCount; w++) {
+            result[w] = grouped.get(w).toArray(new SystemTask[0]);
+            description.append(" [");
+            for (int i = 0; i < result[w].length; i++) {
+                description.append(i > 0 ? ", " : "").append(result[w][i].system.getClass().getSimpleName());
+            }
+            description.append("]");
+        }
+        Logger.log("System schedule for " + state + ":" + description);
+        return result;
+    }
+
+    /**
+     * Aggiornamento di un singolo sistema, riutilizzato a ogni frame.
+     */
+    private static class SystemTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient BaseSystem system;
+        private float deltaTime;
+
+        SystemTask(BaseSystem system) {
+            this.system = system;
+        }
+
+        @Override
+        protected void compute() {
+            system.timedUpdate(deltaTime);
+        }
+    }
+
+    /**
+     * Esegue in parallelo tutti i sistemi di un'ondata e attende che abbiano finito.
+     */
+    private static class WaveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private transient SystemTask[] wave;
+
+        @Override
+        protected void compute() {
+            ForkJoinTask.invokeAll(wave);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Rolling statistics over the last WINDOW durations (in nanoseconds) of a measured
+ * operation, for example the update of a system. Samples are kept in a preallocated
+ * ring buffer, so recording never allocates; min, average and 99th percentile are
+ * computed only when requested (typically by the debug overlay).
+ */
+public final class TimingStats {
+    public static final int WINDOW = 240; // 4 secondi a 60 aggiornamenti al secondo
+
+    private final long[] samples = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW]; // Copia di lavoro per il percentile
+    private int next;
+    private int count;
+    private long total; // Somma dei campioni presenti nel buffer
+
+    public synchronized void record(long nanos) {
+        if (count == WINDOW) {
+            total -= samples[next]; // Il campione più vecchio esce dalla finestra
+        } else {
+            count++;
+        }
+        samples[next] = nanos;
+        total += nanos;
+        next = (next + 1) % WINDOW;
+    }
+
+    public synchronized void reset() {
+        next = 0;
+        count = 0;
+        total = 0;
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+
+    /** Most recent sample, in nanoseconds (0 if none). */
+    public synchronized long getLast() {
+        return count == 0 ? 0 : samples[(next + WINDOW - 1) % WINDOW];
+    }
+
+    public synchronized long getMin() {
+        if (count == 0) {
+            return 0;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, samples[i]);
+        }
+        return min;
+    }
+
+    public synchronized long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    public synchronized long getAverage() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /** 99th percentile (nearest rank) of the samples in the window. */
+    public synchronized long getPercentile99() {
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(count * 0.99) - 1;
+        return sorted[Math.max(rank, 0)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("min %.3f ms, avg %.3f ms, p99 %.3f ms",
+            getMin() / 1e6, getAverage() / 1e6, getPercentile99() / 1e6);
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Triplo buffer senza lock tra un solo produttore (il thread di gioco) e
+ * un solo consumatore (il thread di rendering Swing).
+ * 
+ * Il produttore scrive sempre nel proprio buffer e lo pubblica con publish();
+ * il consumatore legge sempre l'ultimo buffer pubblicato. Il terzo buffer
+ * "in mezzo" viene scambiato con un'unica operazione atomica, quindi nessuno
+ * dei due thread deve mai attendere l'altro.
+ * 
+ * Nota: il buffer di scrittura contiene dati vecchi di alcuni frame,
+ * il produttore deve quindi riscriverlo completamente prima di pubblicarlo.
+ */
+public final class TripleBuffer<T> {
+    private static final int INDEX_MASK = 3;
+    private static final int DIRTY = 4; // Il buffer di mezzo contiene dati non ancora letti
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int writeIndex = 0; // Usato solo dal produttore
+    private int readIndex = 2;  // Usato solo dal consumatore
+
+    public TripleBuffer(Supplier<T> factory) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Buffer factory cannot be null.");
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * Buffer owned by the producer; fill it and then call publish().
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Makes the write buffer visible to the consumer and hands the producer a free one.
+     */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | DIRTY) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published buffer. If nothing new was published
+     * since the last call, the same buffer is returned again.
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        if ((middle.get() & DIRTY) != 0) {
+            readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        }
+        return (T) buffers[readIndex];
+    }
+}
@@ -0,0 +1,307 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import enums.EntityType;
+import helpers.Logger;
+
+/**
+ * Compact binary copy of the runtime state of a world: for every entity its type, layer,
+ * alive flag and the state of its Snapshotable components. It is captured and restored
+ * through Engine.captureSnapshot() and Engine.restoreSnapshot(); the buffer is reused, so
+ * capturing the same snapshot object again allocates nothing once it is large enough.
+ * 
+ * A snapshot restores state, not structure: images, callbacks and configuration stay in
+ * the components, so the entities must already exist. A snapshot captured in this session
+ * remembers its entities and can bring back the ones removed in the meantime (rewind); a
+ * snapshot read from a file is matched with the world by position, so the level must have
+ * been built the same way (for example by GameState.init()).
+ * 
+ * Layout (big endian):
+ * <pre>
+ * int   magic "RESN"
+ * short version
+ * int   offset of the class table
+ * int   number of entities
+ * for each entity: byte type (-1 = none), int layer, byte alive, short number of components,
+ *                  then for each component: short class index, int length, state
+ * class table: short number of classes, then for each: short length + UTF-8 class name
+ * </pre>
+ */
+public class WorldSnapshot {
+    static final int MAGIC = 0x5245534E; // "RESN"
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 4 + 4;
+    private static final int TABLE_OFFSET = 6;
+
+    private ByteBuffer data;
+    private Entity[] entities; // Entità catturate (null se lo snapshot è stato letto da file)
+    private int entityCount;
+    // Tabella delle classi di componente, riusata tra una cattura e l'altra:
+    // classIndices[id di ComponentType] = posizione nella tabella + 1 (0 = non ancora presente)
+    private int[] classIndices = new int[16];
+    private final List<Class<?>> classes = new ArrayList<>();
+
+    public WorldSnapshot() {
+        this(64 * 1024);
+    }
+
+    /**
+     * @param initialCapacity initial size of the buffer in bytes (it grows when needed)
+     */
+    public WorldSnapshot(int initialCapacity) {
+        if (initialCapacity < HEADER_SIZE) {
+            throw new IllegalArgumentException("Snapshot capacity too small: " + initialCapacity);
+        }
+        this.data = ByteBuffer.allocate(initialCapacity);
+        this.entities = new Entity[64];
+    }
+
+    private WorldSnapshot(ByteBuffer data, int entityCount) {
+        this.data = data;
+        this.entityCount = entityCount;
+    }
+
+    /**
+     * Scrive lo stato delle entità nel buffer; chiamato dall'engine con il lock delle entità.
+     */
+    void capture(List<Entity> world) {
+        if (entities == null) {
+            entities = new Entity[Math.max(world.size(), 64)];
+        } else if (entities.length < world.size()) {
+            entities = Arrays.copyOf(entities, Math.max(world.size(), entities.length * 2));
+        } else if (entityCount > world.size()) {
+            Arrays.fill(entities, world.size(), entityCount, null); // Nessun riferimento alle entità non più catturate
+        }
+        while (true) {
+            try {
+                write(world);
+                break;
+            } catch (BufferOverflowException e) {
+                data = ByteBuffer.allocate(data.capacity() * 2); // Si riprova con un buffer più grande
+            }
+        }
+        for (int i = 0; i < world.size(); i++) {
+            entities[i] = world.get(i);
+        }
+        entityCount = world.size();
+    }
+
+    private void write(List<Entity> world) {
+        Arrays.fill(classIndices, 0);
+        classes.clear();
+        ByteBuffer out = data;
+        out.clear();
+        out.putInt(MAGIC).putShort(VERSION).putInt(0).putInt(world.size());
+
+        for (int i = 0; i < world.size(); i++) {
+            Entity entity = world.get(i);
+            out.put((byte) (entity.getType() != null ? entity.getType().ordinal() : -1));
+            out.putInt(entity.getLayer());
+            out.put((byte) (entity.isAlive() ? 1 : 0));
+            int countPosition = out.position();
+            out.putShort((short) 0);
+            short count = 0;
+            Component[] components = entity.getComponentArray();
+            for (int typeId = 0; typeId < components.length; typeId++) {
+                Component component = components[typeId];
+                if (!(component instanceof Snapshotable)) {
+                    continue;
+                }
+                out.putShort((short) classIndex(typeId, component.getClass()));
+                int lengthPosition = out.position();
+                out.putInt(0);
+                ((Snapshotable) component).writeSnapshot(out);
+                out.putInt(lengthPosition, out.position() - lengthPosition - 4);
+                count++;
+            }
+            out.putShort(countPosition, count);
+        }
+
+        out.putInt(TABLE_OFFSET, out.position());
+        out.putShort((short) classes.size());
+        for (Class<?> type : classes) {
+            byte[] name = type.getName().getBytes(StandardCharsets.UTF_8);
+            out.putShort((short) name.length).put(name);
+        }
+        out.flip();
+    }
+
+    private int classIndex(int typeId, Class<?> type) {
+        if (typeId >= classIndices.length) {
+            classIndices = Arrays.copyOf(classIndices, Math.max(typeId + 1, classIndices.length * 2));
+        }
+        if (classIndices[typeId] == 0) {
+            classes.add(type);
+            classIndices[typeId] = classes.size();
+        }
+        return classIndices[typeId] - 1;
+    }
+
+    /**
+     * Riporta le entità del mondo allo stato salvato; chiamato dall'engine con il lock
+     * delle entità in scrittura, fuori dall'aggiornamento dei sistemi. Le entità aggiunte
+     * dopo la cattura vengono rimosse, quelle rimosse nel frattempo (se lo snapshot le
+     * conosce) vengono aggiunte di nuovo.
+     */
+    void restore(Engine engine, List<Entity> world) {
+        ByteBuffer in = data.duplicate();
+        in.rewind();
+        try {
+            Class<? extends Component>[] types = readClassTable(in);
+            in.position(HEADER_SIZE);
+            List<Entity> before = new ArrayList<>(world);
+            Set<Entity> restored = Collections.newSetFromMap(new IdentityHashMap<>());
+            EntityType[] entityTypes = EntityType.values();
+            int missing = 0;
+
+            for (int i = 0; i < entityCount; i++) {
+                byte type = in.get();
+                int layer = in.getInt();
+                boolean alive = in.get() != 0;
+                int components = in.getShort();
+
+                Entity entity = entities != null ? entities[i] : (i < before.size() ? before.get(i) : null);
+                EntityType expected = type >= 0 && type < entityTypes.length ? entityTypes[type] : null;
+                if (entity == null || entity.getType() != expected || !enterWorld(engine, entity)) {
+                    skipComponents(in, components);
+                    missing++;
+                    continue;
+                }
+                entity.setLayer(layer);
+                entity.setAlive(alive);
+                for (int c = 0; c < components; c++) {
+                    int typeIndex = in.getShort();
+                    int length = in.getInt();
+                    int end = in.position() + length;
+                    Component component = types[typeIndex] != null ? entity.getComponent(types[typeIndex]) : null;
+                    if (component instanceof Snapshotable) {
+                        ((Snapshotable) component).readSnapshot(in.slice(in.position(), length));
+                    }
+                    in.position(end);
+                }
+                restored.add(entity);
+            }
+
+            // Le entità create dopo la cattura non fanno parte dello stato salvato
+            for (Entity entity : before) {
+                if (!restored.contains(entity)) {
+                    entity.setAlive(false);
+                }
+            }
+            if (missing > 0) {
+                Logger.log("Snapshot restored, " + missing + " of " + entityCount + " entities could not be matched.");
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            Logger.log("Corrupted snapshot, restored only in part.", e);
+        }
+    }
+
+    /**
+     * Riporta nel mondo un'entità catturata che è stata rimossa nel frattempo.
+     * Restituisce false se non è possibile (ad esempio è tornata nel suo pool).
+     */
+    private boolean enterWorld(Engine engine, Entity entity) {
+        if (entity.getEngine() == engine) {
+            return true;
+        }
+        if (entity.getEngine() != null || entity.isInPool()) {
+            return false;
+        }
+        entity.setAlive(true);
+        engine.addEntity(entity);
+        return true;
+    }
+
+    private static void skipComponents(ByteBuffer in, int components) {
+        for (int c = 0; c < components; c++) {
+            in.getShort();
+            int length = in.getInt();
+            in.position(in.position() + length);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Class<? extends Component>[] readClassTable(ByteBuffer in) {
+        in.position(in.getInt(TABLE_OFFSET));
+        Class<? extends Component>[] types = new Class[in.getShort()];
+        for (int i = 0; i < types.length; i++) {
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            String className = new String(name, StandardCharsets.UTF_8);
+            try {
+                types[i] = Class.forName(className).asSubclass(Component.class);
+            } catch (ClassNotFoundException | ClassCastException e) {
+                Logger.log("Snapshot component " + className + " is unknown and will be skipped.");
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Writes the snapshot to a file.
+     */
+    public void writeTo(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = data.duplicate();
+            out.rewind();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot written by writeTo(); throws IOException if the file is not a valid snapshot.
+     */
+    public static WorldSnapshot readFrom(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC) {
+            throw new IOException("Not a world snapshot: " + file);
+        }
+        short version = data.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported world snapshot version " + version + ": " + file);
+        }
+        int tableOffset = data.getInt();
+        int entityCount = data.getInt();
+        if (tableOffset < HEADER_SIZE || tableOffset > data.limit() || entityCount < 0) {
+            throw new IOException("Corrupted world snapshot: " + file);
+        }
+        data.rewind();
+        return new WorldSnapshot(data, entityCount);
+    }
+
+    /** Number of entities in the snapshot. */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /** Size of the snapshot in bytes. */
+    public int size() {
+        return data.limit();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+import java.util.Arrays;
+
+/**
+ * The bounding boxes given to a broad phase, in world coordinates: body i covers
+ * [minX, maxX) x [minY, maxY). Each body also has an id that stays the same from one
+ * tick to the next (the entity id), for broad phases that keep data between ticks.
+ * The arrays are reused: filling the list every tick allocates nothing.
+ */
+public final class BodyList {
+    private static final int INITIAL_CAPACITY = 64;
+
+    int[] ids = new int[INITIAL_CAPACITY];
+    float[] minXs = new float[INITIAL_CAPACITY];
+    float[] minYs = new float[INITIAL_CAPACITY];
+    float[] maxXs = new float[INITIAL_CAPACITY];
+    float[] maxYs = new float[INITIAL_CAPACITY];
+    int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds a body and returns its index.
+     */
+    public int add(int id, float minX, float minY, float maxX, float maxY) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            minXs = Arrays.copyOf(minXs, capacity);
+            minYs = Arrays.copyOf(minYs, capacity);
+            maxXs = Arrays.copyOf(maxXs, capacity);
+            maxYs = Arrays.copyOf(maxYs, capacity);
+        }
+        ids[count] = id;
+        minXs[count] = minX;
+        minYs[count] = minY;
+        maxXs[count] = maxX;
+        maxYs[count] = maxY;
+        return count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public float getMinX(int index) {
+        return minXs[index];
+    }
+
+    public float getMinY(int index) {
+        return minYs[index];
+    }
+
+    public float getMaxX(int index) {
+        return maxXs[index];
+    }
+
+    public float getMaxY(int index) {
+        return maxYs[index];
+    }
+
+    /**
+     * True if the boxes of the two bodies overlap (touching edges do not count, as in
+     * the CollisionSystem).
+     */
+    public boolean overlaps(int a, int b) {
+        return minXs[a] < maxXs[b] && minXs[b] < maxXs[a] && minYs[a] < maxYs[b] && minYs[b] < maxYs[a];
+    }
+}
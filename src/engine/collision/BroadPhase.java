@@ -0,0 +1,40 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+/**
+ * First step of the collision detection between entities: finds the pairs of bodies
+ * that may collide, so that the exact test and the resolution (narrow phase) run only
+ * on them instead of on every pair.
+ *
+ * Every pair is reported once, with first < second, in increasing order of first and
+ * then of second: the same order as a double loop over the bodies, so the pairs are
+ * resolved in the same order whatever broad phase is used. The boxes are taken before
+ * the resolution: two entities pushed against each other by the correction of an earlier
+ * pair are separated in the next tick (the brute force one reports every pair and
+ * separates them at once), so replays must use the broad phase they were recorded with.
+ */
+public interface BroadPhase {
+
+    /**
+     * Receives the candidate pairs, as indices in the BodyList.
+     */
+    @FunctionalInterface
+    interface PairCallback {
+        void onPair(int first, int second);
+    }
+
+    /**
+     * Reports the candidate pairs among the bodies and returns how many they were.
+     */
+    int findPairs(BodyList bodies, PairCallback callback);
+
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+/**
+ * Reports every pair of bodies, n * (n - 1) / 2 per tick: the overlap is checked only by
+ * the narrow phase, with the positions already corrected by the previous pairs.
+ * It is the original behavior of the CollisionSystem, kept as a reference for the other
+ * broad phases.
+ */
+public final class BruteForceBroadPhase implements BroadPhase {
+
+    @Override
+    public int findPairs(BodyList bodies, PairCallback callback) {
+        int n = bodies.size();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                callback.onPair(i, j);
+            }
+        }
+        return (int) ((long) n * (n - 1) / 2);
+    }
+}
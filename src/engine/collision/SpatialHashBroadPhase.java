@@ -0,0 +1,214 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid broad phase: the world is divided into square cells and every body is
+ * registered in the cells its box covers; only bodies sharing a cell are tested against
+ * each other. The grid is stored as a hash table rebuilt every tick with a counting sort
+ * into flat arrays, so it works on maps of any size and allocates nothing once the
+ * arrays have grown.
+ *
+ * A pair of bodies sharing more than one cell is reported only from the cell that contains
+ * the top left corner of their intersection, so no set of the reported pairs is needed.
+ * Bodies covering more than MAX_CELLS_PER_BODY cells are tested against all the others.
+ *
+ * The cell size should be about twice the size of a typical body; with the default
+ * constructor it is computed every tick from the average size of the bodies.
+ */
+public final class SpatialHashBroadPhase implements BroadPhase {
+    public static final int MAX_CELLS_PER_BODY = 64;
+    private static final int MIN_CELL_SIZE = 8;
+
+    private final int fixedCellSize; // 0 = calcolata dalle dimensioni dei corpi
+    private int cellSize;
+
+    // Intervallo di celle coperto da ogni corpo
+    private int[] cellX0 = new int[0];
+    private int[] cellY0 = new int[0];
+    private int[] cellX1 = new int[0];
+    private int[] cellY1 = new int[0];
+    private int[] large = new int[0]; // Corpi che coprono troppe celle
+    private int largeCount;
+
+    // Tabella: bucketStart[h]..bucketStart[h + 1] sono le voci del bucket h
+    private int[] bucketStart = new int[0];
+    private int[] entryBody = new int[0];
+    private int[] entryCellX = new int[0];
+    private int[] entryCellY = new int[0];
+
+    private long[] pairs = new long[256]; // Coppie trovate, ordinate prima di essere riportate
+    private int pairCount;
+
+    public SpatialHashBroadPhase() {
+        this.fixedCellSize = 0;
+    }
+
+    /**
+     * @param cellSize side of the cells in pixels
+     */
+    public SpatialHashBroadPhase(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.fixedCellSize = cellSize;
+        this.cellSize = cellSize;
+    }
+
+    @Override
+    public int findPairs(BodyList bodies, PairCallback callback) {
+        int n = bodies.size();
+        pairCount = 0;
+        if (n < 2) {
+            return 0;
+        }
+        if (fixedCellSize == 0) {
+            cellSize = computeCellSize(bodies);
+        }
+        if (cellX0.length < n) {
+            int capacity = Math.max(n, cellX0.length * 2);
+            cellX0 = new int[capacity];
+            cellY0 = new int[capacity];
+            cellX1 = new int[capacity];
+            cellY1 = new int[capacity];
+            large = new int[capacity];
+        }
+
+        // 1. Celle coperte da ogni corpo e numero totale di voci
+        largeCount = 0;
+        int entries = 0;
+        for (int i = 0; i < n; i++) {
+            cellX0[i] = cell(bodies.minXs[i]);
+            cellY0[i] = cell(bodies.minYs[i]);
+            cellX1[i] = cell(bodies.maxXs[i]);
+            cellY1[i] = cell(bodies.maxYs[i]);
+            long cells = (long) (cellX1[i] - cellX0[i] + 1) * (cellY1[i] - cellY0[i] + 1);
+            if (cells > MAX_CELLS_PER_BODY) {
+                large[largeCount++] = i;
+                cellX1[i] = cellX0[i] - 1; // Nessuna cella: viene confrontato con tutti
+            } else {
+                entries += (int) cells;
+            }
+        }
+
+        // 2. Counting sort delle voci nei bucket
+        int tableSize = Integer.highestOneBit(Math.max(entries * 2 - 1, 16)) << 1;
+        int mask = tableSize - 1;
+        if (bucketStart.length < tableSize + 1) {
+            bucketStart = new int[tableSize + 1];
+        } else {
+            Arrays.fill(bucketStart, 0, tableSize + 1, 0);
+        }
+        if (entryBody.length < entries) {
+            int capacity = Math.max(entries, entryBody.length * 2);
+            entryBody = new int[capacity];
+            entryCellX = new int[capacity];
+            entryCellY = new int[capacity];
+        }
+        for (int i = 0; i < n; i++) {
+            for (int cy = cellY0[i]; cy <= cellY1[i] && cellX1[i] >= cellX0[i]; cy++) {
+                for (int cx = cellX0[i]; cx <= cellX1[i]; cx++) {
+                    bucketStart[(hash(cx, cy) & mask) + 1]++;
+                }
+            }
+        }
+        for (int h = 0; h < tableSize; h++) {
+            bucketStart[h + 1] += bucketStart[h];
+        }
+        // Inserimento usando bucketStart[h] come cursore: alla fine vale l'inizio del bucket h + 1
+        for (int i = 0; i < n; i++) {
+            for (int cy = cellY0[i]; cy <= cellY1[i] && cellX1[i] >= cellX0[i]; cy++) {
+                for (int cx = cellX0[i]; cx <= cellX1[i]; cx++) {
+                    int slot = bucketStart[hash(cx, cy) & mask]++;
+                    entryBody[slot] = i;
+                    entryCellX[slot] = cx;
+                    entryCellY[slot] = cy;
+                }
+            }
+        }
+
+        // 3. Coppie nello stesso bucket (e nella stessa cella)
+        int start = 0;
+        for (int h = 0; h < tableSize; h++) {
+            int end = bucketStart[h];
+            for (int p = start; p < end; p++) {
+                int a = entryBody[p];
+                int cx = entryCellX[p];
+                int cy = entryCellY[p];
+                for (int q = p + 1; q < end; q++) {
+                    if (entryCellX[q] != cx || entryCellY[q] != cy) {
+                        continue; // Cella diversa con lo stesso hash
+                    }
+                    int b = entryBody[q];
+                    // Solo nella cella dell'angolo in alto a sinistra dell'intersezione
+                    if (cx == Math.max(cellX0[a], cellX0[b]) && cy == Math.max(cellY0[a], cellY0[b])
+                            && bodies.overlaps(a, b)) {
+                        addPair(a, b);
+                    }
+                }
+            }
+            start = end;
+        }
+
+        // 4. Corpi grandi contro tutti gli altri
+        for (int k = 0; k < largeCount; k++) {
+            int a = large[k];
+            for (int b = 0; b < n; b++) {
+                boolean otherLarge = cellX1[b] < cellX0[b];
+                if (b == a || (otherLarge && b < a)) {
+                    continue; // Coppia di corpi grandi già considerata
+                }
+                if (bodies.overlaps(a, b)) {
+                    addPair(a, b);
+                }
+            }
+        }
+
+        Arrays.sort(pairs, 0, pairCount);
+        for (int i = 0; i < pairCount; i++) {
+            callback.onPair((int) (pairs[i] >>> 32), (int) pairs[i]);
+        }
+        return pairCount;
+    }
+
+    private void addPair(int a, int b) {
+        if (pairCount == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairCount * 2);
+        }
+        int first = Math.min(a, b);
+        int second = Math.max(a, b);
+        pairs[pairCount++] = ((long) first << 32) | second;
+    }
+
+    private int cell(float coordinate) {
+        return Math.floorDiv((int) Math.floor(coordinate), cellSize);
+    }
+
+    private static int hash(int cx, int cy) {
+        return (cx * 0x9E3779B1) ^ (cy * 0x85EBCA77);
+    }
+
+    /**
+     * Due volte la dimensione media dei corpi, arrotondata a una potenza di 2.
+     */
+    private static int computeCellSize(BodyList bodies) {
+        double total = 0;
+        for (int i = 0; i < bodies.count; i++) {
+            total += Math.max(bodies.maxXs[i] - bodies.minXs[i], bodies.maxYs[i] - bodies.minYs[i]);
+        }
+        int size = (int) Math.min(total * 2 / bodies.count, 1 << 20);
+        return Math.max(MIN_CELL_SIZE, Integer.highestOneBit(Math.max(size - 1, 1)) << 1);
+    }
+
+    /** Side of the cells used in the last tick, in pixels. */
+    public int getCellSize() {
+        return cellSize;
+    }
+}
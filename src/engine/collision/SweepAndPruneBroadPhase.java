@@ -0,0 +1,372 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+import java.util.Arrays;
+
+/**
+ * Sweep and prune broad phase with temporal coherence. The start and end points of the
+ * boxes are kept in two sorted lists, one per axis, from one tick to the next (bodies are
+ * recognized by their id). Since most entities move only a few pixels per tick the lists
+ * are almost sorted already, and an insertion sort puts them back in order with few swaps.
+ *
+ * Every swap tells how a pair changed on that axis: a start point moving before the end
+ * point of another box means that the two boxes now overlap on the axis (the pair is added
+ * if they overlap on the other axis too), an end point moving before a start point means
+ * that they no longer overlap (the pair is removed). The set of overlapping pairs is
+ * therefore updated incrementally and every tick costs about O(n + swaps) instead of
+ * rebuilding everything.
+ *
+ * Works best when the bodies move slowly compared to their size; a teleport or many new
+ * bodies cost many swaps in that tick only.
+ */
+public final class SweepAndPruneBroadPhase implements BroadPhase {
+
+    // Dati persistenti di ogni corpo (proxy), indicizzati per slot
+    private float[] minXs = new float[0];
+    private float[] minYs = new float[0];
+    private float[] maxXs = new float[0];
+    private float[] maxYs = new float[0];
+    private int[] proxyBody = new int[0];  // Indice nella BodyList del tick corrente
+    private int[] proxyTick = new int[0];  // Ultimo tick in cui il corpo era presente
+    private boolean[] alive = new boolean[0];
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int slotCount;
+
+    // Estremi ordinati per asse: slot << 1, | 1 per l'estremo finale
+    private int[] endsX = new int[0];
+    private int[] endsY = new int[0];
+    private int endCount;
+
+    // Da id del corpo a slot: due tabelle, quella del tick precedente e quella in costruzione
+    private IdTable previousIds = new IdTable();
+    private IdTable currentIds = new IdTable();
+
+    private final PairSet overlapping = new PairSet();
+    private long[] reported = new long[256];
+    private int tick;
+    private int lastSwaps;
+
+    @Override
+    public int findPairs(BodyList bodies, PairCallback callback) {
+        int n = bodies.size();
+        tick++;
+        lastSwaps = 0;
+
+        // 1. Associa ogni corpo al suo slot e aggiorna i box; i nuovi corpi partono all'infinito
+        currentIds.reset(n, tick);
+        for (int i = 0; i < n; i++) {
+            int id = bodies.ids[i];
+            int slot = previousIds.get(id, tick - 1);
+            if (slot < 0 || !alive[slot] || proxyTick[slot] == tick) {
+                slot = createProxy();
+            }
+            currentIds.put(id, slot, tick);
+            minXs[slot] = bodies.minXs[i];
+            minYs[slot] = bodies.minYs[i];
+            maxXs[slot] = bodies.maxXs[i];
+            maxYs[slot] = bodies.maxYs[i];
+            proxyBody[slot] = i;
+            proxyTick[slot] = tick;
+        }
+        IdTable swap = previousIds;
+        previousIds = currentIds;
+        currentIds = swap;
+
+        // 2. Elimina i corpi scomparsi, con i loro estremi e le loro coppie
+        removeMissingProxies();
+
+        // 3. Riordina i due assi aggiornando le coppie sovrapposte
+        sortAxis(endsX, minXs, maxXs);
+        sortAxis(endsY, minYs, maxYs);
+
+        // 4. Riporta le coppie negli indici della BodyList, nell'ordine richiesto da BroadPhase
+        int count = overlapping.size();
+        if (reported.length < count) {
+            reported = new long[Math.max(count, reported.length * 2)];
+        }
+        int k = 0;
+        long[] keys = overlapping.keys;
+        for (int h = 0; h < keys.length; h++) {
+            long key = keys[h];
+            if (key != PairSet.EMPTY) {
+                int a = proxyBody[(int) (key >>> 32)];
+                int b = proxyBody[(int) key];
+                reported[k++] = a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+            }
+        }
+        Arrays.sort(reported, 0, k);
+        for (int i = 0; i < k; i++) {
+            callback.onPair((int) (reported[i] >>> 32), (int) reported[i]);
+        }
+        return k;
+    }
+
+    private int createProxy() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = slotCount++;
+            if (slot == minXs.length) {
+                int capacity = Math.max(64, slot * 2);
+                minXs = Arrays.copyOf(minXs, capacity);
+                minYs = Arrays.copyOf(minYs, capacity);
+                maxXs = Arrays.copyOf(maxXs, capacity);
+                maxYs = Arrays.copyOf(maxYs, capacity);
+                proxyBody = Arrays.copyOf(proxyBody, capacity);
+                proxyTick = Arrays.copyOf(proxyTick, capacity);
+                alive = Arrays.copyOf(alive, capacity);
+                endsX = Arrays.copyOf(endsX, capacity * 2);
+                endsY = Arrays.copyOf(endsY, capacity * 2);
+            }
+        }
+        alive[slot] = true;
+        // In coda a entrambi gli assi: l'ordinamento li porterà al loro posto
+        endsX[endCount] = slot << 1;
+        endsX[endCount + 1] = (slot << 1) | 1;
+        endsY[endCount] = slot << 1;
+        endsY[endCount + 1] = (slot << 1) | 1;
+        endCount += 2;
+        return slot;
+    }
+
+    private void removeMissingProxies() {
+        int removed = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (alive[slot] && proxyTick[slot] != tick) {
+                alive[slot] = false;
+                if (freeSlots.length == freeCount) {
+                    freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+                }
+                freeSlots[freeCount++] = slot;
+                removed++;
+            }
+        }
+        if (removed == 0) {
+            return;
+        }
+        // Compatta gli estremi mantenendo l'ordine
+        int kept = 0;
+        for (int i = 0; i < endCount; i++) {
+            if (alive[endsX[i] >>> 1]) {
+                endsX[kept++] = endsX[i];
+            }
+        }
+        kept = 0;
+        for (int i = 0; i < endCount; i++) {
+            if (alive[endsY[i] >>> 1]) {
+                endsY[kept++] = endsY[i];
+            }
+        }
+        endCount = kept;
+        overlapping.removeDead(alive);
+    }
+
+    /**
+     * Insertion sort degli estremi di un asse. A parità di valore l'estremo finale viene
+     * prima di quello iniziale: box che si toccano non sono sovrapposti.
+     */
+    private void sortAxis(int[] ends, float[] mins, float[] maxs) {
+        for (int i = 1; i < endCount; i++) {
+            int end = ends[i];
+            boolean isMax = (end & 1) != 0;
+            float value = isMax ? maxs[end >>> 1] : mins[end >>> 1];
+            int j = i - 1;
+            while (j >= 0) {
+                int other = ends[j];
+                boolean otherMax = (other & 1) != 0;
+                float otherValue = otherMax ? maxs[other >>> 1] : mins[other >>> 1];
+                if (value > otherValue || (value == otherValue && (otherMax || !isMax))) {
+                    break; // Già in ordine
+                }
+                int a = end >>> 1;
+                int b = other >>> 1;
+                if (a != b && isMax != otherMax) {
+                    if (otherMax) {
+                        // L'inizio di a supera la fine di b: ora si sovrappongono su questo asse
+                        if (overlaps(a, b)) {
+                            overlapping.add(a, b);
+                        }
+                    } else {
+                        // La fine di a supera l'inizio di b: non si sovrappongono più
+                        overlapping.remove(a, b);
+                    }
+                }
+                ends[j + 1] = other;
+                j--;
+                lastSwaps++;
+            }
+            ends[j + 1] = end;
+        }
+    }
+
+    private boolean overlaps(int a, int b) {
+        return minXs[a] < maxXs[b] && minXs[b] < maxXs[a] && minYs[a] < maxYs[b] && minYs[b] < maxYs[a];
+    }
+
+    /** Swaps made by the insertion sorts in the last tick (a measure of the coherence). */
+    public int getLastSwaps() {
+        return lastSwaps;
+    }
+
+    /**
+     * Tabella id -> slot a indirizzamento aperto. Una voce è valida solo se il suo tick
+     * coincide con quello della costruzione, così non serve svuotarla.
+     */
+    private static final class IdTable {
+        private int[] ids = new int[0];
+        private int[] slots = new int[0];
+        private int[] ticks = new int[0];
+        private int mask;
+
+        void reset(int count, int tick) {
+            int capacity = Integer.highestOneBit(Math.max(count * 2 - 1, 16)) << 1;
+            if (ids.length < capacity) {
+                ids = new int[capacity];
+                slots = new int[capacity];
+                ticks = new int[capacity];
+                mask = capacity - 1;
+            }
+        }
+
+        void put(int id, int slot, int tick) {
+            int h = mix(id) & mask;
+            while (ticks[h] == tick && ids[h] != id) {
+                h = (h + 1) & mask;
+            }
+            ids[h] = id;
+            slots[h] = slot;
+            ticks[h] = tick;
+        }
+
+        int get(int id, int tick) {
+            if (mask == 0) {
+                return -1;
+            }
+            int h = mix(id) & mask;
+            while (ticks[h] == tick) {
+                if (ids[h] == id) {
+                    return slots[h];
+                }
+                h = (h + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int mix(int id) {
+            int h = id * 0x9E3779B1;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Insieme di coppie di slot (il minore nei 32 bit alti) a indirizzamento aperto,
+     * con cancellazione per spostamento all'indietro.
+     */
+    private static final class PairSet {
+        static final long EMPTY = -1L;
+        long[] keys = newTable(64);
+        private int size;
+
+        private static long[] newTable(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int a, int b) {
+            long key = key(a, b);
+            int mask = keys.length - 1;
+            int h = hash(key) & mask;
+            while (keys[h] != EMPTY) {
+                if (keys[h] == key) {
+                    return;
+                }
+                h = (h + 1) & mask;
+            }
+            keys[h] = key;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        void remove(int a, int b) {
+            long key = key(a, b);
+            int mask = keys.length - 1;
+            int h = hash(key) & mask;
+            while (keys[h] != key) {
+                if (keys[h] == EMPTY) {
+                    return;
+                }
+                h = (h + 1) & mask;
+            }
+            removeAt(h);
+        }
+
+        /** Elimina le coppie che contengono uno slot non più in uso. */
+        void removeDead(boolean[] alive) {
+            for (int h = 0; h < keys.length; h++) {
+                long key = keys[h];
+                while (key != EMPTY && (!alive[(int) (key >>> 32)] || !alive[(int) key])) {
+                    removeAt(h); // Lo spostamento può portare in h un'altra coppia da controllare
+                    key = keys[h];
+                }
+            }
+        }
+
+        private void removeAt(int hole) {
+            int mask = keys.length - 1;
+            size--;
+            int h = hole;
+            while (true) {
+                h = (h + 1) & mask;
+                long key = keys[h];
+                if (key == EMPTY) {
+                    break;
+                }
+                int home = hash(key) & mask;
+                // La voce in h può riempire il buco se la sua posizione ideale non è tra hole e h
+                if (((h - home) & mask) >= ((h - hole) & mask)) {
+                    keys[hole] = key;
+                    hole = h;
+                }
+            }
+            keys[hole] = EMPTY;
+        }
+
+        private void grow() {
+            long[] old = keys;
+            keys = newTable(old.length * 2);
+            int mask = keys.length - 1;
+            for (long key : old) {
+                if (key != EMPTY) {
+                    int h = hash(key) & mask;
+                    while (keys[h] != EMPTY) {
+                        h = (h + 1) & mask;
+                    }
+                    keys[h] = key;
+                }
+            }
+        }
+
+        private static long key(int a, int b) {
+            return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
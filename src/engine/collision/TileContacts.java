@@ -0,0 +1,53 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+import java.util.Arrays;
+
+/**
+ * The solid tiles touched by the last query of a TileSweep, as (col, row) pairs in the
+ * order they were found. The arrays are reused, so collecting contacts allocates nothing
+ * once they have grown; the content is valid until the next query.
+ */
+public final class TileContacts {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] cols = new int[INITIAL_CAPACITY];
+    private int[] rows = new int[INITIAL_CAPACITY];
+    private int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    void add(int col, int row) {
+        if (count == cols.length) {
+            cols = Arrays.copyOf(cols, count * 2);
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        cols[count] = col;
+        rows[count] = row;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getCol(int index) {
+        return cols[index];
+    }
+
+    public int getRow(int index) {
+        return rows[index];
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.collision;
+
+import world.SolidityGrid;
+
+/**
+ * Moves a bounding box through the solid tiles of a map along one axis and finds
+ * exactly where it stops, instead of searching the free position by trial and error.
+ *
+ * The box is in whole pixels, as in the CollisionSystem: for an entity at (x, y) with a
+ * collider box at (offsetX, offsetY) it covers [(int) (x + offsetX), ... + width) on X, and
+ * likewise on Y. It touches a tile only if their areas intersect (a shared edge does not
+ * count). A sweep visits, in the direction of motion, only the columns (or rows) of tiles
+ * that the box enters on the way, and stops at the first one with a solid tile in the
+ * span of the box on the other axis: the box is then placed flush against that tile and
+ * the solid tiles of that column (or row) are reported as contacts. The box can also not
+ * leave the map by more than the tolerance.
+ *
+ * Nothing is allocated: the contacts go to a TileContacts buffer reused by every query.
+ */
+public final class TileSweep {
+    private final int tolerance;
+    private final TileContacts contacts = new TileContacts();
+
+    private SolidityGrid grid;
+    private int tileWidth;
+    private int tileHeight;
+
+    /**
+     * @param tolerance pixels the box may go beyond the edges of the map
+     */
+    public TileSweep(int tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Map used by the following queries.
+     */
+    public void setMap(SolidityGrid grid, int tileWidth, int tileHeight) {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive.");
+        }
+        this.grid = grid;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    /**
+     * True if the box [boxX, boxX + width) x [boxY, boxY + height) is inside the map
+     * (within the tolerance) and touches no solid tile.
+     */
+    public boolean isFree(int boxX, int boxY, int width, int height) {
+        return isInside(boxX, boxY, width, height) && !overlapsSolid(boxX, boxY, width, height);
+    }
+
+    /**
+     * True if the box touches at least one solid tile (the edges of the map are ignored).
+     */
+    public boolean overlapsSolid(int boxX, int boxY, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        return grid.anySolid(Math.floorDiv(boxY, tileHeight), Math.floorDiv(boxY + height - 1, tileHeight),
+                Math.floorDiv(boxX, tileWidth), Math.floorDiv(boxX + width - 1, tileWidth));
+    }
+
+    /**
+     * Puts in the contacts every solid tile the box touches, row by row, and returns true
+     * if there is at least one.
+     */
+    public boolean collectOverlaps(int boxX, int boxY, int width, int height) {
+        contacts.clear();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        int leftCol = Math.floorDiv(boxX, tileWidth);
+        int rightCol = Math.floorDiv(boxX + width - 1, tileWidth);
+        int topRow = Math.floorDiv(boxY, tileHeight);
+        int bottomRow = Math.floorDiv(boxY + height - 1, tileHeight);
+        for (int row = topRow; row <= bottomRow; row++) {
+            if (grid.anySolid(row, leftCol, rightCol)) {
+                for (int col = leftCol; col <= rightCol; col++) {
+                    if (grid.isSolid(row, col)) {
+                        contacts.add(col, row);
+                    }
+                }
+            }
+        }
+        return !contacts.isEmpty();
+    }
+
+    /**
+     * Moves the box horizontally from startX to endX, with the entity at height y, and
+     * returns the X reached. If the box is already blocked at startX it does not move.
+     */
+    public float sweepX(float startX, float endX, float y, int offsetX, int offsetY, int width, int height) {
+        return sweep(true, startX, endX, (int) (y + offsetY), offsetX, width, height);
+    }
+
+    /**
+     * Moves the box vertically from startY to endY, with the entity at x, and returns
+     * the Y reached. If the box is already blocked at startY it does not move.
+     */
+    public float sweepY(float x, float startY, float endY, int offsetX, int offsetY, int width, int height) {
+        return sweep(false, startY, endY, (int) (x + offsetX), offsetY, height, width);
+    }
+
+    /**
+     * Sweep su un asse: "line" sono le colonne (alongX) o le righe di tile attraversate,
+     * "span" l'intervallo di tile coperto dal box sull'altro asse, che non cambia.
+     */
+    private float sweep(boolean alongX, float start, float end, int fixedPixel, int offset, int size, int fixedSize) {
+        contacts.clear();
+        int startPixel = (int) (start + offset);
+        int endPixel = (int) (end + offset);
+        if (!(alongX ? isFree(startPixel, fixedPixel, size, fixedSize) : isFree(fixedPixel, startPixel, fixedSize, size))) {
+            return start;
+        }
+        if (endPixel == startPixel) {
+            return end; // Stesso box della partenza, che è libero
+        }
+        int tile = alongX ? tileWidth : tileHeight;
+        int fixedTile = alongX ? tileHeight : tileWidth;
+        int mapPixels = alongX ? grid.getCols() * tileWidth : grid.getRows() * tileHeight;
+        boolean touchesTiles = size > 0 && fixedSize > 0;
+        int spanFrom = Math.floorDiv(fixedPixel, fixedTile);
+        int spanTo = Math.floorDiv(fixedPixel + fixedSize - 1, fixedTile);
+
+        if (endPixel > startPixel) {
+            // Avanti: la prima linea da controllare è quella dopo il bordo finale del box di partenza
+            int limit = mapPixels + tolerance - size;
+            if (touchesTiles) {
+                int last = Math.floorDiv(endPixel + size - 1, tile);
+                for (int line = Math.floorDiv(startPixel + size - 1, tile) + 1; line <= last; line++) {
+                    if (collectLine(alongX, line, spanFrom, spanTo)) {
+                        limit = Math.min(limit, line * tile - size); // A filo con il bordo della tile
+                        break;
+                    }
+                }
+            }
+            if (endPixel <= limit) {
+                return end;
+            }
+            return Math.max(start, limit - offset);
+        } else {
+            // Indietro: la prima linea è quella prima del bordo iniziale del box di partenza
+            int limit = -tolerance;
+            if (touchesTiles) {
+                int last = Math.floorDiv(endPixel, tile);
+                for (int line = Math.floorDiv(startPixel, tile) - 1; line >= last; line--) {
+                    if (collectLine(alongX, line, spanFrom, spanTo)) {
+                        limit = Math.max(limit, (line + 1) * tile);
+                        break;
+                    }
+                }
+            }
+            if (endPixel >= limit) {
+                return end;
+            }
+            return Math.min(start, limit - offset);
+        }
+    }
+
+    /**
+     * Aggiunge ai contatti le tile solide della colonna (o riga) line nell'intervallo
+     * spanFrom..spanTo sull'altro asse; restituisce true se ce n'è almeno una.
+     */
+    private boolean collectLine(boolean alongX, int line, int spanFrom, int spanTo) {
+        if (alongX ? !grid.anySolid(spanFrom, spanTo, line, line) : !grid.anySolid(line, spanFrom, spanTo)) {
+            return false;
+        }
+        for (int other = spanFrom; other <= spanTo; other++) {
+            int col = alongX ? line : other;
+            int row = alongX ? other : line;
+            if (grid.isSolid(row, col)) {
+                contacts.add(col, row);
+            }
+        }
+        return true;
+    }
+
+    private boolean isInside(int boxX, int boxY, int width, int height) {
+        return boxX >= -tolerance && boxY >= -tolerance
+                && boxX + width <= grid.getCols() * tileWidth + tolerance
+                && boxY + height <= grid.getRows() * tileHeight + tolerance;
+    }
+
+    /**
+     * Solid tiles found by the last query.
+     */
+    public TileContacts getContacts() {
+        return contacts;
+    }
+}
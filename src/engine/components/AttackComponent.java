@@ -8,12 +8,14 @@
 package engine.components;
 
 import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 import enums.Direction;
 
-public class AttackComponent extends Component {
+public class AttackComponent extends Component implements Snapshotable {
     private final Rectangle[] hitBoxes; // Hitboxes for each direction
     private final int damage;
     private boolean attacking;
@@ -69,7 +71,7 @@ public class AttackComponent extends Component {
             attacking = true;
             attackTimer = 0;
             attackApplied = false;
-            if (onAttack != null) onAttack.run();
+            runCallback(onAttack); // Sul thread di gioco, dopo il sistema che ha avviato l'attacco
         }
     }
 
@@ -125,6 +127,27 @@ public class AttackComponent extends Component {
         this.canAttackJump = canAttackJump;
     }
 
+    @Override
+    public void reset() {
+        resetTimers();
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.put((byte) ((attacking ? 1 : 0) | (attackApplied ? 2 : 0) | (onCooldown ? 4 : 0)));
+        out.putFloat(attackTimer).putFloat(cooldownTimer);
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        byte flags = in.get();
+        attacking = (flags & 1) != 0;
+        attackApplied = (flags & 2) != 0;
+        onCooldown = (flags & 4) != 0;
+        attackTimer = in.getFloat();
+        cooldownTimer = in.getFloat();
+    }
+
     /** Reset all attack and cooldown timers. */
     private void resetTimers() {
         this.attacking = false;
@@ -8,16 +8,19 @@
 package engine.components;
 
 import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 import pathfinder.JumpPointSearchHV;
 import pathfinder.Node;
 import pathfinder.ObstacleInflationUtil;
 import pathfinder.PathFinder;
+import world.SolidityGrid;
 import world.TileMap;
 
-public class ChaseComponent extends Component {
+public class ChaseComponent extends Component implements Snapshotable {
     private final PathFinder pathfinder; // Algoritmo di pathfinding
     private final Entity target;        // Bersaglio da inseguire
     private final TileMap tileManager;  // Gestore della mappa di tile
@@ -30,7 +33,7 @@ public class ChaseComponent extends Component {
 
     public ChaseComponent(Entity entity, Entity target, TileMap tileManager) {
         super(entity);
-		boolean[][] worldMap = tileManager.getSolidMap();
+		SolidityGrid worldMap = tileManager.getSolidityGrid();
         ColliderComponent targetCollider = entity.getComponent(ColliderComponent.class);
         if(targetCollider!=null) {
         	Rectangle targetBox = targetCollider.getBoundingBox();
@@ -112,4 +115,22 @@ public class ChaseComponent extends Component {
     public void resetDeviation() {
         this.lastDeviatedTile = null;
     }
+
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.putInt(lastNodeRow).putInt(lastNodeCol).putFloat(offsetX).putFloat(offsetY);
+        out.putInt(lastDeviatedTile != null ? lastDeviatedTile.x : -1);
+        out.putInt(lastDeviatedTile != null ? lastDeviatedTile.y : -1);
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        lastNodeRow = in.getInt();
+        lastNodeCol = in.getInt();
+        offsetX = in.getFloat();
+        offsetY = in.getFloat();
+        int deviatedX = in.getInt();
+        int deviatedY = in.getInt();
+        lastDeviatedTile = deviatedX >= 0 ? new Node(deviatedX, deviatedY) : null;
+    }
 }
\ No newline at end of file
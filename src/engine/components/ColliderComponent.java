@@ -8,15 +8,17 @@
 package engine.components;
 
 import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 import enums.CollisionBehavior;
 import enums.Direction;
 import world.CharacterSpritesheet;
 
-public class ColliderComponent extends Component {
+public class ColliderComponent extends Component implements Snapshotable {
     private Rectangle defaultBoundingBox;
     private Map<Direction, Rectangle> directionalBoundingBoxes; // Bounding box per direzione
     private Rectangle boundingBox;
@@ -25,6 +27,8 @@ public class ColliderComponent extends Component {
     private boolean oneWayPlatform = false; // If true and STATIC, it's a platform you can pass through
     private boolean colliding = false; // If true and STATIC, it's a platform you can pass through
     private float timeRemaining = 0f;
+    private boolean continuous = false; // Collisioni controllate lungo tutto il movimento del tick
+    private float timeOfImpact = 1f;    // Frazione del movimento percorsa prima dell'ultimo impatto
     public static final float COLLISION_VISUAL_DURATION = 0.5f; // Durata in secondi
 
     public ColliderComponent(Entity entity, int x, int y, int width, int height, CollisionBehavior behavior) {
@@ -46,9 +50,13 @@ public class ColliderComponent extends Component {
     public ColliderComponent(Entity entity, CharacterSpritesheet spritesheet, CollisionBehavior behavior) {
 		super(entity);
         this.behavior = behavior;
-        this.defaultBoundingBox = boundingBox;
+        // Copie: i bounding box dello spritesheet sono condivisi con le altre entità dello stesso tipo
         this.boundingBox = spritesheet.getBoundingBox();
-        this.directionalBoundingBoxes = spritesheet.getDirectionalBoundingBoxes();
+        this.defaultBoundingBox = new Rectangle(this.boundingBox);
+        this.directionalBoundingBoxes = new HashMap<>();
+        for (Map.Entry<Direction, Rectangle> entry : spritesheet.getDirectionalBoundingBoxes().entrySet()) {
+            this.directionalBoundingBoxes.put(entry.getKey(), new Rectangle(entry.getValue()));
+        }
     }
     
     public void collides() {
@@ -64,6 +72,31 @@ public class ColliderComponent extends Component {
         }
     }
     
+    @Override
+    public void reset() {
+        colliding = false;
+        timeRemaining = 0f;
+        timeOfImpact = 1f;
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.put((byte) (colliding ? 1 : 0)).putFloat(timeRemaining);
+        // Il bounding box cambia con la direzione (setDefaultBoundingBox)
+        out.putInt(boundingBox.x).putInt(boundingBox.y).putInt(boundingBox.width).putInt(boundingBox.height);
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        colliding = in.get() != 0;
+        timeRemaining = in.getFloat();
+        int x = in.getInt(), y = in.getInt(), width = in.getInt(), height = in.getInt();
+        if (boundingBox.x != x || boundingBox.y != y || boundingBox.width != width || boundingBox.height != height) {
+            // Nuovo rettangolo: quello attuale può essere condiviso con il bounding box predefinito
+            boundingBox = new Rectangle(x, y, width, height);
+        }
+    }
+
     public void setDefaultBoundingBox(Direction direction) {
         Rectangle newBoundingBox = directionalBoundingBoxes.get(direction);
         this.boundingBox = (newBoundingBox != null) ? (Rectangle) newBoundingBox.clone() : (Rectangle) defaultBoundingBox.clone();
@@ -76,9 +109,30 @@ public class ColliderComponent extends Component {
     public boolean isColliding() { return colliding; }
 	public float getTimeRemaining() { return timeRemaining; }
 	public Rectangle getBoundingBox() { return (Rectangle) boundingBox.clone(); }
+	// Accesso al bounding box senza copia, per i controlli eseguiti a ogni tick
+	public int getBoxX() { return boundingBox.x; }
+	public int getBoxY() { return boundingBox.y; }
+	public int getBoxWidth() { return boundingBox.width; }
+	public int getBoxHeight() { return boundingBox.height; }
     public CollisionBehavior getBehavior() { return behavior; }
     public boolean isOneWayPlatform() { return oneWayPlatform; }
     public float getMass() { return mass; }
     public void setMass(float m) { this.mass = m; }
+
+    /**
+     * Enables continuous collision detection: the CollisionSystem sweeps the box from the
+     * old position to the new one against the tiles and the other entities, so a body
+     * that moves more than its size in one tick (a projectile) cannot pass through them.
+     * It costs more than the normal test, so use it only for fast bodies.
+     */
+    public void setContinuous(boolean continuous) { this.continuous = continuous; }
+    public boolean isContinuous() { return continuous; }
+
+    /**
+     * Fraction of the movement of the last tick done before the first impact
+     * (1 = no impact). Only updated for continuous colliders.
+     */
+    public float getTimeOfImpact() { return timeOfImpact; }
+    public void setTimeOfImpact(float timeOfImpact) { this.timeOfImpact = timeOfImpact; }
     
 }
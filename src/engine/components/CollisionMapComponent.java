@@ -13,10 +13,11 @@ import java.util.Iterator;
 import java.util.Map;
 import engine.Component;
 import engine.Entity;
+import world.SolidityGrid;
 import world.TileMap;
 
 public class CollisionMapComponent extends Component {
-    private final boolean[][] solidTiles;
+    private final SolidityGrid solidTiles; // Condivisa con la TileMap
     private final int tileWidth;
     private final int tileHeight;
     private final Map<Point, Float> collidedTiles; // Mappa delle tile in collisione con il timer
@@ -28,13 +29,12 @@ public class CollisionMapComponent extends Component {
         this.tileWidth = tileMap.getTileWidth();
         this.tileHeight = tileMap.getTileHeight();
 
-        // Genera una mappa di solidità
-        this.solidTiles = tileMap.getSolidMap();
+        this.solidTiles = tileMap.getSolidityGrid();
         this.collidedTiles = tileMap.getCollidedTiles();
     }
 
     public boolean isSolidTile(int row, int col) {
-        return row >= 0 && row < solidTiles.length && col >= 0 && col < solidTiles[0].length && solidTiles[row][col];
+        return solidTiles.isSolid(row, col);
     }
 
     public void update(float deltaTime) {
@@ -64,16 +64,26 @@ public class CollisionMapComponent extends Component {
         return tileHeight;
     }
 
-	public boolean[][] getSolidTiles() {
+	/**
+	 * Solid tiles shared with the TileMap (read only).
+	 */
+	public SolidityGrid getSolidityGrid() {
 		return solidTiles;
 	}
 
+	/**
+	 * A new copy of the solid tiles as boolean[rows][cols]; prefer getSolidityGrid.
+	 */
+	public boolean[][] getSolidTiles() {
+		return solidTiles.toArray();
+	}
+
 	public int getMapWidth() {
-		return solidTiles[0].length;
+		return solidTiles.getCols();
 	}
 
 	public int getMapHeight() {
-		return solidTiles.length;
+		return solidTiles.getRows();
 	}
 
 	public Rectangle getSolidBox(int row, int col) {
@@ -7,10 +7,13 @@
  */
 package engine.components;
 
+import java.nio.ByteBuffer;
+
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 
-public class GravityComponent extends Component {
+public class GravityComponent extends Component implements Snapshotable {
     private float airSpeed;
     private float gravity;
     private float jumpSpeed;
@@ -61,6 +64,23 @@ public class GravityComponent extends Component {
         airSpeed = 0;
     }
 
+    @Override
+    public void reset() {
+        airSpeed = 0;
+        inAir = false;
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.putFloat(airSpeed).put((byte) (inAir ? 1 : 0));
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        airSpeed = in.getFloat();
+        inAir = in.get() != 0;
+    }
+
     public void setFallSpeedAfterCollision() {
         airSpeed = fallSpeedAfterCollision;
     }
@@ -7,10 +7,13 @@
  */
 package engine.components;
 
+import java.nio.ByteBuffer;
+
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 
-public class HealthComponent extends Component {
+public class HealthComponent extends Component implements Snapshotable {
 
     private int health;
     private int maxHealth;
@@ -27,7 +30,7 @@ public class HealthComponent extends Component {
         if (health < 0) health = 0;
 
         if (health == 0 && onDeath != null) {
-            onDeath.run();
+            runCallback(onDeath); // Sul thread di gioco, dopo il sistema che ha inflitto il danno
         }
     }
 
@@ -40,6 +43,22 @@ public class HealthComponent extends Component {
         health = maxHealth;
     }
 
+    @Override
+    public void reset() {
+        resetHealth();
+    }
+
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.putInt(health).putInt(maxHealth);
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        health = in.getInt();
+        maxHealth = in.getInt();
+    }
+
     public int getHealth() { return health; }
     public int getMaxHealth() { return maxHealth; }
 
@@ -51,6 +70,6 @@ public class HealthComponent extends Component {
 
     public void kill() {
         health = 0;
-        if (onDeath != null) onDeath.run();
+        runCallback(onDeath);
     }
 }
\ No newline at end of file
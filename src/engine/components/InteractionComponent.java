@@ -15,21 +15,36 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Consumer;
 
+/**
+ * Callbacks invoked by the InteractionSystem when the entity collides with another
+ * entity or touches a solid tile. The events are delivered in batch through the
+ * engine EventBus, once per tick.
+ *
+ * The tile callback receives one (col, row) pair per tile touched in the tick. The older
+ * callback on a Set of Nodes is still accepted (deprecated): the tiles of the tick are
+ * collected and delivered together, once per tick, as before.
+ */
 public class InteractionComponent extends Component {
 
+    /**
+     * Reacts to the contact with the solid tile at the given column and row.
+     */
+    public interface TileInteraction {
+        void interact(int col, int row);
+    }
+
     private boolean interactable;
     private Consumer<Entity> onEntityInteract; // Usa un Consumer per accettare un parametro
-    private Consumer<Set<Node>> onTileInteract; // Usa un Consumer per accettare un parametro
-    private Set<Entity> interactionSet; // Usare un Set per le interazioni uniche
-    private Set<Node> collisionTiles;   // Nuovo Set per i nodi in collisione
+    private TileInteraction onTileInteract;    // Chiamato per ogni tile toccata nel tick
+    private Consumer<Set<Node>> onTilesInteract; // Vecchia callback: tutte le tile del tick insieme
+    private Set<Node> collisionTiles;          // Tile del tick per onTilesInteract (solo se usata)
+    private Set<Entity> interactionSet;        // Creato solo se richiesto con getInteractionSet()
 
     public InteractionComponent(Entity entity) {
         super(entity);
         interactable = true;
         onEntityInteract = null;
         onTileInteract = null;
-        interactionSet = new HashSet<>(); // Inizializza l'HashSet
-        collisionTiles = new HashSet<>(); // Inizializza il Set di nodi
     }
 
     public boolean isInteractable() {
@@ -45,43 +60,76 @@ public class InteractionComponent extends Component {
     }
 
     public void entityInteract(Entity other) {
+        if (interactionSet != null) {
+            interactionSet.add(other);
+        }
         if (onEntityInteract != null) {
         	onEntityInteract.accept(other); // Esegui l'azione con il parametro Entity
         }
     }
 
+    /**
+     * Entities this one interacted with since the last clearInteractions().
+     *
+     * @deprecated interactions are delivered as they happen to the callback set with
+     *             setOnEntityInteract(); the set is filled only after the first call.
+     */
+    @Deprecated
     public Set<Entity> getInteractionSet() {
+        if (interactionSet == null) {
+            interactionSet = new HashSet<>();
+        }
         return interactionSet;
     }
 
+    /**
+     * @deprecated see getInteractionSet().
+     */
+    @Deprecated
     public void clearInteractions() {
-        interactionSet.clear(); // Svuota le interazioni
-    }
-    
-    // Metodi per gestire i nodi in collisione
-    public void setOnTileInteract(Consumer<Set<Node>> onTileInteract) {
-        this.onTileInteract = onTileInteract; // Imposta l'azione da eseguire durante l'interazione
-    }
-
-    public void tileInteract(Set<Node> tiles) {
-        if (onTileInteract != null) {
-        	onTileInteract.accept(tiles); // Esegui l'azione con il parametro Entity
+        if (interactionSet != null) {
+            interactionSet.clear(); // Svuota le interazioni
         }
     }
 
-    public Set<Node> getCollisionTiles() {
-        return collisionTiles;
+    public void setOnTileInteract(TileInteraction onTileInteract) {
+        this.onTileInteract = onTileInteract; // Imposta l'azione da eseguire durante l'interazione
+        this.onTilesInteract = null;
     }
 
-    public void addCollisionTile(Node node) {
-        collisionTiles.add(node); // Aggiungi un nodo in collisione
+    /**
+     * Callback receiving all the tiles touched in a tick at once, after the tick.
+     *
+     * @deprecated use setOnTileInteract(TileInteraction), which receives each tile as a
+     *             (col, row) pair without allocating a Node per tile.
+     */
+    @Deprecated
+    public void setOnTileInteract(Consumer<Set<Node>> onTileInteract) {
+        this.onTilesInteract = onTileInteract;
+        this.onTileInteract = null;
+        if (collisionTiles == null) {
+            collisionTiles = new HashSet<>();
+        }
+        collisionTiles.clear(); // Nessuna tile di una callback precedente
     }
 
-    public void addCollisionTiles(Set<Node> nodes) {
-        collisionTiles.addAll(nodes); // Aggiungi più nodi in collisione
+    public void tileInteract(int col, int row) {
+        if (onTileInteract != null) {
+        	onTileInteract.interact(col, row);
+        }
+        if (onTilesInteract != null) {
+            collisionTiles.add(new Node(col, row)); // Consegnate insieme da endTileInteractions()
+        }
     }
 
-    public void clearCollisionTiles() {
-        collisionTiles.clear(); // Svuota il set di nodi in collisione
+    /**
+     * Delivers the tiles collected in the tick to the deprecated Set callback, if any.
+     * Called by the InteractionSystem after the tile contacts of the tick.
+     */
+    public void endTileInteractions() {
+        if (onTilesInteract != null && !collisionTiles.isEmpty()) {
+            onTilesInteract.accept(collisionTiles);
+            collisionTiles.clear();
+        }
     }
 }
\ No newline at end of file
@@ -7,14 +7,19 @@
  */
 package engine.components;
 
+import java.nio.ByteBuffer;
+
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 
-public class MotionComponent extends Component {
+public class MotionComponent extends Component implements Snapshotable {
     private float x;
     private float y;
     private float oldX;
     private float oldY;
+    private float previousX; // Posizione all'ultimo frame pubblicato per il rendering (interpolazione)
+    private float previousY;
     private float vx;
     private float vy;
     private float maxSpeed;
@@ -23,8 +28,8 @@ public class MotionComponent extends Component {
     
     public MotionComponent(Entity entity, float x, float y, float maxSpeed) {
     	super(entity);
-        this.x = this.oldX = x;
-        this.y = this.oldY = y;
+        this.x = this.oldX = this.previousX = x;
+        this.y = this.oldY = this.previousY = y;
         this.maxSpeed = maxSpeed;
         this.vx = 0;
         this.vy = 0;
@@ -51,6 +56,42 @@ public class MotionComponent extends Component {
 	public void setOldX(float oldX) { this.oldX = oldX; }
 	public void setOldY(float oldY) { this.oldY = oldY; }
 
+	public float getPreviousX() { return previousX; }
+	public float getPreviousY() { return previousY; }
+
+	/**
+	 * Remembers the current position as the one of the last rendered tick.
+	 * Also call it after a teleport, so the renderer does not interpolate across the jump.
+	 */
+	public void storePreviousPosition() {
+		this.previousX = x;
+		this.previousY = y;
+	}
+
+	@Override
+	public void reset() {
+		this.vx = 0;
+		this.vy = 0;
+		this.oldX = this.previousX = x;
+		this.oldY = this.previousY = y;
+	}
+
+	@Override
+	public void writeSnapshot(ByteBuffer out) {
+		out.putFloat(x).putFloat(y).putFloat(oldX).putFloat(oldY).putFloat(vx).putFloat(vy);
+	}
+
+	@Override
+	public void readSnapshot(ByteBuffer in) {
+		x = in.getFloat();
+		y = in.getFloat();
+		oldX = in.getFloat();
+		oldY = in.getFloat();
+		vx = in.getFloat();
+		vy = in.getFloat();
+		storePreviousPosition(); // Nessuna interpolazione dalla posizione precedente al ripristino
+	}
+
 	public float getMaxSpeed() { return maxSpeed; }
     public void setMaxSpeed(float maxSpeed) { this.maxSpeed = maxSpeed; }
 
@@ -48,9 +48,7 @@ public class NPCComponent extends Component {
     }
 
     public void onTargetReached() {
-        if (onTargetReached != null) {
-            onTargetReached.run();
-        }
+        runCallback(onTargetReached);
     }
 
     public float getTargetX() {
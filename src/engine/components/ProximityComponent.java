@@ -80,6 +80,13 @@ public class ProximityComponent extends Component {
         }
     }
 
+    /**
+     * Returns whether the given entity is currently inside the proximity range.
+     */
+    public boolean isTriggeredBy(Entity entity) {
+        return triggeringEntities.contains(entity);
+    }
+
     /**
      * Clears all triggering entities and resets the state.
      */
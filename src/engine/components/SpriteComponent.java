@@ -8,13 +8,16 @@
 package engine.components;
 
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 import enums.Action;
 import enums.Direction;
+import world.AtlasRegion;
 import world.CharacterSpritesheet;
 
-public class SpriteComponent extends Component {
+public class SpriteComponent extends Component implements Snapshotable {
     protected int currentFrame;
     protected float frameDuration;
     protected float elapsedTime;
@@ -26,9 +29,9 @@ public class SpriteComponent extends Component {
     protected boolean looping;         
     private Runnable onAnimationEnd;
     
-	// Le immagini dell'animazione
-    // images[action][direction][animation frame]
-	protected BufferedImage[][][] images; 
+	// I frame dell'animazione, nel texture atlas dello spritesheet
+    // regions[action][direction][animation frame]
+	protected AtlasRegion[][][] regions; 
 
     public SpriteComponent(Entity entity, CharacterSpritesheet spritesheet, float frameDuration, boolean looping) {
     	super(entity);
@@ -44,33 +47,44 @@ public class SpriteComponent extends Component {
         this.elapsedTime = 0.0f;
         this.direction = Direction.RIGHT; // Default direction
         this.action = Action.IDLE; // Default action
-        this.images = spritesheet.getImages();
+        this.regions = spritesheet.getRegions();
         this.frameWidth = spritesheet.getFrameWidth();
         this.frameHeight = spritesheet.getFrameHeight();
     }
     
+    /**
+     * The current frame as a separate image; rendering uses getCurrentRegion() instead.
+     */
     public BufferedImage getCurrentSprite() {
+        AtlasRegion region = getCurrentRegion();
+        return region != null ? region.getImage() : null;
+    }
+
+    /**
+     * The current frame in the texture atlas of the spritesheet, or null if there is none.
+     */
+    public AtlasRegion getCurrentRegion() {
         if (!hasFrame(currentFrame)) {
             return null; // Nessun frame valido
         }
-        return images[this.action.getActionIndex()][this.direction.getDirectionIndex()][this.currentFrame];
+        return regions[this.action.getActionIndex()][this.direction.getDirectionIndex()][this.currentFrame];
     }
     
 	public boolean hasFrame(int index) {
-	    if (images == null || images[this.action.getActionIndex()] == null ||
-	            images[this.action.getActionIndex()][this.direction.getDirectionIndex()] == null) {
+	    if (regions == null || regions[this.action.getActionIndex()] == null ||
+	            regions[this.action.getActionIndex()][this.direction.getDirectionIndex()] == null) {
 	        return false;
 	    }
-	    BufferedImage[] frames = images[this.action.getActionIndex()][this.direction.getDirectionIndex()];
+	    AtlasRegion[] frames = regions[this.action.getActionIndex()][this.direction.getDirectionIndex()];
 	    return index < frames.length && frames[index] != null;
 	}
 	
 	public int getLength() {
-        if (images == null || images[this.action.getActionIndex()] == null ||
-                images[this.action.getActionIndex()][this.direction.getDirectionIndex()] == null) {
+        if (regions == null || regions[this.action.getActionIndex()] == null ||
+                regions[this.action.getActionIndex()][this.direction.getDirectionIndex()] == null) {
             return 0;
         }
-		return images[action.getActionIndex()][direction.getDirectionIndex()].length;	
+		return regions[action.getActionIndex()][direction.getDirectionIndex()].length;	
 	}
 
 	public Direction getDirection() {
@@ -105,6 +119,28 @@ public class SpriteComponent extends Component {
 		this.currentFrame = currentFrame;
 	}
 
+	@Override
+	public void reset() {
+		// L'animazione riparte dal primo frame; azione e direzione vengono reimpostate da chi riusa l'entità
+		this.currentFrame = 0;
+		this.elapsedTime = 0.0f;
+	}
+
+	@Override
+	public void writeSnapshot(ByteBuffer out) {
+		out.putInt(currentFrame).putFloat(elapsedTime);
+		out.put((byte) direction.ordinal()).put((byte) action.ordinal()).put((byte) (looping ? 1 : 0));
+	}
+
+	@Override
+	public void readSnapshot(ByteBuffer in) {
+		currentFrame = in.getInt();
+		elapsedTime = in.getFloat();
+		direction = Direction.values()[in.get()];
+		action = Action.values()[in.get()];
+		looping = in.get() != 0;
+	}
+
 	public float getFrameDuration() {
 		return frameDuration;
 	}
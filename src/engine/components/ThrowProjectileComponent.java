@@ -9,9 +9,11 @@ package engine.components;
 
 import engine.Component;
 import engine.Entity;
+import engine.EntityPool;
 
 public class ThrowProjectileComponent extends Component {
     private Entity projectile;          // Riferimento al proiettile
+    private EntityPool projectilePool;  // Pool di proiettili (alternativo al singolo proiettile)
     private float throwTimer;           // Timer per il lancio
     private float timeToThrow;          // Tempo minimo per un nuovo lancio
     private float throwingTime;         // Durata totale dell'animazione di lancio
@@ -28,6 +30,15 @@ public class ThrowProjectileComponent extends Component {
         this.projectileLaunched = false;
     }
 
+    /**
+     * Thrower that takes its projectiles from a pool, so that several of them
+     * can be in flight at the same time without allocating new entities.
+     */
+    public ThrowProjectileComponent(Entity entity, float timeToThrow, float throwingTime, EntityPool projectilePool) {
+        this(entity, timeToThrow, throwingTime, (Entity) null);
+        this.projectilePool = projectilePool;
+    }
+
     public Entity getProjectile() {
         return projectile;
     }
@@ -36,6 +47,25 @@ public class ThrowProjectileComponent extends Component {
         this.projectile = projectile;
     }
 
+    public EntityPool getProjectilePool() {
+        return projectilePool;
+    }
+
+    public void setProjectilePool(EntityPool projectilePool) {
+        this.projectilePool = projectilePool;
+    }
+
+    /**
+     * Returns the projectile to launch: a fresh one from the pool if present,
+     * otherwise the single projectile when it is not already in flight (null if none is available).
+     */
+    public Entity acquireProjectile() {
+        if (projectilePool != null) {
+            return projectilePool.acquire();
+        }
+        return (projectile != null && !projectile.isAlive()) ? projectile : null;
+    }
+
     public void update(float deltaTime) {
         if (throwingProjectile) {
             throwTimer += deltaTime;
@@ -54,7 +84,10 @@ public class ThrowProjectileComponent extends Component {
      * @return `true` se il proiettile può essere lanciato
      */
     public boolean canThrowProjectile() {
-        return throwTimer >= timeToThrow && projectile != null && !projectile.isAlive();
+        if (throwTimer < timeToThrow) {
+            return false;
+        }
+        return projectilePool != null || (projectile != null && !projectile.isAlive());
     }
 
     /**
@@ -113,4 +146,10 @@ public class ThrowProjectileComponent extends Component {
         throwTimer = 0;
         throwingProjectile = false;
     }
+
+    @Override
+    public void reset() {
+        resetTimer();
+        projectileLaunched = false;
+    }
 }
\ No newline at end of file
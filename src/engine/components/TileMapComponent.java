@@ -14,13 +14,15 @@ import java.awt.image.BufferedImage;
 import java.util.Map;
 import engine.Component;
 import engine.Entity;
+import helpers.ImageUtils;
 import main.GamePanel;
+import world.SolidityGrid;
 import world.Tile;
 import world.TileMap;
 
 public class TileMapComponent extends Component {
     private TileMap tileMap;
-    private final boolean[][] solidTiles;
+    private final SolidityGrid solidTiles; // Condivisa con la TileMap
     private BufferedImage[] tileMapFrames; // Lista delle immagini pre-renderizzate per ogni frame
     private final int tileWidth;
     private final int tileHeight;
@@ -35,7 +37,7 @@ public class TileMapComponent extends Component {
     public TileMapComponent(Entity entity, TileMap tileMap) {
         super(entity);
         this.tileMap = tileMap;
-        this.solidTiles = tileMap.getSolidMap();
+        this.solidTiles = tileMap.getSolidityGrid();
         this.tileWidth = tileMap.getTileWidth();
         this.tileHeight = tileMap.getTileHeight();
         this.frameDuration = tileMap.getFrameDuration();
@@ -53,8 +55,8 @@ public class TileMapComponent extends Component {
         tileMapFrames = new BufferedImage[totalFrames];
 
         for (int frame = 0; frame < totalFrames; frame++) {
-            BufferedImage tileMapImage = new BufferedImage(tileMap.getMapWidth() * tileMap.getTileWidth(),
-                    tileMap.getMapHeight() * tileMap.getTileHeight(), BufferedImage.TYPE_INT_ARGB);
+            BufferedImage tileMapImage = ImageUtils.createCompatibleImage(tileMap.getMapWidth() * tileMap.getTileWidth(),
+                    tileMap.getMapHeight() * tileMap.getTileHeight());
             Graphics2D g2d = tileMapImage.createGraphics();
 
             for (int y = 0; y < tileMap.getMapHeight(); y++) {
@@ -82,7 +84,7 @@ public class TileMapComponent extends Component {
     }
 
     public boolean isSolidTile(int row, int col) {
-        return row >= 0 && row < solidTiles.length && col >= 0 && col < solidTiles[0].length && solidTiles[row][col];
+        return solidTiles.isSolid(row, col);
     }
 
     // Metodo per aggiornare il frame corrente della tilemap in base al deltaTime
@@ -122,11 +124,11 @@ public class TileMapComponent extends Component {
 	}
 
 	public int getMapWidth() {
-		return solidTiles[0].length;
+		return solidTiles.getCols();
 	}
 
 	public int getMapHeight() {
-		return solidTiles.length;
+		return solidTiles.getRows();
 	}
 
 }
\ No newline at end of file
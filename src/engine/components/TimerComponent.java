@@ -8,10 +8,13 @@
 
 package engine.components;
 
+import java.nio.ByteBuffer;
+
 import engine.Component;
 import engine.Entity;
+import engine.Snapshotable;
 
-public class TimerComponent extends Component {
+public class TimerComponent extends Component implements Snapshotable {
 
 	/**
 	 * A component that holds a countdown timer. Once the timer
@@ -48,10 +51,8 @@ public class TimerComponent extends Component {
 
         timeLeft -= dt;
         if (timeLeft <= 0) {
-            // Time is over: run the callback
-            if (onTimeOver != null) {
-                onTimeOver.run();
-            }
+            // Time is over: run the callback (on the game thread, after the TimerSystem)
+            runCallback(onTimeOver);
             if (looping) {
             	reset();
             } else {
@@ -64,11 +65,27 @@ public class TimerComponent extends Component {
     /**
      * Resets the timer to the original total time and makes it active again.
      */
+    @Override
     public void reset() {
         this.timeLeft = totalTime;
         this.active = true;
     }
 
+    @Override
+    public void writeSnapshot(ByteBuffer out) {
+        out.putFloat(timeLeft).putFloat(totalTime);
+        out.put((byte) ((active ? 1 : 0) | (looping ? 2 : 0)));
+    }
+
+    @Override
+    public void readSnapshot(ByteBuffer in) {
+        timeLeft = in.getFloat();
+        totalTime = in.getFloat();
+        byte flags = in.get();
+        active = (flags & 1) != 0;
+        looping = (flags & 2) != 0;
+    }
+
     public float getTimeLeft() { return timeLeft; }
     public void setOnTimeOver(Runnable onTimeOver) { this.onTimeOver = onTimeOver; }
 
@@ -0,0 +1,43 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading and slicing of an image asset (tileset or spritesheet).
+ */
+@Name("retroedge.AssetLoad")
+@Label("Asset Load")
+@Category({"RetroEdge", "Assets"})
+@Description("Decoding of an image resource and creation of its tiles or frames")
+public class AssetLoadEvent extends Event {
+    @Label("Asset Type")
+    public String assetType;
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Frames")
+    @Description("Number of tiles or sprite frames cut from the image")
+    public int frames;
+
+    @Label("Success")
+    public boolean success;
+}
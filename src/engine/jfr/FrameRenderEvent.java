@@ -0,0 +1,33 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One Engine.render() on the Swing EDT.
+ */
+@Name("retroedge.FrameRender")
+@Label("Frame Render")
+@Category({"RetroEdge", "Frame"})
+@Description("Drawing of a frame from the published snapshots")
+public class FrameRenderEvent extends Event {
+    @Label("Systems")
+    public int systems;
+
+    @Label("Interpolation Alpha")
+    public float alpha;
+
+    @Label("Transition")
+    public boolean transition;
+}
@@ -0,0 +1,41 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One Engine.update(): systems phase, event dispatch and command buffer.
+ */
+@Name("retroedge.FrameUpdate")
+@Label("Frame Update")
+@Category({"RetroEdge", "Frame"})
+@Description("A fixed-step update of the engine")
+public class FrameUpdateEvent extends Event {
+    @Label("Engine State")
+    public String engineState;
+
+    @Label("Entities")
+    public int entities;
+
+    @Label("Systems")
+    public int systems;
+
+    @Label("Delta Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long deltaTime;
+
+    @Label("Parallel Systems")
+    public boolean parallel;
+}
@@ -0,0 +1,50 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A single PathFinder.timedSearch().
+ */
+@Name("retroedge.PathSearch")
+@Label("Path Search")
+@Category({"RetroEdge", "Pathfinding"})
+@Description("Search of a path on the tile grid")
+public class PathSearchEvent extends Event {
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Start X")
+    public int startX;
+
+    @Label("Start Y")
+    public int startY;
+
+    @Label("Goal X")
+    public int goalX;
+
+    @Label("Goal Y")
+    public int goalY;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Path Length")
+    @Description("Number of nodes in the path, 0 if not found")
+    public int pathLength;
+
+    @Label("Expanded Nodes")
+    @Description("Nodes taken from the open list")
+    public int expandedNodes;
+}
@@ -0,0 +1,40 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cleanup of the old game state and initialisation of the new one.
+ */
+@Name("retroedge.StateSwitch")
+@Label("State Switch")
+@Category({"RetroEdge", "States"})
+@Description("Switch between two game states, including cleanup and init")
+public class StateSwitchEvent extends Event {
+    @Label("From State")
+    public String fromState;
+
+    @Label("To State")
+    public String toState;
+
+    @Label("Entities Removed")
+    public int entitiesRemoved;
+
+    @Label("Entities Created")
+    @Description("Entities added by the new state's init(), still waiting for the next update")
+    public int entitiesCreated;
+
+    @Label("After Transition")
+    public boolean afterTransition;
+}
@@ -0,0 +1,33 @@
+/**
+ * RetroEdge Educational Game Engine
+ *
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The update of a single system, on the game thread or on a scheduler worker.
+ */
+@Name("retroedge.SystemUpdate")
+@Label("System Update")
+@Category({"RetroEdge", "Systems"})
+@Description("Update of one BaseSystem during a frame")
+public class SystemUpdateEvent extends Event {
+    @Label("System")
+    public String system;
+
+    @Label("Priority")
+    public int priority;
+
+    @Label("Entities")
+    public int entities;
+}
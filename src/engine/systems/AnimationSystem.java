@@ -24,6 +24,10 @@ public class AnimationSystem extends BaseSystem {
 
 	public AnimationSystem(Engine engine) {
 		super(engine, 9);
+		// Componenti usati, per l'esecuzione in parallelo con gli altri sistemi (le callback
+		// del gioco vengono eseguite dopo il sistema, vedi Engine.runOnGameThread)
+		reads(MotionComponent.class, AttackComponent.class, ThrowProjectileComponent.class, GravityComponent.class);
+		writes(SpriteComponent.class, TileMapComponent.class);
 	}
 
 	@Override
@@ -144,8 +148,8 @@ public class AnimationSystem extends BaseSystem {
 				sprite.setCurrentFrame(0);
 			} else {
 				// End of animation
-				if (sprite.getOnAnimationEnd() != null)
-					sprite.getOnAnimationEnd().run();
+				// Sul thread di gioco, dopo il sistema: la callback può toccare qualunque componente
+				engine.runOnGameThread(sprite.getOnAnimationEnd());
 			}
 		}
 		sprite.setElapsedTime(elapsedTime);
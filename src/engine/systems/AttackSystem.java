@@ -23,6 +23,10 @@ public class AttackSystem extends BaseSystem {
 
     public AttackSystem(Engine engine) {
         super(engine, 5); // Priority level
+        // Componenti usati, per l'esecuzione in parallelo con gli altri sistemi (le callback
+        // del gioco vengono eseguite dopo il sistema, vedi Engine.runOnGameThread)
+        reads(MotionComponent.class, ColliderComponent.class, SpriteComponent.class);
+        writes(AttackComponent.class, HealthComponent.class);
     }
 
     @Override
@@ -114,6 +118,7 @@ public class AttackSystem extends BaseSystem {
         if (health != null) {
             health.decreaseHealth(attackComponent.getDamage());
             attackComponent.setAttackApplied(true);
+            engine.getEventBus().publishDamage(attackComponent.getParentEntity(), target, attackComponent.getDamage());
             Logger.log("Applied attack: -" + attackComponent.getDamage() + " health to entity: " + target.getId());
         }
     }
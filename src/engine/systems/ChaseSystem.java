@@ -23,6 +23,9 @@ public class ChaseSystem extends BaseSystem {
 
 	public ChaseSystem(Engine engine) {
 		super(engine, 3); // Imposta la priorità del sistema
+		// Componenti usati, per l'esecuzione in parallelo con gli altri sistemi
+		reads(ColliderComponent.class);
+		writes(ChaseComponent.class, MotionComponent.class);
 	}
 
 	@Override
@@ -84,7 +87,7 @@ public class ChaseSystem extends BaseSystem {
 
 		// Calcola il percorso se necessario
 		if (pathFinder.setNodes(startRow, startCol, goalRow, goalCol)) {
-			pathFinder.search();
+			pathFinder.timedSearch(); // Registrata anche come evento JFR
 		}
 
 		// Segui il percorso
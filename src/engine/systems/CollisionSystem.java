@@ -10,16 +10,22 @@ package engine.systems;
 
 import engine.BaseSystem;
 import engine.Engine;
+import engine.collision.BodyList;
+import engine.collision.BroadPhase;
+import engine.collision.SpatialHashBroadPhase;
+import engine.collision.SweptBox;
+import engine.collision.TileContacts;
+import engine.collision.TileSweep;
 import engine.components.ColliderComponent;
 import engine.components.CollisionMapComponent;
 import engine.components.GravityComponent;
-import engine.components.InteractionComponent;
 import engine.components.MotionComponent;
 import engine.Entity;
 import enums.CollisionBehavior;
 import enums.EngineState;
 import pathfinder.Node;
 import java.awt.Rectangle;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -28,10 +34,29 @@ public class CollisionSystem extends BaseSystem {
 
 	private float restitution = 0.2f;
     static final int tolerance = 0; // Tolleranza in pixel
-    private final Set<Node> collisions = new HashSet<>(); // Set per le collisioni
+    private final TileSweep tileSweep = new TileSweep(tolerance); // Risoluzione delle collisioni con le tile
+    private final SweptBox sweptBox = new SweptBox(); // Tempo di impatto dei collider continui
+    private boolean[] touchedTiles = new boolean[64]; // Entità che hanno già pubblicato i contatti nel tick
+
+    // Broad phase: solo le coppie candidate arrivano a handleCollision
+    private BroadPhase broadPhase = new SpatialHashBroadPhase();
+    private final BodyList bodies = new BodyList();
+    private Entity[] bodyEntities = new Entity[64];
+    private MotionComponent[] bodyMotions = new MotionComponent[64];
+    private ColliderComponent[] bodyColliders = new ColliderComponent[64];
+    private int[] staticBodies = new int[64]; // Indici dei corpi STATIC, per il controllo del terreno
+    private int staticCount;
+    private final BroadPhase.PairCallback pairHandler = this::handlePair;
+    private int contacts;
+    // Statistiche dell'ultimo tick, lette dall'overlay di debug
+    private volatile int lastBodyCount;
+    private volatile int lastCandidatePairs;
+    private volatile int lastContactPairs;
 
 	public CollisionSystem(Engine engine) {
         super(engine, 4); // Priorità del sistema
+        // Componenti usati, per l'esecuzione in parallelo con gli altri sistemi
+        writes(MotionComponent.class, ColliderComponent.class, CollisionMapComponent.class, GravityComponent.class);
     }
 
     @Override
@@ -49,66 +74,158 @@ public class CollisionSystem extends BaseSystem {
 	public float getRestitution() { return restitution; }
 	public void setRestitution(float restitution) { this.restitution = restitution; }
 
+	public BroadPhase getBroadPhase() { return broadPhase; }
+
+	/**
+	 * Selects the algorithm that finds the pairs of entities to test (see engine.collision).
+	 */
+	public void setBroadPhase(BroadPhase broadPhase) {
+		if (broadPhase == null) {
+			throw new IllegalArgumentException("Broad phase cannot be null.");
+		}
+		this.broadPhase = broadPhase;
+	}
+
+	/** Entities with a collider and a position in the last tick. */
+	public int getBodyCount() { return lastBodyCount; }
+	/** Pairs reported by the broad phase in the last tick. */
+	public int getCandidatePairs() { return lastCandidatePairs; }
+	/** Candidate pairs that actually overlapped in the last tick. */
+	public int getContactPairs() { return lastContactPairs; }
+
+	@Override
+	public String getOverlayInfo() {
+		return String.format("%s: %d bodies, %d pairs, %d contacts",
+				broadPhase.getName(), lastBodyCount, lastCandidatePairs, lastContactPairs);
+	}
+
 	@Override
     public void update(float deltaTime) {
         // Aggiorna le collisioni tra entità e tile
         engine.accessEntities(entities -> {
-        	// 1. Tilemap Collision detection & resolution
-            for (Entity entity : entities) {
-    			resolveTileCollisions(entity, deltaTime);
-            }
-            
-            // 2. Collision between entities detection & resolution
             int size = entities.size();
+            if (touchedTiles.length < size) {
+                touchedTiles = new boolean[Math.max(size, touchedTiles.length * 2)];
+            }
+
+        	// 1. Tilemap Collision detection & resolution
             for (int i = 0; i < size; i++) {
-                for (int j = i + 1; j < size; j++) {
-                    Entity e1 = entities.get(i);
-                    Entity e2 = entities.get(j);
-                    handleCollision(e1, e2);
+                Entity entity = entities.get(i);
+                ColliderComponent collider = entity.getComponent(ColliderComponent.class);
+                if (collider != null && collider.isContinuous()) {
+                    collider.setTimeOfImpact(1f); // Nuovo movimento, nessun impatto finora
                 }
+    			touchedTiles[i] = resolveTileCollisions(entity, deltaTime, true);
             }
             
-            // 3) Tile collisions second pass
-            for (Entity e : entities) {
-                resolveTileCollisions(e, deltaTime);
+            // 2. Collision between entities: la broad phase trova le coppie candidate,
+            //    handleCollision fa il test esatto e la risoluzione
+            collectBodies(entities);
+            contacts = 0;
+            int candidates = broadPhase.findPairs(bodies, pairHandler);
+            lastBodyCount = bodies.size();
+            lastCandidatePairs = candidates;
+            lastContactPairs = contacts;
+            
+            // 3) Tile collisions second pass (i contatti sono pubblicati una sola volta per tick)
+            for (int i = 0; i < size; i++) {
+                resolveTileCollisions(entities.get(i), deltaTime, !touchedTiles[i]);
             }
             
 			for (Entity e : entities) {
-				checkAndSetOnGround(e, entities);
+				checkAndSetOnGround(e);
 			}
+			Arrays.fill(bodyEntities, 0, bodies.size(), null);
+			Arrays.fill(bodyMotions, 0, bodies.size(), null);
+			Arrays.fill(bodyColliders, 0, bodies.size(), null);
         });
     }
+
+	/**
+	 * Raccoglie le entità con posizione e collider, con i loro componenti e i bounding box
+	 * in coordinate del mondo, per la broad phase.
+	 */
+	private void collectBodies(List<Entity> entities) {
+		bodies.clear();
+		staticCount = 0;
+		for (int i = 0, size = entities.size(); i < size; i++) {
+			Entity entity = entities.get(i);
+			MotionComponent motion = entity.getComponent(MotionComponent.class);
+			ColliderComponent collider = entity.getComponent(ColliderComponent.class);
+			if (motion == null || collider == null) {
+				continue;
+			}
+			float x = motion.getX() + collider.getBoxX();
+			float y = motion.getY() + collider.getBoxY();
+			float minX = x, minY = y, maxX = x, maxY = y; // Angolo in alto a sinistra
+			if (collider.isContinuous()) {
+				// Box che copre tutto il movimento del tick: la broad phase trova anche le entità attraversate
+				float oldX = motion.getOldX() + collider.getBoxX();
+				float oldY = motion.getOldY() + collider.getBoxY();
+				minX = Math.min(x, oldX);
+				minY = Math.min(y, oldY);
+				maxX = Math.max(x, oldX);
+				maxY = Math.max(y, oldY);
+			}
+			int index = bodies.add(entity.getId(), minX, minY, maxX + collider.getBoxWidth(), maxY + collider.getBoxHeight());
+			if (index == bodyEntities.length) {
+				int capacity = index * 2;
+				bodyEntities = Arrays.copyOf(bodyEntities, capacity);
+				bodyMotions = Arrays.copyOf(bodyMotions, capacity);
+				bodyColliders = Arrays.copyOf(bodyColliders, capacity);
+				staticBodies = Arrays.copyOf(staticBodies, capacity);
+			}
+			bodyEntities[index] = entity;
+			bodyMotions[index] = motion;
+			bodyColliders[index] = collider;
+			if (collider.getBehavior() == CollisionBehavior.STATIC) {
+				staticBodies[staticCount++] = index;
+			}
+		}
+	}
+
+	private void handlePair(int first, int second) {
+		if ((bodyColliders[first].isContinuous() || bodyColliders[second].isContinuous())
+				&& handleContinuousCollision(first, second)) {
+			contacts++;
+			return;
+		}
+		if (handleCollision(bodyEntities[first], bodyEntities[second],
+				bodyMotions[first], bodyColliders[first], bodyMotions[second], bodyColliders[second])) {
+			contacts++;
+		}
+	}
 	
 	/*
 	 * Tilemap collision
 	 */
 
-	private void resolveTileCollisions(Entity entity, float deltaTime) {
+	/**
+	 * Risolve le collisioni con la tilemap. Se publishContacts è true, le tile toccate
+	 * vengono pubblicate come eventi TILE_CONTACT. Restituisce true se sono stati pubblicati contatti.
+	 */
+	private boolean resolveTileCollisions(Entity entity, float deltaTime, boolean publishContacts) {
 		MotionComponent motion = entity.getComponent(MotionComponent.class);
 	    ColliderComponent col = entity.getComponent(ColliderComponent.class);
 	    CollisionMapComponent map = entity.getComponent(CollisionMapComponent.class);
 	    
 	    if (motion == null || col == null || map == null) {
-	        return;
+	        return false;
 	    }
 
-	    // Bounding box dell'entità per il controllo iniziale
-	    Rectangle box = col.getBoundingBox();
-	    int boxX = (int) (motion.getX() + box.x);
-	    int boxY = (int) (motion.getY() + box.y);
+	    tileSweep.setMap(map.getSolidityGrid(), map.getTileWidth(), map.getTileHeight());
 
-	    // Controllo preliminare: se l'entità non è in collisione, esci
-	    if (!findCollisionsInRect(boxX, boxY, box.width, box.height, map)) {
-	        return;
+	    // Bounding box dell'entità per il controllo iniziale
+	    int boxX = (int) (motion.getX() + col.getBoxX());
+	    int boxY = (int) (motion.getY() + col.getBoxY());
+
+	    // Controllo preliminare: se l'entità non è in collisione, esci. Un collider continuo
+	    // può aver attraversato una tile anche se la posizione finale è libera
+	    boolean touching = touchesSolidTiles(publishContacts ? entity : null, boxX, boxY, col.getBoxWidth(), col.getBoxHeight(), map);
+	    if (!touching && !col.isContinuous()) {
+	        return false;
 	    }
-	    
-        InteractionComponent interaction = entity.getComponent(InteractionComponent.class);
-
-        // Aggiunge le tile coinvolte al rispettivo Set
-        if (interaction != null) {
-        	interaction.clearCollisionTiles();
-        	interaction.addCollisionTiles(collisions);
-        }
+	    boolean published = touching && publishContacts;
 	    
 	    // Current attempted final position
 	    float currentX = motion.getX();
@@ -123,6 +240,8 @@ public class CollisionSystem extends BaseSystem {
 	    if (correctedX != currentX) {
 	    	if(engine.isDebug())
 	    		col.collides();
+	    	if (col.isContinuous())
+	    		published |= recordTileImpact(entity, col, previousX, currentX, correctedX, publishContacts);
 		    motion.setX(correctedX);
 //		    motion.setDeltaX(correctedX - previousX);
 	        motion.setVx((correctedX - previousX) / deltaTime); // Blocca la velocità orizzontale
@@ -133,6 +252,8 @@ public class CollisionSystem extends BaseSystem {
 	    if (correctedY != currentY) {
 	    	if (engine.isDebug())
 	    		col.collides();
+	    	if (col.isContinuous())
+	    		published |= recordTileImpact(entity, col, previousY, currentY, correctedY, publishContacts);
 		    motion.setY(correctedY);
 //		    motion.setDeltaY(correctedY - previousY);
 	        motion.setVy((correctedY - previousY) / deltaTime); // Blocca la velocità verticale
@@ -148,8 +269,28 @@ public class CollisionSystem extends BaseSystem {
 	            }
 	        }
 	    }
+	    return published;
  	}
 
+	/**
+	 * Collider continuo fermato da una tile lungo il movimento: aggiorna il tempo di impatto
+	 * e pubblica come contatti le tile che l'hanno fermato (a filo con esse la posizione
+	 * finale non le tocca). Restituisce true se sono stati pubblicati contatti.
+	 */
+	private boolean recordTileImpact(Entity entity, ColliderComponent col, float previous, float current,
+	                                 float corrected, boolean publishContacts) {
+	    float t = Math.max(0f, Math.min(1f, (corrected - previous) / (current - previous)));
+	    col.setTimeOfImpact(Math.min(col.getTimeOfImpact(), t));
+	    TileContacts contacts = tileSweep.getContacts();
+	    if (!publishContacts || contacts.isEmpty()) {
+	        return false;
+	    }
+	    for (int i = 0; i < contacts.size(); i++) {
+	        engine.getEventBus().publishTileContact(entity, contacts.getCol(i), contacts.getRow(i));
+	    }
+	    return true;
+	}
+
 	private float resolveHorizontalCollision(MotionComponent pos, ColliderComponent col, CollisionMapComponent map,
 	                                         float prevX, float curX, float baseY) {
 	    // If no horizontal movement
@@ -157,14 +298,16 @@ public class CollisionSystem extends BaseSystem {
 	        return curX;
 	    }
 
-	    Rectangle box = col.getBoundingBox();
-	    // Check if the attempted position is free
-	    if (canMoveInRect((int)(curX + box.x), (int)(baseY + box.y), box.width, box.height, map)) {
+	    // Check if the attempted position is free. A continuous collider is swept anyway,
+	    // unless it starts inside a solid tile (then it behaves as a normal one)
+	    if (tileSweep.isFree((int)(curX + col.getBoxX()), (int)(baseY + col.getBoxY()), col.getBoxWidth(), col.getBoxHeight())
+	            && (!col.isContinuous() || !tileSweep.isFree((int)(prevX + col.getBoxX()), (int)(baseY + col.getBoxY()), col.getBoxWidth(), col.getBoxHeight()))) {
 	        return curX; // No collision
 	    }
 
-	    // Collision detected: binary search for the closest free position
-	    float correctedX = binarySearchFreePositionX(prevX, curX, baseY, box, map);
+	    // Collision detected: the box stops against the first solid column on its way
+	    float correctedX = tileSweep.sweepX(prevX, curX, baseY, col.getBoxX(), col.getBoxY(), col.getBoxWidth(), col.getBoxHeight());
+	    markContacts(map);
 	    return correctedX;
 	    
 	}
@@ -176,212 +319,191 @@ public class CollisionSystem extends BaseSystem {
 	        return curY;
 	    }
 
-	    Rectangle box = col.getBoundingBox();
-	    // Check if the attempted position is free
-	    if (canMoveInRect((int)(baseX + box.x), (int)(curY + box.y), box.width, box.height, map)) {
+	    // Check if the attempted position is free. A continuous collider is swept anyway,
+	    // unless it starts inside a solid tile (then it behaves as a normal one)
+	    if (tileSweep.isFree((int)(baseX + col.getBoxX()), (int)(curY + col.getBoxY()), col.getBoxWidth(), col.getBoxHeight())
+	            && (!col.isContinuous() || !tileSweep.isFree((int)(baseX + col.getBoxX()), (int)(prevY + col.getBoxY()), col.getBoxWidth(), col.getBoxHeight()))) {
 	        return curY; // No collision
 	    }
 
-	    // Collision detected: binary search for the closest free position
-	    float correctedY = binarySearchFreePositionY(baseX, prevY, curY, box, map);
+	    // Collision detected: the box stops against the first solid row on its way
+	    float correctedY = tileSweep.sweepY(baseX, prevY, curY, col.getBoxX(), col.getBoxY(), col.getBoxWidth(), col.getBoxHeight());
+	    markContacts(map);
 	    return correctedY;
 	}
 
-    public Set<Node> canMove(int boxX, int boxY, int width, int height, CollisionMapComponent map) {
-        // Pulisci il set di collisioni prima di ogni utilizzo
-        collisions.clear();
-
-        if (boxX < -tolerance || boxY < -tolerance) return collisions; // Nessuna collisione
+    /**
+     * Popola il buffer delle tile con cui si verifica una collisione (vedi getTileContacts).
+     */
+    public boolean findCollisionsInRect(int boxX, int boxY, int width, int height, CollisionMapComponent map) {
+        tileSweep.setMap(map.getSolidityGrid(), map.getTileWidth(), map.getTileHeight());
+        tileSweep.getContacts().clear();
+        if (boxX < -tolerance || boxY < -tolerance) return true;
         int mapWidthPx = map.getMapWidth() * map.getTileWidth();
         int mapHeightPx = map.getMapHeight() * map.getTileHeight();
-        if (boxX + width > mapWidthPx + tolerance || boxY + height > mapHeightPx + tolerance) return collisions;
-
-        int tileW = map.getTileWidth();
-        int tileH = map.getTileHeight();
-
-        int leftCol = (boxX + tolerance) / tileW;
-        int rightCol = (boxX + width - tolerance) / tileW;
-        int topRow = (boxY + tolerance) / tileH;
-        int bottomRow = (boxY + height - tolerance) / tileH;
-
-        for (int row = topRow; row <= bottomRow; row++) {
-            for (int col = leftCol; col <= rightCol; col++) {
-                if (map.isSolidTile(row, col)) {
-                    Rectangle tileRect = map.getSolidBox(row, col);
-                    Rectangle boxRect = new Rectangle(boxX, boxY, width, height);
-                    if (boxRect.intersects(tileRect)) {
-                        collisions.add(new Node(col, row)); // Aggiungi nodo in collisione
-                        if (engine.isDebug()) {
-                            map.setCollidedTile(row, col);
-                        }
-                    }
-                }
+        if (boxX + width > mapWidthPx + tolerance || boxY + height > mapHeightPx + tolerance) return true;
+
+        boolean found = tileSweep.collectOverlaps(boxX, boxY, width, height);
+        markContacts(map);
+        return found;
+    }
+
+    /**
+     * Solid tiles overlapped by the box, as Nodes (col, row); empty if the box is outside the map.
+     *
+     * @deprecated use findCollisionsInRect() and getTileContacts(), which give the same
+     *             tiles without allocating a Node for each of them.
+     */
+    @Deprecated
+    public Set<Node> canMove(int boxX, int boxY, int width, int height, CollisionMapComponent map) {
+        Set<Node> collisions = new HashSet<>();
+        if (findCollisionsInRect(boxX, boxY, width, height, map)) {
+            TileContacts contacts = getTileContacts();
+            for (int i = 0; i < contacts.size(); i++) {
+                collisions.add(new Node(contacts.getCol(i), contacts.getRow(i)));
             }
         }
-
         return collisions;
     }
 
     /**
-     * Popola il set di tile con cui si verifica una collisione.
+     * Tiles found by the last findCollisionsInRect (or by the last tile collision
+     * resolution); the buffer is reused by the next query.
      */
-    public boolean findCollisionsInRect(int boxX, int boxY, int width, int height, CollisionMapComponent map) {
-		boolean found = false;
-        collisions.clear(); // Svuota il set prima di iniziare
-
+    public TileContacts getTileContacts() {
+        return tileSweep.getContacts();
+    }
+    
+    /**
+     * Come findCollisionsInRect: se entity non è null ogni tile solida toccata viene
+     * pubblicata come evento TILE_CONTACT.
+     */
+    private boolean touchesSolidTiles(Entity entity, int boxX, int boxY, int width, int height, CollisionMapComponent map) {
         if (boxX < -tolerance || boxY < -tolerance) return true;
         int mapWidthPx = map.getMapWidth() * map.getTileWidth();
         int mapHeightPx = map.getMapHeight() * map.getTileHeight();
         if (boxX + width > mapWidthPx + tolerance || boxY + height > mapHeightPx + tolerance) return true;
 
-        int tileW = map.getTileWidth();
-        int tileH = map.getTileHeight();
-
-        int leftCol = (boxX + tolerance) / tileW;
-        int rightCol = (boxX + width - tolerance) / tileW;
-        int topRow = (boxY + tolerance) / tileH;
-        int bottomRow = (boxY + height - tolerance) / tileH;
-
-        for (int row = topRow; row <= bottomRow; row++) {
-            for (int col = leftCol; col <= rightCol; col++) {
-                if (map.isSolidTile(row, col)) {
-                    Rectangle tileRect = map.getSolidBox(row, col);
-                    Rectangle boxRect = new Rectangle(boxX, boxY, width, height);
-                    if (boxRect.intersects(tileRect)) {
-                    	found = true;
-                        collisions.add(new Node(col, row));
-                        if (engine.isDebug()) {
-                            map.setCollidedTile(row, col);
-                        }
-                    }
-                }
+        if (!tileSweep.collectOverlaps(boxX, boxY, width, height)) {
+            return false;
+        }
+        if (entity != null) {
+            TileContacts contacts = tileSweep.getContacts();
+            for (int i = 0; i < contacts.size(); i++) {
+                engine.getEventBus().publishTileContact(entity, contacts.getCol(i), contacts.getRow(i));
             }
         }
-        return found;
+        markContacts(map);
+        return true;
     }
-    
-    private boolean canMoveInRect(int boxX, int boxY, int width, int height, CollisionMapComponent map) {
-		boolean canMove = true;
-
-	    if (boxX < -tolerance || boxY < -tolerance) return false;
-	    int mapWidthPx = map.getMapWidth() * map.getTileWidth();
-	    int mapHeightPx = map.getMapHeight() * map.getTileHeight();
-	    if (boxX + width > mapWidthPx + tolerance || boxY + height > mapHeightPx + tolerance) return false;
-
-	    int tileW = map.getTileWidth();
-	    int tileH = map.getTileHeight();
-
-	    int leftCol = (boxX + tolerance) / tileW;
-	    int rightCol = (boxX + width - tolerance) / tileW;
-	    int topRow = (boxY + tolerance) / tileH;
-	    int bottomRow = (boxY + height - tolerance) / tileH;
-        Rectangle boxRect = new Rectangle(boxX, boxY, width, height);
-
-	    for (int row = topRow; row <= bottomRow; row++) {
-	        for (int col = leftCol; col <= rightCol; col++) {
-	            if (map.isSolidTile(row, col)) {
-	                Rectangle tileRect = map.getSolidBox(row, col);
-	                if (boxRect.intersects(tileRect)) {
-	                    canMove = false;
-	                    if (engine.isDebug()) 
-		                    map.setCollidedTile(row, col);
-	                    else
-	                    	return false;
-	                }
-	            }
-	        }
-	    }
-
-	    return canMove;
-	}
-	
-	private float binarySearchFreePositionX(float startX, float endX, float fixedY, Rectangle box, CollisionMapComponent map) {
-	    float low = startX;
-	    float high = endX;
-	    float lastFreePosition = startX;
-
-	    for (int i = 0; i < 20; i++) {
-	        float mid = (low + high) / 2f;
-
-	        int boxX = (int) (mid + box.x);
-	        int boxY = (int) (fixedY + box.y);
-
-	        if (canMoveInRect(boxX, boxY, box.width, box.height, map)) {
-	            lastFreePosition = mid;
-	            if (endX > startX) low = mid;
-	            else high = mid;
-	        } else {
-	            if (endX > startX) high = mid;
-	            else low = mid;
-	        }
 
-	        // Utilizza il delta più grande per la convergenza
-	        if (Math.abs(high - low) < 1.0f) {
-	            break;
-	        }
+	/**
+	 * In debug segna le tile dell'ultima query, per evidenziarle a schermo.
+	 */
+	private void markContacts(CollisionMapComponent map) {
+	    if (!engine.isDebug()) {
+	        return;
 	    }
-
-	    return canMoveInRect((int)(lastFreePosition + box.x), (int)(fixedY + box.y), box.width, box.height, map) 
-	        ? lastFreePosition 
-	        : startX;
-	}
-	
-	private float binarySearchFreePositionY(float fixedX, float startY, float endY, Rectangle box, CollisionMapComponent map) {
-	    float low = startY;
-	    float high = endY;
-	    float lastFreePosition = startY;
-
-	    for (int i = 0; i < 20; i++) {
-	        float mid = (low + high) / 2f;
-
-	        int boxX = (int) (fixedX + box.x);
-	        int boxY = (int) (mid + box.y);
-
-	        if (canMoveInRect(boxX, boxY, box.width, box.height, map)) {
-	            lastFreePosition = mid;
-	            if (endY > startY) low = mid;
-	            else high = mid;
-	        } else {
-	            if (endY > startY) high = mid;
-	            else low = mid;
-	        }
-
-	        // Utilizza il delta più grande per la convergenza
-	        if (Math.abs(high - low) < 1.0f) {
-	            break;
-	        }
+	    TileContacts contacts = tileSweep.getContacts();
+	    for (int i = 0; i < contacts.size(); i++) {
+	        map.setCollidedTile(contacts.getRow(i), contacts.getCol(i));
 	    }
-
-	    return canMoveInRect((int)(fixedX + box.x), (int)(lastFreePosition + box.y), box.width, box.height, map) 
-	        ? lastFreePosition 
-	        : startY;
 	}
-	
 	/*
 	 * Collision between entities
 	 */
 
-    private void handleCollision(Entity a, Entity b) {
-    	MotionComponent posA = a.getComponent(MotionComponent.class);
-        ColliderComponent colA = a.getComponent(ColliderComponent.class);
-        MotionComponent posB = b.getComponent(MotionComponent.class);
-        ColliderComponent colB = b.getComponent(ColliderComponent.class);
-
-        if (posA == null || colA == null || posB == null || colB == null) return;
+    /**
+     * Coppia con almeno un collider continuo: se le entità si sono incontrate durante il
+     * movimento, quella continua viene riportata al punto di impatto (anche se alla fine del
+     * tick le ha già attraversate) e la collisione viene pubblicata. Anche due entità a filo
+     * che si vengono incontro si urtano (al tempo 0). Le coppie sovrapposte già all'inizio del
+     * movimento (e le piattaforme) passano alla risoluzione normale.
+     *
+     * L'altra entità viene considerata ferma nella sua posizione di fine tick, e se entrambe
+     * sono continue viene corretta una sola delle due (la prima che ha un impatto).
+     * Restituisce true se c'è stato un impatto.
+     */
+    private boolean handleContinuousCollision(int first, int second) {
+        if (bodyColliders[first].isOneWayPlatform() || bodyColliders[second].isOneWayPlatform()) {
+            return false;
+        }
+        if (!sweepToImpact(first, second) && !sweepToImpact(second, first)) {
+            return false;
+        }
+    	if (engine.isDebug()) {
+    		bodyColliders[first].collides();
+    		bodyColliders[second].collides();
+    	}
+        engine.getEventBus().publishCollision(bodyEntities[first], bodyEntities[second]);
+        return true;
+    }
 
-        float ax = posA.getX() + colA.getBoundingBox().x;
-        float ay = posA.getY() + colA.getBoundingBox().y;
-        float aw = colA.getBoundingBox().width;
-        float ah = colA.getBoundingBox().height;
+    /**
+     * Sweep del box continuo di moving dalla posizione precedente a quella attuale contro il
+     * box di fine tick di other; in caso di impatto sposta moving nel punto di contatto, a filo
+     * con other, e ne azzera la velocità verso other, così al tick successivo non lo attraversa.
+     */
+    private boolean sweepToImpact(int moving, int other) {
+        ColliderComponent col = bodyColliders[moving];
+        if (!col.isContinuous()) {
+            return false;
+        }
+        MotionComponent pos = bodyMotions[moving];
+        MotionComponent otherPos = bodyMotions[other];
+        ColliderComponent otherCol = bodyColliders[other];
+        float dx = pos.getX() - pos.getOldX();
+        float dy = pos.getY() - pos.getOldY();
+        float otherX = otherPos.getX() + otherCol.getBoxX();
+        float otherY = otherPos.getY() + otherCol.getBoxY();
+        float t = sweptBox.timeOfImpact(pos.getOldX() + col.getBoxX(), pos.getOldY() + col.getBoxY(),
+                col.getBoxWidth(), col.getBoxHeight(), dx, dy,
+                otherX, otherY, otherCol.getBoxWidth(), otherCol.getBoxHeight());
+        if (t == SweptBox.NO_IMPACT) {
+            return false; // Nessun impatto, o sovrapposti già alla partenza
+        }
+        float x = pos.getOldX() + dx * t;
+        float y = pos.getOldY() + dy * t;
+        // Sull'asse dell'impatto: esattamente a filo e nessuna velocità verso l'altra entità
+        int normalX = sweptBox.getNormalX();
+        int normalY = sweptBox.getNormalY();
+        if (normalX != 0) {
+            x = (normalX < 0 ? otherX - col.getBoxWidth() : otherX + otherCol.getBoxWidth()) - col.getBoxX();
+            if (pos.getVx() * normalX < 0) {
+                pos.setVx(0);
+            }
+        }
+        if (normalY != 0) {
+            y = (normalY < 0 ? otherY - col.getBoxHeight() : otherY + otherCol.getBoxHeight()) - col.getBoxY();
+            if (pos.getVy() * normalY < 0) {
+                pos.setVy(0);
+            }
+        }
+        pos.setX(x);
+        pos.setY(y);
+        col.setTimeOfImpact(Math.min(col.getTimeOfImpact(), t));
+        return true;
+    }
 
-        float bx = posB.getX() + colB.getBoundingBox().x;
-        float by = posB.getY() + colB.getBoundingBox().y;
-        float bw = colB.getBoundingBox().width;
-        float bh = colB.getBoundingBox().height;
+    /**
+     * Test esatto e risoluzione di una coppia candidata, con le posizioni correnti
+     * (già corrette dalle coppie precedenti). Restituisce true se le entità si sovrappongono.
+     */
+    private boolean handleCollision(Entity a, Entity b, MotionComponent posA, ColliderComponent colA,
+                                    MotionComponent posB, ColliderComponent colB) {
+        float ax = posA.getX() + colA.getBoxX();
+        float ay = posA.getY() + colA.getBoxY();
+        float aw = colA.getBoxWidth();
+        float ah = colA.getBoxHeight();
+
+        float bx = posB.getX() + colB.getBoxX();
+        float by = posB.getY() + colB.getBoxY();
+        float bw = colB.getBoxWidth();
+        float bh = colB.getBoxHeight();
 
         // Check overlap
         if (ax >= bx + bw || ax + aw <= bx || ay >= by + bh || ay + ah <= by) {
-            return; // no collision
+            return false; // no collision
         }
         
     	if (engine.isDebug()) {
@@ -389,18 +511,8 @@ public class CollisionSystem extends BaseSystem {
             colB.collides();
     	}
 
-        // Controlla se l'entità ha l'InteractableComponent
-        InteractionComponent interactableA = a.getComponent(InteractionComponent.class);
-        InteractionComponent interactableB = b.getComponent(InteractionComponent.class);
-
-        // Aggiunge le entità coinvolte al rispettivo Set
-        if (interactableA != null) {
-            interactableA.getInteractionSet().add(b);
-        }
-
-        if (interactableB != null) {
-            interactableB.getInteractionSet().add(a);
-        }
+        // Notifica la collisione: l'InteractionSystem la consegnerà alle entità interagibili
+        engine.getEventBus().publishCollision(a, b);
 
         // Compute overlap
         float overlapX = Math.min(ax + aw, bx + bw) - Math.max(ax, bx);
@@ -409,9 +521,9 @@ public class CollisionSystem extends BaseSystem {
 
         // One-way platform check
         if (colA.isOneWayPlatform() && shouldPassThrough(a, b, ax, ay, aw, ah, bx, by, bw, bh, overlapX, overlapY, resolveOnX))
-            return;
+            return true;
         if (colB.isOneWayPlatform() && shouldPassThrough(b, a, bx, by, bw, bh, ax, ay, aw, ah, overlapX, overlapY, resolveOnX))
-            return;
+            return true;
 
         CollisionBehavior behaviorA = colA.getBehavior();
         CollisionBehavior behaviorB = colB.getBehavior();
@@ -421,13 +533,13 @@ public class CollisionSystem extends BaseSystem {
 
         if (behaviorA == CollisionBehavior.STATIC && behaviorB == CollisionBehavior.STATIC) {
             // Both static - no move
-            return;
+            return true;
         } else if (behaviorA == CollisionBehavior.STATIC && behaviorB == CollisionBehavior.DYNAMIC) {
             resolveCollisionSingle(posA, posB, overlapX, overlapY, resolveOnX, behaviorA, behaviorB, ax, ay, aw, ah, bx, by, bw, bh);
-            applyRestitution(a, b, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
+            applyRestitution(posA, colA, posB, colB, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
         } else if (behaviorB == CollisionBehavior.STATIC && behaviorA == CollisionBehavior.DYNAMIC) {
             resolveCollisionSingle(posB, posA, overlapX, overlapY, resolveOnX, behaviorB, behaviorA, bx, by, bw, bh, ax, ay, aw, ah);
-            applyRestitution(a, b, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
+            applyRestitution(posA, colA, posB, colB, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
         } else {
             // Both dynamic
             float totalMass = massA + massB;
@@ -435,8 +547,9 @@ public class CollisionSystem extends BaseSystem {
             float ratioB = (massA / totalMass);
 
             resolveCollisionDouble(posA, posB, overlapX, overlapY, resolveOnX, ratioA, ratioB, ax, ay, aw, ah, bx, by, bw, bh);
-            applyRestitution(a, b, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
+            applyRestitution(posA, colA, posB, colB, resolveOnX, ax, ay, aw, ah, bx, by, bw, bh);
         }
+        return true;
     }
 
     private void resolveCollisionSingle(MotionComponent posStaticSide, MotionComponent posDynamicSide,
@@ -510,14 +623,10 @@ public class CollisionSystem extends BaseSystem {
         }
     }
 
-    private void applyRestitution(Entity a, Entity b, boolean resolveOnX,
+    private void applyRestitution(MotionComponent velA, ColliderComponent colA,
+                                  MotionComponent velB, ColliderComponent colB, boolean resolveOnX,
                                   float ax, float ay, float aw, float ah,
                                   float bx, float by, float bw, float bh) {
-    	MotionComponent velA = a.getComponent(MotionComponent.class);
-    	MotionComponent velB = b.getComponent(MotionComponent.class);
-        ColliderComponent colA = a.getComponent(ColliderComponent.class);
-        ColliderComponent colB = b.getComponent(ColliderComponent.class);
-
         if (velA == null && velB == null) return;
 
         boolean aStatic = (colA.getBehavior() == CollisionBehavior.STATIC);
@@ -621,7 +730,7 @@ public class CollisionSystem extends BaseSystem {
         return isOnFloor;
     }
     
-    private void checkAndSetOnGround(Entity e, List<Entity> allEntities) {
+    private void checkAndSetOnGround(Entity e) {
         MotionComponent pos = e.getComponent(MotionComponent.class);
         ColliderComponent col = e.getComponent(ColliderComponent.class);
         GravityComponent grav = e.getComponent(GravityComponent.class);
@@ -630,7 +739,7 @@ public class CollisionSystem extends BaseSystem {
         
         if (pos.getVy()<0) return;
 
-        float feetY = pos.getY() + col.getBoundingBox().y + col.getBoundingBox().height;
+        float feetY = pos.getY() + col.getBoxY() + col.getBoxHeight();
         float checkY = feetY + 2; // check slightly below feet
         boolean onFloor = false;
 
@@ -638,28 +747,26 @@ public class CollisionSystem extends BaseSystem {
 	    if (map != null)
 	    	onFloor = isOnFloor(pos, col, map);
 
-	    for (Entity other : allEntities) {
-            if (other == e) continue;
-            ColliderComponent oCol = other.getComponent(ColliderComponent.class);
-            MotionComponent oPos = other.getComponent(MotionComponent.class);
-            if (oCol == null || oPos == null) continue;
-
-            if (oCol.getBehavior() == CollisionBehavior.STATIC) {
-                float ox = oPos.getX() + oCol.getBoundingBox().x;
-                float oy = oPos.getY() + oCol.getBoundingBox().y;
-                float ow = oCol.getBoundingBox().width;
-//                float oh = oCol.getBoundingBox().height;
-
-                // Check horizontal overlap
-                if (pos.getX() + col.getBoundingBox().width > ox && pos.getX() < ox + ow) {
-                    // Check vertical position
-                    float platformTopY = oy;
-                    if (platformTopY >= feetY && platformTopY <= checkY) {
-                        // For one-way platform, must come from above
-                        if (!oCol.isOneWayPlatform() || feetY <= platformTopY) {
-                            onFloor = true;
-                            break;
-                        }
+	    // Solo le entità STATIC possono fare da piattaforma
+	    for (int k = 0; k < staticCount; k++) {
+	        int other = staticBodies[k];
+            if (bodyEntities[other] == e) continue;
+            ColliderComponent oCol = bodyColliders[other];
+            MotionComponent oPos = bodyMotions[other];
+
+            float ox = oPos.getX() + oCol.getBoxX();
+            float oy = oPos.getY() + oCol.getBoxY();
+            float ow = oCol.getBoxWidth();
+
+            // Check horizontal overlap
+            if (pos.getX() + col.getBoxWidth() > ox && pos.getX() < ox + ow) {
+                // Check vertical position
+                float platformTopY = oy;
+                if (platformTopY >= feetY && platformTopY <= checkY) {
+                    // For one-way platform, must come from above
+                    if (!oCol.isOneWayPlatform() || feetY <= platformTopY) {
+                        onFloor = true;
+                        break;
                     }
                 }
             }
@@ -9,6 +9,7 @@ package engine.systems;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -17,6 +18,8 @@ import engine.Engine;
 import enums.EngineState;
 import helpers.Logger;
 import input.ActionStateManager;
+import input.InputRecorder;
+import input.InputReplay;
 import input.KeyboardInputHandler;
 
 public class InputSystem extends BaseSystem {
@@ -54,12 +57,23 @@ public class InputSystem extends BaseSystem {
         // Reset consumed actions for the current frame
         ActionStateManager.resetConsumedActions();
 
-        // Gather pressed and released keys
-        Set<Integer> pressedKeys = inputHandler.getPressedKeys();
-        Set<Integer> releasedKeys = inputHandler.getReleasedKeys();
+        // Build action states from the replay, if any, or from the keyboard
+        InputReplay replay = engine.getInputReplay();
+        Map<String, Boolean> actionStates;
+        if (replay != null) {
+            actionStates = buildReplayStates(replay);
+        } else {
+            // Gather pressed and released keys
+            Set<Integer> pressedKeys = inputHandler.getPressedKeys();
+            Set<Integer> releasedKeys = inputHandler.getReleasedKeys();
+            actionStates = buildActionStates(pressedKeys, releasedKeys);
+        }
 
-        // Build action states from input
-        Map<String, Boolean> actionStates = buildActionStates(pressedKeys, releasedKeys);
+        // Record the actions of this tick (after debouncing, so the replay needs no key state)
+        InputRecorder recorder = engine.getInputRecorder();
+        if (recorder != null) {
+            recorder.recordTick(actionStates, deltaTime);
+        }
 
         // Update global ActionStateManager
         for (Map.Entry<String, Boolean> entry : actionStates.entrySet()) {
@@ -112,6 +126,23 @@ public class InputSystem extends BaseSystem {
         return newStates;
     }
 
+    /**
+     * Stato delle azioni letto dal tick successivo della registrazione: le azioni associate
+     * ma assenti dalla registrazione restano inattive.
+     */
+    private Map<String, Boolean> buildReplayStates(InputReplay replay) {
+        Map<String, Boolean> newStates = new HashMap<>();
+        for (String action : keyBindings.keySet()) {
+            newStates.put(action, false);
+        }
+        long bits = replay.nextTick();
+        List<String> actions = replay.getActions();
+        for (int i = 0; i < actions.size(); i++) {
+            newStates.put(actions.get(i), (bits & (1L << i)) != 0);
+        }
+        return newStates;
+    }
+
     private void executeCustomKeyActions(float deltaTime) {
         for (var entry : customKeyActions.entrySet()) {
             String action = entry.getKey();
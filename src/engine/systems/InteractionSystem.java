@@ -16,16 +16,27 @@ import engine.components.KeyInputComponent;
 import engine.components.MotionComponent;
 import engine.components.ProximityComponent;
 import engine.Entity;
+import engine.EntityQuery;
+import engine.EventBus;
 import enums.EngineState;
+import enums.EventType;
 import input.ActionStateManager;
-import pathfinder.Node;
 import ui.UIDialogue;
-import java.util.Set;
+import java.util.List;
 
 public class InteractionSystem extends BaseSystem {
+    private final EntityQuery proximityTriggers;
+    private final EntityQuery bodies;
 
     public InteractionSystem(Engine engine) {
         super(engine, 7); // System priority
+        this.proximityTriggers = engine.query(ProximityComponent.class);
+        this.bodies = engine.query(MotionComponent.class, ColliderComponent.class);
+        // Collisioni e contatti con le tile arrivano in blocco una volta per tick:
+        // vengono visitate solo le entità che hanno avuto eventi
+        EventBus eventBus = engine.getEventBus();
+        eventBus.subscribe(EventType.COLLISION, this::handleCollisions);
+        eventBus.subscribe(EventType.TILE_CONTACT, this::handleTileContacts);
     }
 
     @Override
@@ -42,52 +53,53 @@ public class InteractionSystem extends BaseSystem {
 
    @Override
     public void update(float deltaTime) {
-        // Process entities with InteractableComponent
-        engine.accessEntitiesWithComponent(InteractionComponent.class, interactableEntities -> {
-            for (Entity entity : interactableEntities) {
-            	handleInteraction(entity, deltaTime);
-            }
-        });
-
-        engine.accessEntities(entities -> {
-            int size = entities.size();
-            for (int i = 0; i < size; i++) {
-                Entity e1 = entities.get(i);
+        // Only entities with a position and a bounding box can enter a proximity range
+        engine.accessEntities(proximityTriggers, triggers -> {
+            List<Entity> candidates = bodies.getEntities();
+            for (int i = 0; i < triggers.size(); i++) {
+                Entity e1 = triggers.get(i);
                 ProximityComponent proximity = e1.getComponent(ProximityComponent.class);
-                if (proximity != null) {
-                    for (int j = 0; j < size; j++) { // Confronta tutte le entità
-                        if (i != j && proximity.canActivate(entities.get(j))) {
-                            updateEntityPair(e1, entities.get(j), deltaTime);
-                        }
+                for (int j = 0; j < candidates.size(); j++) {
+                    Entity e2 = candidates.get(j);
+                    if (e1 != e2 && proximity.canActivate(e2)) {
+                        updateEntityPair(e1, e2, deltaTime);
                     }
                 }
             }
         });
     }
 
-    private void handleInteraction(Entity entity, float deltaTime) {
-        InteractionComponent interactable = entity.getComponent(InteractionComponent.class);
-        if (interactable == null) {
-            return; // L'entità non è interagibile
+    private void handleCollisions(EventBus.Batch events) {
+        for (int i = 0; i < events.size(); i++) {
+            Entity a = events.getSource(i);
+            Entity b = events.getTarget(i);
+            interact(a, b);
+            interact(b, a);
         }
+    }
 
-        Set<Entity> entityInteractionSet = interactable.getInteractionSet();
-
-        // Itera sulle entità nella lista di interazione
-        for (Entity interactor : entityInteractionSet) { 
-            interactable.entityInteract(interactor); // Gestisce l'interazione
+    private void interact(Entity entity, Entity other) {
+        InteractionComponent interactable = entity.getComponent(InteractionComponent.class);
+        if (interactable != null) {
+            interactable.entityInteract(other); // Gestisce l'interazione
         }
+    }
 
-        // Svuota la lista dopo l'elaborazione
-        interactable.clearInteractions();
-
-        Set<Node> tileInteractionSet = interactable.getCollisionTiles();
-        if (!tileInteractionSet.isEmpty()) {
-        	interactable.tileInteract(tileInteractionSet);
-            // Svuota la lista dopo l'elaborazione
-            interactable.clearCollisionTiles();
+    private void handleTileContacts(EventBus.Batch events) {
+        for (int i = 0; i < events.size(); i++) {
+            InteractionComponent interactable = events.getSource(i).getComponent(InteractionComponent.class);
+            if (interactable != null) {
+                interactable.tileInteract(events.getX(i), events.getY(i));
+            }
+        }
+        // Le callback che vogliono tutte le tile del tick insieme le ricevono ora
+        for (int i = 0; i < events.size(); i++) {
+            InteractionComponent interactable = events.getSource(i).getComponent(InteractionComponent.class);
+            if (interactable != null) {
+                interactable.endTileInteractions();
+            }
         }
-	}
+    }
 
     protected void updateEntityPair(Entity entityA, Entity entityB, float deltaTime) {
     	MotionComponent aPosition = entityA.getComponent(MotionComponent.class);
@@ -105,18 +117,21 @@ public class InteractionSystem extends BaseSystem {
             Vector2 bCenter = calculateBoundingBoxCenter(bPosition, bCollider);
 
             // Check if entityB is within interaction range of entityA
+            boolean wasInRange = trigger.isTriggeredBy(entityB);
             if (aCenter.distanceSquared(bCenter) <= interactionRange * interactionRange) {
-                // Add entityB as a triggering entity
-                trigger.addTriggeringEntity(entityB);
-            } else {
+                if (!wasInRange) {
+                    // Add entityB as a triggering entity
+                    trigger.addTriggeringEntity(entityB);
+                    engine.getEventBus().publishProximityEnter(entityA, entityB);
+                }
+            } else if (wasInRange) {
                 // Remove entityB from the triggering set
                 trigger.removeTriggeringEntity(entityB);
+                engine.getEventBus().publishProximityExit(entityA, entityB);
             }
-            
-            Set<Entity> triggeringEntities = trigger.getTriggeringEntities();
 
             // Handle notification visibility based on triggering state
-            if (!triggeringEntities.isEmpty()) {
+            if (trigger.isTriggered()) {
                 trigger.setTriggered(true);
                 // Call handleDialogue if the entity has a DialogueComponent
                 DialogueComponent dialogue = entityA.getComponent(DialogueComponent.class);
@@ -23,6 +23,10 @@ public class MotionSystem extends BaseSystem {
 
     public MotionSystem(Engine engine) {
         super(engine, 2); // Priorità 2
+        // Componenti usati, per l'esecuzione in parallelo con gli altri sistemi (le callback
+        // del gioco vengono eseguite dopo il sistema, vedi Engine.runOnGameThread)
+        reads(KeyInputComponent.class, ThrowProjectileComponent.class);
+        writes(MotionComponent.class, GravityComponent.class, AttackComponent.class, NPCComponent.class);
     }
 
     @Override
@@ -22,6 +22,9 @@ public class ProjectileSystem extends BaseSystem {
 
     public ProjectileSystem(Engine engine) {
         super(engine, 6); // Priorità del sistema
+        // Componenti usati, per l'esecuzione in parallelo con gli altri sistemi
+        reads(SpriteComponent.class);
+        writes(ThrowProjectileComponent.class, MotionComponent.class, ColliderComponent.class);
     }
 
     @Override
@@ -57,8 +60,8 @@ public class ProjectileSystem extends BaseSystem {
 
         // Configura e attiva il proiettile durante il lancio
         if (throwComp.isThrowing() && !throwComp.isProjectileLaunched()) {
-            Entity projectile = throwComp.getProjectile();
-            if (projectile != null && !projectile.isAlive()) {
+            Entity projectile = throwComp.acquireProjectile();
+            if (projectile != null) {
             	throwProjectile(thrower, projectile);
                 throwComp.setProjectileLaunched(true); // Imposta il proiettile come lanciato
             }
@@ -107,6 +110,10 @@ public class ProjectileSystem extends BaseSystem {
 		}
 		projectileMotion.setX(throwerMotion.getX() + dx);
 		projectileMotion.setY(throwerMotion.getY() + dy);
+		projectileMotion.storePreviousPosition(); // Nessuna interpolazione dalla posizione precedente al lancio
+		// Né collisioni continue lungo il tragitto dalla posizione in cui era stato lasciato il proiettile
+		projectileMotion.setOldX(projectileMotion.getX());
+		projectileMotion.setOldY(projectileMotion.getY());
 		projectile.setAlive(true);
 		this.engine.addEntity(projectile);
 	}
@@ -0,0 +1,184 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package engine.systems;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import ui.UIDrawList;
+import world.AtlasRegion;
+
+/**
+ * Fotografia di ciò che va disegnato in un frame, preparata dal thread di gioco
+ * e consumata dal thread di rendering tramite un TripleBuffer.
+ * 
+ * Contiene solo dati copiati (posizioni, layer, offset della camera, comandi di disegno
+ * dell'UI) e riferimenti a immagini: il renderer non deve quindi accedere alle entità
+ * o agli elementi UI né prendere i lock dell'engine. Gli array vengono riutilizzati da un frame all'altro.
+ * 
+ * Per ogni sprite e per la camera vengono salvate anche le posizioni del frame precedente,
+ * così il renderer può interpolare quando FPS e UPS non coincidono.
+ */
+public class RenderSnapshot {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private BufferedImage[] images = new BufferedImage[INITIAL_CAPACITY];
+    private AtlasRegion[] regions = new AtlasRegion[INITIAL_CAPACITY]; // In alternativa all'immagine
+    private float[] xs = new float[INITIAL_CAPACITY];
+    private float[] ys = new float[INITIAL_CAPACITY];
+    private float[] previousXs = new float[INITIAL_CAPACITY];
+    private float[] previousYs = new float[INITIAL_CAPACITY];
+    private float[] scrollXs = new float[INITIAL_CAPACITY]; // Quanto segue la camera: 1 = mondo, 0 = schermo
+    private float[] scrollYs = new float[INITIAL_CAPACITY];
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private int spriteCount;
+
+    private final UIDrawList ui = new UIDrawList();
+
+    private int xOffset;
+    private int yOffset;
+    private int previousXOffset;
+    private int previousYOffset;
+
+    /**
+     * Svuota la snapshot prima di riempirla per un nuovo frame.
+     */
+    public void clear(int xOffset, int yOffset) {
+        clear(xOffset, yOffset, xOffset, yOffset);
+    }
+
+    public void clear(int xOffset, int yOffset, int previousXOffset, int previousYOffset) {
+        Arrays.fill(images, 0, spriteCount, null);
+        Arrays.fill(regions, 0, spriteCount, null);
+        ui.clear();
+        spriteCount = 0;
+        this.xOffset = xOffset;
+        this.yOffset = yOffset;
+        this.previousXOffset = previousXOffset;
+        this.previousYOffset = previousYOffset;
+    }
+
+    /**
+     * Adds an image at world coordinates; it will be shifted by the camera offsets.
+     */
+    public void addSprite(BufferedImage image, float x, float y, int layer) {
+        add(image, x, y, x, y, 1f, 1f, layer);
+    }
+
+    /**
+     * Adds an image at world coordinates that moved from (previousX, previousY) since the last frame.
+     */
+    public void addSprite(BufferedImage image, float x, float y, float previousX, float previousY, int layer) {
+        add(image, x, y, previousX, previousY, 1f, 1f, layer);
+    }
+
+    /**
+     * Adds a frame of a texture atlas at world coordinates that moved from (previousX, previousY)
+     * since the last frame.
+     */
+    public void addSprite(AtlasRegion region, float x, float y, float previousX, float previousY, int layer) {
+        if (region == null) {
+            return;
+        }
+        add(region.getPage(), x, y, previousX, previousY, 1f, 1f, layer);
+        if (region.getPage() != null) {
+            regions[spriteCount - 1] = region;
+        }
+    }
+
+    /**
+     * Adds an image that follows the camera by the given factors (0 = fixed on screen,
+     * 1 = world position, in between = parallax). Its position is expressed so that
+     * x - xOffset * scrollX is the screen position.
+     */
+    public void addScrollingSprite(BufferedImage image, float x, float y, float scrollX, float scrollY, int layer) {
+        add(image, x, y, x, y, scrollX, scrollY, layer);
+    }
+
+    private void add(BufferedImage image, float x, float y, float previousX, float previousY,
+            float scrollX, float scrollY, int layer) {
+        if (image == null) {
+            return;
+        }
+        if (spriteCount == images.length) {
+            int capacity = spriteCount * 2;
+            images = Arrays.copyOf(images, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            previousXs = Arrays.copyOf(previousXs, capacity);
+            previousYs = Arrays.copyOf(previousYs, capacity);
+            scrollXs = Arrays.copyOf(scrollXs, capacity);
+            scrollYs = Arrays.copyOf(scrollYs, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+        }
+        images[spriteCount] = image;
+        xs[spriteCount] = x;
+        ys[spriteCount] = y;
+        previousXs[spriteCount] = previousX;
+        previousYs[spriteCount] = previousY;
+        scrollXs[spriteCount] = scrollX;
+        scrollYs[spriteCount] = scrollY;
+        layers[spriteCount] = layer;
+        spriteCount++;
+    }
+
+    /**
+     * Draw commands of the UI, filled by the UISystem with UIElement.record().
+     */
+    public UIDrawList getUIDrawList() {
+        return ui;
+    }
+
+    /**
+     * Disegna il contenuto della snapshot nell'ordine in cui è stato inserito.
+     */
+    public void render(Graphics2D g) {
+        render(g, 1f);
+    }
+
+    /**
+     * Disegna interpolando posizioni e camera tra il frame precedente (alpha = 0) e quello attuale (alpha = 1).
+     */
+    public void render(Graphics2D g, float alpha) {
+        float cameraX = previousXOffset + (xOffset - previousXOffset) * alpha;
+        float cameraY = previousYOffset + (yOffset - previousYOffset) * alpha;
+        for (int i = 0; i < spriteCount; i++) {
+            float x = previousXs[i] + (xs[i] - previousXs[i]) * alpha;
+            float y = previousYs[i] + (ys[i] - previousYs[i]) * alpha;
+            int screenX = (int) (x - cameraX * scrollXs[i]);
+            int screenY = (int) (y - cameraY * scrollYs[i]);
+            if (regions[i] != null) {
+                regions[i].draw(g, screenX, screenY);
+            } else {
+                g.drawImage(images[i], screenX, screenY, null);
+            }
+        }
+        ui.render(g);
+    }
+
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    public int getLayer(int index) {
+        return layers[index];
+    }
+
+    public int getUICount() {
+        return ui.size();
+    }
+
+    public int getxOffset() {
+        return xOffset;
+    }
+
+    public int getyOffset() {
+        return yOffset;
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import engine.BaseSystem;
 import engine.Engine;
+import engine.TripleBuffer;
 import engine.components.SpriteComponent;
 import engine.components.TileMapComponent;
 import engine.Entity;
@@ -35,15 +36,22 @@ import engine.components.ParallaxComponent;
 
 public class RenderingSystem extends BaseSystem {
 	private final Comparator<Entity> entityComparator;
+	private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
 	private Camera camera;
 	private int currentXOffset;
 	private int currentYOffset;
+	private int previousXOffset; // Offset della camera nella snapshot precedente
+	private int previousYOffset;
 //    private static final Color collisionColor = new Color(1f, 1f, 0.1f, .5f);
 	private static final Color solidColor = new Color(1f, 0f, 0f, .5f);
 
 	// Costruttore con Camera
 	public RenderingSystem(Engine engine, Camera camera) {
 		super(engine, 10);
+		// Componenti usati dall'update, per l'esecuzione in parallelo con gli altri sistemi:
+		// la camera segue il MotionComponent, che viene anche scritto (posizione precedente)
+		reads(SpriteComponent.class, TileMapComponent.class, ParallaxComponent.class);
+		writes(MotionComponent.class, ColliderComponent.class, CollisionMapComponent.class);
 		this.camera = camera;
 		this.entityComparator = createEntityComparator();
 	}
@@ -71,15 +79,65 @@ public class RenderingSystem extends BaseSystem {
 
 	@Override
 	public void update(float deltaTime) {
+		// L'ordinamento per layer/profondità avviene qui, sul thread di gioco
+		engine.sortEntities(entityComparator);
+
+		if (camera != null) {
+			camera.update(deltaTime);
+		}
+
+		// Prepara la snapshot di scrittura con tutto ciò che serve per disegnare il frame
+		RenderSnapshot snapshot = snapshots.getWriteBuffer();
+		int xOffset = (camera != null) ? camera.getxOffset() : 0;
+		int yOffset = (camera != null) ? camera.getyOffset() : 0;
+		snapshot.clear(xOffset, yOffset, previousXOffset, previousYOffset);
+		previousXOffset = xOffset;
+		previousYOffset = yOffset;
+
 		// Aggiorna le collisioni tra entità e tile
 		engine.accessEntities(entities -> {
 			for (Entity entity : entities) {
 				updateEntity(entity, deltaTime);
+				collectEntity(entity, snapshot, xOffset);
 			}
 		});
 
-		if (camera != null) {
-			camera.update(deltaTime);
+		// Da qui in poi il thread di rendering vede il nuovo frame
+		snapshots.publish();
+	}
+
+	private void collectEntity(Entity entity, RenderSnapshot snapshot, int xOffset) {
+		MotionComponent pc = entity.getComponent(MotionComponent.class);
+		SpriteComponent sc = entity.getComponent(SpriteComponent.class);
+
+		if (sc != null && pc != null) {
+			snapshot.addSprite(sc.getCurrentRegion(), pc.getX(), pc.getY(), pc.getPreviousX(), pc.getPreviousY(),
+					entity.getLayer());
+		}
+		if (pc != null) {
+			pc.storePreviousPosition();
+		}
+
+		if (entity.hasComponent(TileMapComponent.class)) {
+			// La mappa viene disegnata con l'offset della camera
+			TileMapComponent tileMapComponent = entity.getComponent(TileMapComponent.class);
+			snapshot.addSprite(tileMapComponent.getTileMapImage(), 0, 0, entity.getLayer());
+		}
+
+		if (entity.hasComponent(ParallaxComponent.class)) {
+			ParallaxComponent parallax = entity.getComponent(ParallaxComponent.class);
+			BufferedImage image = parallax.getImage();
+			float speed = parallax.getSpeed();
+			int yPosition = parallax.getYPosition();
+			int imageWidth = image.getWidth();
+			int worldWidth = parallax.getWorldWidth();
+			int startX = -(int) (xOffset * speed) % imageWidth;
+			if (startX > 0) startX -= imageWidth;
+
+			// Posizioni espresse in modo che x - xOffset * speed sia la posizione sullo schermo
+			for (int x = startX; x < worldWidth; x += imageWidth) {
+				snapshot.addScrollingSprite(image, x + xOffset * speed, yPosition, speed, 0f, entity.getLayer());
+			}
 		}
 	}
 
@@ -99,27 +157,30 @@ public class RenderingSystem extends BaseSystem {
 
 	@Override
 	public void render(Graphics2D g) {
-		currentXOffset = (camera != null) ? camera.getxOffset() : 0;
-		currentYOffset = (camera != null) ? camera.getyOffset() : 0;
+		// Nessun lock: si disegna l'ultima snapshot pubblicata dal thread di gioco
+		RenderSnapshot snapshot = snapshots.getReadBuffer();
+		snapshot.render(g, engine.getInterpolationAlpha());
 
-		engine.sortEntities(entityComparator);
-
-		engine.accessEntities(entities -> {
-			for (Entity entity : entities) {
-				renderEntity(entity, g);
-			}
-		});
+		// Gli overlay di debug leggono direttamente i componenti e passano quindi dal lock
+		if (engine.isDebug()) {
+			currentXOffset = snapshot.getxOffset();
+			currentYOffset = snapshot.getyOffset();
+			engine.accessEntities(entities -> {
+				for (Entity entity : entities) {
+					renderEntity(entity, g);
+				}
+			});
+		}
 	}
 
+	/**
+	 * Disegna gli overlay di debug di un'entità (collider, hitbox, tile solide, percorsi).
+	 */
+	@Override
 	protected void renderEntity(Entity entity, Graphics2D g) {
 		MotionComponent pc = entity.getComponent(MotionComponent.class);
 		SpriteComponent sc = entity.getComponent(SpriteComponent.class);
 
-		if (sc != null && pc != null) {
-			g.drawImage(sc.getCurrentSprite(), (int) (pc.getX() - currentXOffset), (int) (pc.getY() - currentYOffset),
-					null);
-		}
-
 		if (engine.isDebug() && pc != null) {
 			ColliderComponent cc = entity.getComponent(ColliderComponent.class);
 			if (cc != null) {
@@ -151,10 +212,7 @@ public class RenderingSystem extends BaseSystem {
 		}
 
 		if (entity.hasComponent(TileMapComponent.class)) {
-			// Disegno la mappa con l'offset della camera
 			TileMapComponent tileMapComponent = entity.getComponent(TileMapComponent.class);
-			BufferedImage tileMapImage = tileMapComponent.getTileMapImage();
-			g.drawImage(tileMapImage, -currentXOffset, -currentYOffset, null);
 			if (engine.isDebug()) {
 				int startRow = currentYOffset / tileMapComponent.getTileHeight();
 				int startCol = currentXOffset / tileMapComponent.getTileWidth();
@@ -192,21 +250,6 @@ public class RenderingSystem extends BaseSystem {
 			}
 		}
 		
-        if (entity.hasComponent(ParallaxComponent.class)) {
-            ParallaxComponent parallax = entity.getComponent(ParallaxComponent.class);
-            BufferedImage image = parallax.getImage();
-            float speed = parallax.getSpeed();
-            int yPosition = parallax.getYPosition();
-            int imageWidth = image.getWidth();
-            int worldWidth = parallax.getWorldWidth();
-            int startX = -(int) (currentXOffset * speed) % imageWidth;
-            if (startX > 0) startX -= imageWidth;
-
-            for (int x = startX; x < worldWidth; x += imageWidth) {
-                g.drawImage(image, x, yPosition, null);
-            }
-        }
-
 		if (engine.isDebug()) {
 			if (entity.hasComponent(ChaseComponent.class)) {
 				ChaseComponent chaseComponent = entity.getComponent(ChaseComponent.class);
@@ -10,7 +10,6 @@ package engine.systems;
 import engine.BaseSystem;
 import engine.Engine;
 import engine.components.TimerComponent;
-import engine.Entity;
 import enums.EngineState;
 
 public class TimerSystem extends BaseSystem {
@@ -22,6 +21,9 @@ public class TimerSystem extends BaseSystem {
 	
     public TimerSystem(Engine engine) {
         super(engine, 8); // priority, adjust as you wish
+        // Componenti usati, per l'esecuzione in parallelo con gli altri sistemi (le callback
+        // del gioco vengono eseguite dopo il sistema, vedi Engine.runOnGameThread)
+        writes(TimerComponent.class);
     }
 
     @Override
@@ -36,11 +38,20 @@ public class TimerSystem extends BaseSystem {
     }
 
 	@Override
-	protected void updateEntity(Entity entity, float deltaTime) {
-        TimerComponent timer = entity.getComponent(TimerComponent.class);
-        if (timer != null && timer.isActive()) {
-            timer.updateTimer(deltaTime);
-        }
+	public void update(float deltaTime) {
+		// Scorre direttamente lo storage compatto dei timer, senza passare da tutte le entità.
+		// Le callback che aggiungono o rimuovono componenti durante l'aggiornamento
+		// non modificano lo storage subito (vedi CommandBuffer): nessun timer viene saltato.
+		engine.accessComponents(TimerComponent.class, timers -> {
+			forEachChunk(timers.size(), (from, to) -> {
+				for (int i = from; i < to; i++) {
+					TimerComponent timer = timers.getComponent(i);
+					if (timer.isActive()) {
+						timer.updateTimer(deltaTime);
+					}
+				}
+			});
+		});
 	}
 	
 }
\ No newline at end of file
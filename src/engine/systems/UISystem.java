@@ -1,70 +1,93 @@
 package engine.systems;
 
 import java.awt.Graphics2D;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
 import engine.BaseSystem;
 import engine.Engine;
+import engine.EntityQuery;
+import engine.TripleBuffer;
 import engine.components.KeyInputComponent;
 import engine.components.UIComponent;
 import engine.Entity;
 import enums.EngineState;
+import ui.UIDrawList;
+import ui.UIElement;
 import world.Camera;
 
 public class UISystem extends BaseSystem {
+    private final EntityQuery uiEntities;
+    private final Comparator<Entity> layerComparator = Comparator.comparingInt(Entity::getLayer);
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
     private Camera camera;
-    private int currentXOffset;
-    private int currentYOffset;
+
+    // Stati in cui gli elementi UI si aggiornano e gestiscono l'input
+    private static final Set<EngineState> ANIMATED_STATES =
+            EnumSet.of(EngineState.RUNNING, EngineState.CUTSCENE, EngineState.SHOWING_DIALOG);
 
     public UISystem(Engine engine, Camera camera) {
         super(engine, 11); // Il layer del rendering dell'UI è alto
         this.camera = camera;
+        this.uiEntities = engine.query(UIComponent.class);
     }
 
     @Override
     protected void initStateUpdateMap() {
-        // Customize states where this system updates
-    	setUpdateInState(EngineState.STARTING, false);
+        // L'UI va disegnata in tutti gli stati, quindi i comandi di disegno vengono copiati
+        // sempre; gli elementi però si aggiornano e ricevono input solo negli stati di ANIMATED_STATES
+    	setUpdateInState(EngineState.STARTING, true);
     	setUpdateInState(EngineState.RUNNING, true);
     	setUpdateInState(EngineState.CUTSCENE, true);
-    	setUpdateInState(EngineState.PAUSED, false);
+    	setUpdateInState(EngineState.PAUSED, true);
     	setUpdateInState(EngineState.SHOWING_DIALOG, true);
-    	setUpdateInState(EngineState.EXITING, false);
-    	setUpdateInState(EngineState.ENTERING, false);
+    	setUpdateInState(EngineState.EXITING, true);
+    	setUpdateInState(EngineState.ENTERING, true);
     }
 
     @Override
     public void update(float deltaTime) {
+        // Gli elementi vengono disegnati nell'ordine della query: li teniamo ordinati per layer
+        engine.sortEntities(uiEntities, layerComparator);
+
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        int xOffset = (camera != null) ? camera.getxOffset() : 0;
+        int yOffset = (camera != null) ? camera.getyOffset() : 0;
+        snapshot.clear(xOffset, yOffset);
+        UIDrawList drawList = snapshot.getUIDrawList();
+        boolean animated = ANIMATED_STATES.contains(engine.getStateManager().getCurrentState());
+
         // Itera in modo sicuro sulle entità con UIComponent
-        engine.accessEntitiesWithComponent(UIComponent.class, uiEntities -> {
-            for (Entity entity : uiEntities) {
+        engine.accessEntities(uiEntities, entities -> {
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
                 UIComponent uiComponent = entity.getComponent(UIComponent.class);
                 KeyInputComponent keyInput = entity.getComponent(KeyInputComponent.class);
 
                 if (uiComponent != null) {
-                    // Gestisce l'input se presente
-                    if (keyInput != null) {
-                        uiComponent.handleInput(keyInput);
+                    UIElement element = uiComponent.getUIElement();
+                    if (animated) {
+                        // Gestisce l'input se presente
+                        if (keyInput != null) {
+                            uiComponent.handleInput(keyInput);
+                        }
+                        // Aggiorna l'elemento UI
+                        element.update(deltaTime);
+                    }
+                    // Copia i comandi di disegno nella snapshot, anche quando il gioco è in pausa
+                    if (element.isVisible()) {
+                        element.record(drawList, xOffset, yOffset);
                     }
-
-                    // Aggiorna l'elemento UI
-                    uiComponent.getUIElement().update(deltaTime);
                 }
             }
         });
+
+        snapshots.publish();
     }
 
     @Override
     public void render(Graphics2D g) {
-        // Itera in modo sicuro sulle entità con UIComponent
-        engine.accessEntitiesWithComponent(UIComponent.class, uiEntities -> {
-            currentXOffset = (camera != null) ? camera.getxOffset() : 0;
-            currentYOffset = (camera != null) ? camera.getyOffset() : 0;
-
-            for (Entity entity : uiEntities) {
-                UIComponent uiComponent = entity.getComponent(UIComponent.class);
-                if (uiComponent != null && uiComponent.getUIElement().isVisible()) {
-                    uiComponent.getUIElement().render(g, currentXOffset, currentYOffset);
-                }
-            }
-        });
+        // Nessun lock: i comandi di disegno sono quelli copiati dall'ultimo update
+        snapshots.getReadBuffer().render(g);
     }
-}
\ No newline at end of file
+}
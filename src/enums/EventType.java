@@ -0,0 +1,16 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package enums;
+
+public enum EventType {
+    COLLISION,       // source e target si sovrappongono
+    TILE_CONTACT,    // source tocca la tile solida (x = colonna, y = riga)
+    PROXIMITY_ENTER, // target entra nel raggio del ProximityComponent di source
+    PROXIMITY_EXIT,  // target esce dal raggio del ProximityComponent di source
+    DAMAGE           // source infligge a target un danno pari a x
+}
@@ -0,0 +1,116 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package helpers;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+
+/**
+ * Conversion of the loaded images to the format of the display. ImageIO usually decodes
+ * PNG files as TYPE_4BYTE_ABGR (or indexed) images, which Java2D has to convert pixel by
+ * pixel at every drawImage; an image created by GraphicsConfiguration.createCompatibleImage
+ * is drawn with a straight blit and can be cached in video memory (managed image).
+ * Without a display (headless runs, benchmarks, servers) images are converted to
+ * TYPE_INT_ARGB_PRE, the fastest software format for translucent images.
+ *
+ * The conversion can be disabled with -Dretroedge.compatibleImages=false, to compare the
+ * draw times before and after.
+ */
+public final class ImageUtils {
+
+    private static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("retroedge.compatibleImages"));
+    private static final GraphicsConfiguration CONFIGURATION = findConfiguration();
+
+    private ImageUtils() {
+        // Classe di utility, non istanziabile
+    }
+
+    private static GraphicsConfiguration findConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        } catch (HeadlessException e) {
+            Logger.log("No screen device available, images will use TYPE_INT_ARGB_PRE.");
+            return null;
+        }
+    }
+
+    /**
+     * Creates an empty translucent image in the display format (TYPE_INT_ARGB_PRE when headless).
+     */
+    public static BufferedImage createCompatibleImage(int width, int height) {
+        if (!ENABLED) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        if (CONFIGURATION != null) {
+            return CONFIGURATION.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Returns a copy of the image in the display format, or the image itself if it already
+     * is in that format and owns its whole raster (sub-images are always copied, so the
+     * frames of a sheet do not keep the entire sheet alive and are drawn without clipping).
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (image == null || !ENABLED) {
+            return image;
+        }
+        if (isCompatible(image) && image.getRaster().getParent() == null) {
+            return image;
+        }
+        BufferedImage copy = createCompatibleImage(image.getWidth(), image.getHeight());
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src); // Copia esatta, anche dei pixel trasparenti
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+
+    /**
+     * Copies a rectangular region of the image into a new image in the display format.
+     */
+    public static BufferedImage copyCompatibleRegion(BufferedImage image, int x, int y, int width, int height) {
+        if (!ENABLED) {
+            return image.getSubimage(x, y, width, height);
+        }
+        BufferedImage copy = createCompatibleImage(width, height);
+        Graphics2D g = copy.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, width, height, x, y, x + width, y + height, null);
+        g.dispose();
+        return copy;
+    }
+
+    /**
+     * True if the image has the same pixel layout as the images created by createCompatibleImage.
+     */
+    public static boolean isCompatible(BufferedImage image) {
+        if (CONFIGURATION != null) {
+            ColorModel model = CONFIGURATION.getColorModel(Transparency.TRANSLUCENT);
+            return image.getType() != BufferedImage.TYPE_CUSTOM && image.getColorModel().equals(model);
+        }
+        return image.getType() == BufferedImage.TYPE_INT_ARGB_PRE;
+    }
+
+    /** True if loaded images are converted (false with -Dretroedge.compatibleImages=false). */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+import helpers.Logger;
+
+/**
+ * Records the actions produced by InputSystem, one 64-bit set per tick, to a compact
+ * binary file that InputReplay can feed back to the engine. Together with a fixed delta
+ * time this makes a play session reproducible: it can be replayed headlessly (see
+ * HeadlessRunner) for profiling, and the stored checksum verifies that the replay
+ * reached the same state.
+ *
+ * The checksum is the state of the world at the end of the last recorded tick: after each
+ * engine tick in which InputSystem recorded the actions, the engine passes the checksum
+ * of the state to recordChecksum() (see isChecksumPending()). Engine ticks that do not
+ * reach InputSystem (state switches, loading, transitions) are not recorded, and neither
+ * are the ticks run after the last recorded one, before the recording is closed.
+ * 
+ * File layout (big endian):
+ * <pre>
+ * int   magic "REIN"
+ * short version
+ * short flags (bit 0: checksum present)
+ * float delta time of every tick
+ * int   number of ticks
+ * long  checksum of the state after the last tick (Engine.computeStateChecksum())
+ * short number of actions, then for each action: short length + UTF-8 name
+ * long  action set of each tick (bit i = action i active)
+ * </pre>
+ */
+public class InputRecorder implements Closeable {
+    static final int MAGIC = 0x5245494E; // "REIN"
+    static final short VERSION = 1;
+    static final int MAX_ACTIONS = Long.SIZE;
+    static final short FLAG_CHECKSUM = 1;
+    // Posizioni dei campi che vengono completati alla chiusura
+    static final int FLAGS_OFFSET = 6;
+    static final int TICKS_OFFSET = 12;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024); // Tick in attesa di scrittura
+    private String[] actions; // Fissate al primo tick (ordine alfabetico)
+    private float deltaTime;
+    private int tickCount;
+    private boolean checksumPending; // Tick registrato, checksum dello stato non ancora ricevuto
+    private boolean hasChecksum;
+    private long checksum;
+    private boolean closed;
+    private boolean variableDeltaLogged;
+    private boolean unknownActionLogged;
+
+    public InputRecorder(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        Logger.log("Recording input to " + file.toAbsolutePath());
+    }
+
+    /**
+     * Appends the action states of one tick. The first call fixes the list of actions
+     * (the keys of the map) and the delta time stored in the header.
+     */
+    public synchronized void recordTick(Map<String, Boolean> actionStates, float deltaTime) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (actions == null) {
+                writeHeader(actionStates, deltaTime);
+            } else if (deltaTime != this.deltaTime && !variableDeltaLogged) {
+                Logger.log("Input recording: delta time changed from " + this.deltaTime + " to " + deltaTime
+                        + ", the replay will not be deterministic.");
+                variableDeltaLogged = true;
+            }
+
+            long bits = 0L;
+            for (Map.Entry<String, Boolean> entry : actionStates.entrySet()) {
+                if (!entry.getValue()) {
+                    continue;
+                }
+                int index = Arrays.binarySearch(actions, entry.getKey());
+                if (index >= 0) {
+                    bits |= 1L << index;
+                } else if (!unknownActionLogged) {
+                    Logger.log("Input recording: action '" + entry.getKey() + "' was bound after the recording started and is ignored.");
+                    unknownActionLogged = true;
+                }
+            }
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(bits);
+            tickCount++;
+            checksumPending = true;
+        } catch (IOException e) {
+            Logger.log("Cannot write input recording " + file, e);
+            closeQuietly();
+        }
+    }
+
+    private void writeHeader(Map<String, Boolean> actionStates, float deltaTime) throws IOException {
+        actions = actionStates.keySet().toArray(new String[0]);
+        Arrays.sort(actions); // Ordine indipendente dall'iterazione della mappa
+        if (actions.length > MAX_ACTIONS) {
+            Logger.log("Input recording: only the first " + MAX_ACTIONS + " of " + actions.length + " actions are recorded.");
+            actions = Arrays.copyOf(actions, MAX_ACTIONS);
+        }
+        this.deltaTime = deltaTime;
+
+        byte[][] names = new byte[actions.length][];
+        int size = 4 + 2 + 2 + 4 + 4 + 8 + 2;
+        for (int i = 0; i < actions.length; i++) {
+            names[i] = actions[i].getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(size);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        header.putFloat(deltaTime).putInt(0).putLong(0L); // Tick e checksum scritti alla chiusura
+        header.putShort((short) actions.length);
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.flip();
+        writeFully(header);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    public synchronized int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * True if a tick has been recorded since the last checksum: the engine then passes the
+     * checksum of the state at the end of that tick to recordChecksum().
+     */
+    public synchronized boolean isChecksumPending() {
+        return checksumPending && !closed;
+    }
+
+    /**
+     * Checksum of the state at the end of the tick just recorded (see
+     * Engine.computeStateChecksum()); the last one is stored in the file by close().
+     */
+    public synchronized void recordChecksum(long checksum) {
+        this.checksum = checksum;
+        hasChecksum = true;
+        checksumPending = false;
+    }
+
+    /**
+     * Completes the file, storing the checksum of the state after the last recorded tick
+     * if the engine provided it.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (actions == null) {
+                writeHeader(Map.of(), 0f); // Nessun tick registrato: file vuoto ma valido
+            }
+            flush();
+            // Checksum valido solo se ricevuto dopo l'ultimo tick registrato
+            boolean withChecksum = hasChecksum && !checksumPending;
+            ByteBuffer flags = ByteBuffer.allocate(2).putShort(withChecksum ? FLAG_CHECKSUM : 0);
+            channel.write(flags.flip(), FLAGS_OFFSET);
+            ByteBuffer trailer = ByteBuffer.allocate(12).putInt(tickCount).putLong(withChecksum ? checksum : 0L);
+            channel.write(trailer.flip(), TICKS_OFFSET);
+        } finally {
+            channel.close();
+        }
+        Logger.log("Recorded " + tickCount + " ticks of input to " + file.toAbsolutePath());
+    }
+
+    private void closeQuietly() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Già segnalato l'errore di scrittura
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package input;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Input source that replays a file written by InputRecorder: while it is installed on the
+ * engine (Engine.setInputReplay) InputSystem takes the actions of each tick from here
+ * instead of the keyboard. The whole recording is loaded in memory, so replaying does
+ * not touch the disk.
+ */
+public class InputReplay {
+    private final List<String> actions;
+    private final float deltaTime;
+    private final long[] ticks;
+    private final boolean hasChecksum;
+    private final long checksum;
+    private int next = 0;
+
+    private InputReplay(String[] actions, float deltaTime, long[] ticks, boolean hasChecksum, long checksum) {
+        this.actions = Collections.unmodifiableList(Arrays.asList(actions));
+        this.deltaTime = deltaTime;
+        this.ticks = ticks;
+        this.hasChecksum = hasChecksum;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Reads a recording; throws IOException if the file is not a valid recording.
+     */
+    public static InputReplay load(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (data.getInt() != InputRecorder.MAGIC) {
+                throw new IOException("Not an input recording: " + file);
+            }
+            short version = data.getShort();
+            if (version != InputRecorder.VERSION) {
+                throw new IOException("Unsupported input recording version " + version + ": " + file);
+            }
+            short flags = data.getShort();
+            float deltaTime = data.getFloat();
+            int tickCount = data.getInt();
+            long checksum = data.getLong();
+            String[] actions = new String[data.getShort()];
+            for (int i = 0; i < actions.length; i++) {
+                byte[] name = new byte[data.getShort()];
+                data.get(name);
+                actions[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            if (tickCount < 0 || data.remaining() < (long) tickCount * Long.BYTES) {
+                throw new IOException("Truncated input recording (" + tickCount + " ticks expected): " + file);
+            }
+            long[] ticks = new long[tickCount];
+            data.asLongBuffer().get(ticks);
+            return new InputReplay(actions, deltaTime, ticks, (flags & InputRecorder.FLAG_CHECKSUM) != 0, checksum);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated input recording: " + file, e);
+        }
+    }
+
+    /**
+     * Action set of the next tick (bit i = getActions().get(i) active), or 0 once the
+     * recording is finished.
+     */
+    public long nextTick() {
+        return next < ticks.length ? ticks[next++] : 0L;
+    }
+
+    public boolean isFinished() {
+        return next >= ticks.length;
+    }
+
+    /**
+     * Ricomincia dal primo tick (ad esempio per ripetere la stessa simulazione).
+     */
+    public void rewind() {
+        next = 0;
+    }
+
+    /** Recorded actions; the index of an action is its bit in the values of nextTick(). */
+    public List<String> getActions() {
+        return actions;
+    }
+
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+
+    public int getTickCount() {
+        return ticks.length;
+    }
+
+    /** Number of ticks already replayed. */
+    public int getPosition() {
+        return next;
+    }
+
+    public boolean hasChecksum() {
+        return hasChecksum;
+    }
+
+    /** Checksum of the state after the last recorded tick (see InputRecorder). */
+    public long getChecksum() {
+        return checksum;
+    }
+}
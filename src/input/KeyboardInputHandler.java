@@ -25,14 +25,28 @@ public class KeyboardInputHandler implements KeyListener {
 
     @Override
     public void keyPressed(KeyEvent e) {
-        pressedKeys.add(e.getKeyCode());
-        releasedKeys.remove(e.getKeyCode());
+        pressKey(e.getKeyCode());
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        pressedKeys.remove(e.getKeyCode());
-        releasedKeys.add(e.getKeyCode());
+        releaseKey(e.getKeyCode());
+    }
+
+    /**
+     * Segna un tasto come premuto senza passare da un KeyEvent (input simulato o registrato).
+     */
+    public void pressKey(int keyCode) {
+        pressedKeys.add(keyCode);
+        releasedKeys.remove(keyCode);
+    }
+
+    /**
+     * Segna un tasto come rilasciato senza passare da un KeyEvent (input simulato o registrato).
+     */
+    public void releaseKey(int keyCode) {
+        pressedKeys.remove(keyCode);
+        releasedKeys.add(keyCode);
     }
 
     @Override
@@ -0,0 +1,100 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package input;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sequenza di pressioni e rilasci di tasti programmati per tick di simulazione.
+ * Sostituisce la tastiera quando l'engine gira senza finestra (test, simulazioni):
+ * prima di ogni aggiornamento si chiama apply(tick, handler) e gli eventi di quel tick
+ * vengono inoltrati al KeyboardInputHandler dell'engine.
+ */
+public class ScriptedInput {
+
+    private static class KeyEventAt {
+        final long tick;
+        final int keyCode;
+        final boolean pressed;
+
+        KeyEventAt(long tick, int keyCode, boolean pressed) {
+            this.tick = tick;
+            this.keyCode = keyCode;
+            this.pressed = pressed;
+        }
+    }
+
+    private final List<KeyEventAt> events = new ArrayList<>();
+    private boolean sorted = true;
+    private int nextEvent = 0;
+
+    public void press(long tick, int keyCode) {
+        add(new KeyEventAt(tick, keyCode, true));
+    }
+
+    public void release(long tick, int keyCode) {
+        add(new KeyEventAt(tick, keyCode, false));
+    }
+
+    /**
+     * Holds a key down from {@code tick} for {@code durationTicks} ticks.
+     */
+    public void hold(long tick, int keyCode, long durationTicks) {
+        press(tick, keyCode);
+        release(tick + Math.max(1, durationTicks), keyCode);
+    }
+
+    private void add(KeyEventAt event) {
+        if (event.tick < 0) {
+            throw new IllegalArgumentException("Tick cannot be negative.");
+        }
+        if (!events.isEmpty() && events.get(events.size() - 1).tick > event.tick) {
+            sorted = false;
+        }
+        events.add(event);
+    }
+
+    /**
+     * Inoltra all'handler gli eventi programmati fino al tick indicato (incluso).
+     */
+    public void apply(long tick, KeyboardInputHandler inputHandler) {
+        if (!sorted) {
+            // Ordinamento stabile: a parità di tick si rispetta l'ordine di inserimento
+            List<KeyEventAt> pending = new ArrayList<>(events.subList(nextEvent, events.size()));
+            pending.sort(Comparator.comparingLong(e -> e.tick));
+            events.subList(nextEvent, events.size()).clear();
+            events.addAll(pending);
+            sorted = true;
+        }
+        while (nextEvent < events.size() && events.get(nextEvent).tick <= tick) {
+            KeyEventAt event = events.get(nextEvent++);
+            if (event.pressed) {
+                inputHandler.pressKey(event.keyCode);
+            } else {
+                inputHandler.releaseKey(event.keyCode);
+            }
+        }
+    }
+
+    /**
+     * True when every scheduled event has been applied.
+     */
+    public boolean isFinished() {
+        return nextEvent >= events.size();
+    }
+
+    /**
+     * Ricomincia dal primo evento (ad esempio per ripetere la stessa simulazione).
+     */
+    public void rewind() {
+        nextEvent = 0;
+    }
+}
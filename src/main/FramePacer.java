@@ -0,0 +1,184 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package main;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ciclo di gioco a passo fisso con ritmo preciso.
+ * 
+ * La logica viene aggiornata a intervalli costanti (UPS) accumulando il tempo trascorso;
+ * il rendering viene richiesto al proprio ritmo (FPS) insieme a un valore alpha che indica
+ * quanto si è avanzati verso il prossimo aggiornamento, usato per interpolare le posizioni.
+ * 
+ * Tra un evento e l'altro il thread viene sospeso con LockSupport.parkNanos e, per
+ * l'ultimo breve tratto, attende attivamente: così non si sveglia mille volte al secondo
+ * come con Thread.sleep(1), ma rispetta comunque le scadenze con buona precisione.
+ * Dopo un blocco prolungato vengono eseguiti al massimo maxCatchUpSteps aggiornamenti
+ * di recupero e il tempo restante viene scartato, evitando la "spirale della morte".
+ */
+public class FramePacer implements Runnable {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SPIN_THRESHOLD = 200_000L; // Sotto i 0,2 ms si attende attivamente
+
+    /**
+     * Callbacks driven by the pacer.
+     */
+    public interface Loop {
+        void update(float deltaTime);
+
+        void render();
+    }
+
+    private final Loop loop;
+    private final long updateInterval;
+    private final long frameInterval;
+    private final float deltaTime;
+    private final int maxCatchUpSteps;
+    private volatile boolean running = true; // Un pacer fermato con stop() non riparte
+    private volatile long lastUpdateTime; // Istante (nanoTime) a cui corrisponde l'ultimo aggiornamento
+
+    // Statistiche dell'ultimo secondo
+    private volatile int ups, fps;
+    private volatile double averageJitterMillis, maxJitterMillis;
+    private volatile long droppedUpdates;
+
+    public FramePacer(Loop loop, int updatesPerSecond, int framesPerSecond, int maxCatchUpSteps) {
+        if (loop == null) {
+            throw new IllegalArgumentException("Loop cannot be null.");
+        }
+        if (updatesPerSecond <= 0 || framesPerSecond <= 0 || maxCatchUpSteps <= 0) {
+            throw new IllegalArgumentException("Rates and catch-up steps must be positive.");
+        }
+        this.loop = loop;
+        this.updateInterval = NANOS_PER_SECOND / updatesPerSecond;
+        this.frameInterval = NANOS_PER_SECOND / framesPerSecond;
+        this.deltaTime = 1f / updatesPerSecond;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    @Override
+    public void run() {
+        long previousTime = System.nanoTime();
+        long accumulator = 0;
+        long nextFrameTime = previousTime;
+        lastUpdateTime = previousTime;
+
+        long statsStart = previousTime;
+        int updates = 0, frames = 0, wakeUps = 0;
+        long jitterSum = 0, jitterMax = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - previousTime;
+            previousTime = now;
+
+            // Aggiorna la logica a passo fisso, con un limite agli aggiornamenti di recupero
+            int steps = 0;
+            while (accumulator >= updateInterval && steps < maxCatchUpSteps) {
+                loop.update(deltaTime);
+                accumulator -= updateInterval;
+                lastUpdateTime = now - accumulator;
+                steps++;
+                updates++;
+            }
+            if (accumulator >= updateInterval) {
+                droppedUpdates += accumulator / updateInterval;
+                accumulator %= updateInterval;
+                lastUpdateTime = now - accumulator;
+            }
+
+            // Richiede un nuovo frame
+            if (now >= nextFrameTime) {
+                loop.render();
+                frames++;
+                nextFrameTime += frameInterval;
+                if (nextFrameTime < now) {
+                    nextFrameTime = now + frameInterval; // Troppo indietro: non si recuperano i frame persi
+                }
+            }
+
+            // Statistiche al secondo
+            if (now - statsStart >= NANOS_PER_SECOND) {
+                ups = updates;
+                fps = frames;
+                averageJitterMillis = wakeUps > 0 ? jitterSum / (double) wakeUps / 1_000_000.0 : 0;
+                maxJitterMillis = jitterMax / 1_000_000.0;
+                statsStart = now;
+                updates = frames = wakeUps = 0;
+                jitterSum = jitterMax = 0;
+            }
+
+            // Attende il primo evento in scadenza e misura il ritardo del risveglio
+            long wakeTime = Math.min(now + updateInterval - accumulator, nextFrameTime);
+            waitUntil(wakeTime);
+            long jitter = Math.max(0, System.nanoTime() - wakeTime);
+            jitterSum += jitter;
+            jitterMax = Math.max(jitterMax, jitter);
+            wakeUps++;
+        }
+    }
+
+    private void waitUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD);
+                if (Thread.interrupted()) {
+                    running = false;
+                }
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fraction of the fixed update interval elapsed since the last update, in [0, 1].
+     * Renderers use it to interpolate between the previous and the current state.
+     */
+    public float getInterpolationAlpha() {
+        float alpha = (System.nanoTime() - lastUpdateTime) / (float) updateInterval;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+
+    public int getUps() {
+        return ups;
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    /**
+     * Average delay of the wake-ups with respect to their deadline during the last second.
+     */
+    public double getAverageJitterMillis() {
+        return averageJitterMillis;
+    }
+
+    public double getMaxJitterMillis() {
+        return maxJitterMillis;
+    }
+
+    /**
+     * Total number of updates skipped because the loop fell too far behind.
+     */
+    public long getDroppedUpdates() {
+        return droppedUpdates;
+    }
+}
@@ -16,31 +16,47 @@ import java.awt.Graphics2D;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import javax.swing.JPanel;
+import java.util.List;
 import javax.swing.SwingUtilities;
+import engine.BaseSystem;
 import engine.Engine;
+import engine.TimingStats;
 import helpers.Logger;
 
 public class GamePanel extends JPanel implements Runnable {
     private static final long serialVersionUID = 1L;
     private static final int FPS = 60;
     private static final int UPS = 60;
+    private static final int MAX_CATCH_UP_STEPS = 5; // Aggiornamenti di recupero massimi dopo un blocco
+    private static final float FRAME_BUDGET_NANOS = 1_000_000_000f / UPS;
+    private static final int PROFILER_BAR_WIDTH = 200; // Larghezza in pixel che corrisponde all'intero budget del frame
 
     private Thread gameThread;
-    private volatile boolean isRunning = true; // Controlla lo stato del ciclo di gioco
-    private static long lastCheck;
-    private static int frames, updates, fps, ups;
+    private final FramePacer framePacer;
     private Engine engine;
     private float scaleX = 1.0f, scaleY = 1.0f;
 
     public static final int GAME_WIDTH = 640;
     public static final int GAME_HEIGHT = 480;
 	private final Font arial = new Font("Arial", Font.PLAIN, 12);
+	private final Color profilerBackground = new Color(0, 0, 0, 160);
 	
     public GamePanel(Engine engine) {
         this.engine = engine;
         this.setPreferredSize(new Dimension(GAME_WIDTH, GAME_HEIGHT));
         this.setBackground(Color.black);
         this.setDoubleBuffered(true);
+        this.framePacer = new FramePacer(new FramePacer.Loop() {
+            @Override
+            public void update(float deltaTime) {
+                updateGame(deltaTime);
+            }
+
+            @Override
+            public void render() {
+                repaint();
+            }
+        }, UPS, FPS, MAX_CATCH_UP_STEPS);
         addResizeListener();
         startGameLoop();
     }
@@ -70,12 +86,12 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     private void startGameLoop() {
-        this.gameThread = new Thread(this);
+        this.gameThread = new Thread(this, "GameLoop");
         this.gameThread.start();
     }
 
     public void stopGameLoop() {
-        isRunning = false;
+        framePacer.stop();
         try {
             if (gameThread != null) gameThread.join();
         } catch (InterruptedException e) {
@@ -86,61 +102,8 @@ public class GamePanel extends JPanel implements Runnable {
 	
 	@Override
 	public void run() {
-	    final double updateInterval = 1.0 / UPS; // Tempo per ogni aggiornamento logico
-	    final double frameInterval = 1.0 / FPS; // Tempo per ogni frame renderizzato
-
-	    lastCheck = System.currentTimeMillis();
-	    updates = 0;
-	    frames = 0;
-
-	    double deltaU = 0, deltaF = 0;
-	    long previousTime = System.nanoTime();
-
-	    while (isRunning) {
-	        long currentTime = System.nanoTime();
-	        double delta = (currentTime - previousTime) / 1_000_000_000.0; // In secondi
-	        previousTime = currentTime;
-
-	        deltaU += delta;
-	        deltaF += delta;
-
-	        // Aggiorna logica di gioco
-	        while (deltaU >= updateInterval) {
-	            updateGame((float)updateInterval);
-	            if (engine.isDebug()) updates++;
-	            deltaU -= updateInterval; // Sottrai il valore corretto
-	        }
-
-	        // Renderizza il gioco
-	        if (deltaF >= frameInterval) {
-	            repaint();
-	            if (engine.isDebug()) frames++;
-	            deltaF -= frameInterval; // Sottrai il valore corretto
-	        }
-
-	        // Aggiorna debug
-	        if (engine.isDebug()) {
-	            updateDebug();
-	        }
-
-	        // Ottimizza il consumo della CPU
-	        try {
-	            Thread.sleep(1);
-	        } catch (InterruptedException e) {
-	            e.printStackTrace();
-	        }
-	    }
+	    framePacer.run();
 	}
-	
-    private void updateDebug() {
-        if (System.currentTimeMillis() - lastCheck >= 1000) {
-            lastCheck = System.currentTimeMillis();
-            fps = frames;
-            ups = updates;
-			frames = 0;
-			updates = 0;
-        }
-    }
 
 	public void updateGame(float deltaTime) {
 		this.engine.update(deltaTime);
@@ -157,20 +120,53 @@ public class GamePanel extends JPanel implements Runnable {
             Logger.log("paintComponent not on EDT. Current thread: " + Thread.currentThread().getName());
         }
         
-        engine.render(g2D);
+        engine.render(g2D, framePacer.getInterpolationAlpha());
 
         if (engine.isDebug()) drawDebugInfo(g);
         g.dispose();
     }
 
-    public static void resetDebug() {
-        frames=updates=ups=fps=0;
-    }
-
     private void drawDebugInfo(Graphics g) {
         g.setFont(arial);
         g.setColor(Color.white);
         String debugInfo = engine.getDebugInfo();
-        g.drawString(ups + " UPS - " + fps + " FPS | " + debugInfo, 10, GAME_HEIGHT - 10);
+        g.drawString(String.format("%d UPS - %d FPS - jitter %.2f/%.2f ms | %s",
+                framePacer.getUps(), framePacer.getFps(),
+                framePacer.getAverageJitterMillis(), framePacer.getMaxJitterMillis(), debugInfo), 10, GAME_HEIGHT - 10);
+        drawProfiler(g);
+    }
+
+    /**
+     * Bar chart of the average update time of each system, relative to the frame budget;
+     * the white tick marks the 99th percentile.
+     */
+    private void drawProfiler(Graphics g) {
+        List<BaseSystem> systems = engine.getSystems();
+        int y = 16;
+        for (int i = 0; i < systems.size(); i++) {
+            BaseSystem system = systems.get(i);
+            drawProfilerBar(g, system.getName(), system.getUpdateStats(), system.getOverlayInfo(), y);
+            y += 14;
+        }
+        drawProfilerBar(g, "Total update", engine.getUpdateStats(), null, y);
+        drawProfilerBar(g, "Total render", engine.getRenderStats(), null, y + 14);
+    }
+
+    private void drawProfilerBar(Graphics g, String name, TimingStats stats, String info, int y) {
+        long average = stats.getAverage();
+        long p99 = stats.getPercentile99();
+        int barX = 130;
+        int averageWidth = Math.min(PROFILER_BAR_WIDTH, Math.round(average / FRAME_BUDGET_NANOS * PROFILER_BAR_WIDTH));
+        int p99X = barX + Math.min(PROFILER_BAR_WIDTH, Math.round(p99 / FRAME_BUDGET_NANOS * PROFILER_BAR_WIDTH));
+
+        g.setColor(profilerBackground);
+        g.fillRect(barX, y - 9, PROFILER_BAR_WIDTH, 10);
+        g.setColor(average > FRAME_BUDGET_NANOS / 4 ? Color.red : Color.green); // Un sistema che usa più di 1/4 del budget è evidenziato
+        g.fillRect(barX, y - 9, averageWidth, 10);
+        g.setColor(Color.white);
+        g.drawLine(p99X, y - 10, p99X, y + 1);
+        g.drawString(name, 10, y);
+        String timing = String.format("%.2f / %.2f ms", average / 1e6, p99 / 1e6);
+        g.drawString(info != null ? timing + "  " + info : timing, barX + PROFILER_BAR_WIDTH + 6, y);
     }
 }
\ No newline at end of file
@@ -0,0 +1,277 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package main;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+import engine.Engine;
+import engine.GameEngine;
+import helpers.Logger;
+import input.KeyboardInputHandler;
+import input.InputReplay;
+import input.MouseInputHandler;
+import input.ScriptedInput;
+
+/**
+ * Esegue un Engine senza finestra, senza EDT e senza repaint(): utile per test di durata,
+ * simulazioni per il tuning dell'IA o esecuzione lato server. Funziona anche con
+ * -Djava.awt.headless=true.
+ * 
+ * Ogni tick avanza la simulazione di un intervallo fisso. I tick possono essere eseguiti
+ * il più velocemente possibile oppure a un ritmo fisso (tramite FramePacer); il rendering
+ * è facoltativo e avviene su una BufferedImage fuori schermo. L'input arriva da uno
+ * ScriptedInput invece che dalla tastiera.
+ */
+public class HeadlessRunner {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    // Tempo di gioco senza input letto dopo il quale una riproduzione è considerata bloccata
+    private static final float MAX_REPLAY_STALL_SECONDS = 60f;
+
+    private final Engine engine;
+    private float deltaTime;
+    private int ticksPerSecond = 0; // 0 = nessun limite
+    private int renderInterval = 0; // Renderizza ogni N tick (0 = mai)
+    private BufferedImage frame;
+    private ScriptedInput script;
+    private long tick = 0;
+    private double lastTicksPerSecond;
+
+    /**
+     * @param engine            engine to drive
+     * @param updatesPerSecond  simulated update rate: each tick advances the game by 1/updatesPerSecond
+     */
+    public HeadlessRunner(Engine engine, int updatesPerSecond) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine cannot be null.");
+        }
+        if (updatesPerSecond <= 0) {
+            throw new IllegalArgumentException("Updates per second must be positive.");
+        }
+        this.engine = engine;
+        this.deltaTime = 1f / updatesPerSecond;
+    }
+
+    /**
+     * Wall-clock rate at which ticks are executed; 0 runs them as fast as possible.
+     */
+    public void setTicksPerSecond(int ticksPerSecond) {
+        if (ticksPerSecond < 0) {
+            throw new IllegalArgumentException("Ticks per second cannot be negative.");
+        }
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Renders every {@code interval} ticks into an offscreen image of the given size
+     * (interval 0 disables rendering).
+     */
+    public void setOffscreenRendering(int width, int height, int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Render interval cannot be negative.");
+        }
+        this.renderInterval = interval;
+        this.frame = interval > 0 ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB) : null;
+    }
+
+    public void setScript(ScriptedInput script) {
+        this.script = script;
+    }
+
+    /**
+     * Esegue il numero di tick indicato e restituisce i tick al secondo ottenuti.
+     */
+    public double run(long ticks) {
+        long target = tick + ticks;
+        return runWhile(() -> tick < target);
+    }
+
+    /**
+     * Esegue tick finché la condizione è vera e restituisce i tick al secondo ottenuti.
+     */
+    private double runWhile(BooleanSupplier running) {
+        long start = System.nanoTime();
+        long startTick = tick;
+
+        if (ticksPerSecond > 0) {
+            // Ritmo fisso: si riusa il ciclo del gioco, con un frame per tick al massimo
+            FramePacer[] pacer = new FramePacer[1];
+            pacer[0] = new FramePacer(new FramePacer.Loop() {
+                @Override
+                public void update(float ignored) {
+                    if (running.getAsBoolean()) {
+                        step();
+                    }
+                    if (!running.getAsBoolean()) {
+                        pacer[0].stop();
+                    }
+                }
+
+                @Override
+                public void render() {
+                    // Il rendering fuori schermo avviene in step()
+                }
+            }, ticksPerSecond, ticksPerSecond, 1);
+            pacer[0].run();
+        } else {
+            long reportStart = start;
+            long reportTick = tick;
+            while (running.getAsBoolean()) {
+                step();
+                long now = System.nanoTime();
+                if (now - reportStart >= NANOS_PER_SECOND) {
+                    Logger.log(String.format("Headless: %.0f ticks/s (tick %d)",
+                            (tick - reportTick) * (double) NANOS_PER_SECOND / (now - reportStart), tick));
+                    reportStart = now;
+                    reportTick = tick;
+                }
+            }
+        }
+
+        long ticks = tick - startTick;
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        lastTicksPerSecond = ticks * (double) NANOS_PER_SECOND / elapsed;
+        Logger.log(String.format("Headless run: %d ticks in %.1f ms (%.0f ticks/s)",
+                ticks, elapsed / 1_000_000.0, lastTicksPerSecond));
+        return lastTicksPerSecond;
+    }
+
+    /**
+     * Replays a recording from the current state of the engine (normally a freshly created
+     * one, as when the recording started), using its delta time, and compares the state
+     * after the last recorded tick with the checksum stored in the recording. Returns false
+     * if they differ, or if the game stops consuming the recorded ticks.
+     *
+     * The engine runs until InputSystem has consumed every recorded tick: engine ticks in
+     * which InputSystem does not run (state switches, loading, transitions) are not in the
+     * recording, so their number is not known in advance.
+     */
+    public boolean runReplay(InputReplay replay) {
+        if (replay == null) {
+            throw new IllegalArgumentException("Replay cannot be null.");
+        }
+        if (replay.getDeltaTime() > 0f && replay.getDeltaTime() != deltaTime) {
+            Logger.log("Replay recorded at delta time " + replay.getDeltaTime() + ", using it instead of " + deltaTime);
+            deltaTime = replay.getDeltaTime();
+        }
+        replay.rewind();
+        engine.setInputReplay(replay);
+        long maxStalledTicks = Math.round(MAX_REPLAY_STALL_SECONDS / deltaTime);
+        long[] lastProgressTick = { tick };
+        int[] lastPosition = { replay.getPosition() };
+        try {
+            runWhile(() -> {
+                if (replay.getPosition() != lastPosition[0]) {
+                    lastPosition[0] = replay.getPosition();
+                    lastProgressTick[0] = tick;
+                }
+                return !replay.isFinished() && tick - lastProgressTick[0] < maxStalledTicks;
+            });
+        } finally {
+            engine.setInputReplay(null);
+        }
+
+        if (!replay.isFinished()) {
+            Logger.log(String.format("Replay stalled at tick %d of %d: no input read for %d engine ticks",
+                    replay.getPosition(), replay.getTickCount(), maxStalledTicks));
+            return false;
+        }
+        long checksum = engine.computeStateChecksum();
+        if (!replay.hasChecksum()) {
+            Logger.log(String.format("Replay finished, state checksum %08x (none recorded)", checksum));
+            return true;
+        }
+        boolean match = checksum == replay.getChecksum();
+        Logger.log(String.format("Replay finished, state checksum %08x, recorded %08x: %s",
+                checksum, replay.getChecksum(), match ? "deterministic" : "MISMATCH"));
+        return match;
+    }
+
+    /**
+     * Un tick: input programmato, aggiornamento e (se richiesto) rendering fuori schermo.
+     */
+    private void step() {
+        KeyboardInputHandler inputHandler = engine.getInputHandler();
+        if (script != null && inputHandler != null) {
+            script.apply(tick, inputHandler);
+        }
+        engine.update(deltaTime);
+        tick++;
+
+        if (frame != null && tick % renderInterval == 0) {
+            Graphics2D g = frame.createGraphics();
+            try {
+                engine.render(g, 1f);
+            } finally {
+                g.dispose();
+            }
+        }
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Ticks per second measured by the last call to run().
+     */
+    public double getTicksPerSecond() {
+        return lastTicksPerSecond;
+    }
+
+    /**
+     * Last offscreen frame, or null if rendering is disabled.
+     */
+    public BufferedImage getFrame() {
+        return frame;
+    }
+
+    /**
+     * Esegue il gioco senza finestra: HeadlessRunner [tick] [tick al secondo, 0 = illimitati]
+     * oppure HeadlessRunner --replay file [tick al secondo] per riprodurre una registrazione
+     * dell'input (vedi MainECS --record).
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length > 1 && args[0].equals("--replay")) {
+            replay(Path.of(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : 0);
+            return;
+        }
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10_000;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+        Engine engine = new GameEngine(new KeyboardInputHandler(), new MouseInputHandler());
+        HeadlessRunner runner = new HeadlessRunner(engine, 60);
+        runner.setTicksPerSecond(rate);
+        runner.run(ticks);
+        engine.cleanup();
+    }
+
+    private static void replay(Path file, int rate) {
+        InputReplay replay;
+        try {
+            replay = InputReplay.load(file);
+        } catch (IOException e) {
+            Logger.log("Cannot load input recording " + file, e);
+            System.exit(2);
+            return;
+        }
+        Engine engine = new GameEngine(new KeyboardInputHandler(), new MouseInputHandler());
+        HeadlessRunner runner = new HeadlessRunner(engine, Math.round(1f / replay.getDeltaTime()));
+        runner.setTicksPerSecond(rate);
+        boolean deterministic = runner.runReplay(replay);
+        engine.cleanup();
+        if (!deterministic) {
+            System.exit(1);
+        }
+    }
+}
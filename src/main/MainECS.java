@@ -15,12 +15,16 @@ import java.awt.event.KeyEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
+import java.io.IOException;
+import java.nio.file.Path;
 import javax.swing.JFrame;
 import engine.Engine;
 import engine.GameEngine;
 import helpers.Logger;
+import input.InputRecorder;
 import input.KeyboardInputHandler;
 import input.MouseInputHandler;
+import world.AssetCache;
 
 public class MainECS {
 
@@ -30,6 +34,10 @@ public class MainECS {
     	KeyboardInputHandler inputHandler = new KeyboardInputHandler();
     	MouseInputHandler mouseInputHandler = new MouseInputHandler();
     	Engine engine = new GameEngine(inputHandler, mouseInputHandler);
+    	if (args.length > 1 && args[0].equals("--record")) {
+    		// Registra l'input dall'avvio, per riprodurlo con HeadlessRunner --replay
+    		startRecording(engine, Path.of(args[1]));
+    	}
         GamePanel gamePanel = new GamePanel(engine);
         JFrame window = createGameWindow(GAME_TITLE, gamePanel, engine);
         window.addKeyListener(inputHandler);
@@ -39,6 +47,14 @@ public class MainECS {
         window.setVisible(true);
     }
 
+    private static void startRecording(Engine engine, Path file) {
+        try {
+            engine.setInputRecorder(new InputRecorder(file));
+        } catch (IOException e) {
+            Logger.log("Cannot record input to " + file, e);
+        }
+    }
+
     private static JFrame createGameWindow(String title, GamePanel gamePanel, Engine engine) {
         JFrame window = new JFrame(title);
         window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -70,6 +86,14 @@ public class MainECS {
                 if (e.getKeyCode() == KeyEvent.VK_F) {
                 	toggleFullScreen(window);
                 }
+                if (e.getKeyCode() == KeyEvent.VK_F9) {
+                	// Salva i tempi dei sistemi in un file CSV nella cartella di lavoro
+                	engine.writeProfileCsv(Path.of("profile-" + System.currentTimeMillis() + ".csv"));
+                }
+                if (e.getKeyCode() == KeyEvent.VK_F8) {
+                	// Memoria occupata dagli asset condivisi
+                	Logger.log("Asset cache:\n" + AssetCache.getMemoryReport());
+                }
                 
             }
 
@@ -112,6 +136,16 @@ public class MainECS {
     private static void closeGame(JFrame window, GamePanel gamePanel, Engine engine) {
     	Logger.log("Closing game...");
     	gamePanel.stopGameLoop();
+    	InputRecorder recorder = engine.getInputRecorder();
+    	if (recorder != null) {
+    		// Il checksum è quello preso dall'engine dopo l'ultimo tick registrato
+    		engine.setInputRecorder(null);
+    		try {
+    			recorder.close();
+    		} catch (IOException e) {
+    			Logger.log("Cannot complete input recording", e);
+    		}
+    	}
         engine.cleanup();
         window.dispose();
         System.exit(0);
@@ -10,14 +10,21 @@ package pathfinder;
 import java.util.ArrayList;
 import java.util.List;
 
+import world.SolidityGrid;
+
 public class AStarSearch extends PathFinder {
 
     public AStarSearch(boolean[][] grid) {
         super(grid);
     }
 
+    public AStarSearch(SolidityGrid grid) {
+        super(grid);
+    }
+
 	@Override
     public boolean search() {
+        expandedNodes = 0;
         startNode = nodes[startNode.y][startNode.x];
         goalNode = nodes[goalNode.y][goalNode.x];
         openList.clear();
@@ -32,6 +39,7 @@ public class AStarSearch extends PathFinder {
         while (!openList.isEmpty()) {
             Node current = openList.poll();
             current.closed = true;
+            expandedNodes++;
 
             if (current == goalNode) {
                 reconstructPath();
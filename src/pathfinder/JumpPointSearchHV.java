@@ -9,14 +9,21 @@ package pathfinder;
 
 import java.util.*;
 
+import world.SolidityGrid;
+
 public class JumpPointSearchHV extends PathFinder {
 
 	public JumpPointSearchHV(boolean[][] grid) {
 		super(grid);
 	}
 
+	public JumpPointSearchHV(SolidityGrid grid) {
+		super(grid);
+	}
+
 	@Override
 	public boolean search() {
+		expandedNodes = 0;
 		if (startNode.y>=0 && startNode.y<nodes.length &&
 				startNode.x>=0 && startNode.x<nodes[0].length) {
 			startNode = nodes[startNode.y][startNode.x];
@@ -37,6 +44,7 @@ public class JumpPointSearchHV extends PathFinder {
 		while (!openList.isEmpty()) {
 			Node current = openList.poll();
 			current.closed = true;
+			expandedNodes++;
 
 			if (current == goalNode) {
 				reconstructPath();
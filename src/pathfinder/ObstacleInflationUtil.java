@@ -7,6 +7,8 @@
  */
 package pathfinder;
 
+import world.SolidityGrid;
+
 public class ObstacleInflationUtil {
     /**
      * Inflates obstacles so that an entity with a bounding box of size
@@ -30,14 +32,26 @@ public class ObstacleInflationUtil {
             int boxWidthPx, 
             int boxHeightPx) 
     {
-    	int mapHeight = originalGrid.length;
-    	int mapWidth = originalGrid[0].length; 
-        // Clone original grid to avoid modifying it in-place
-        boolean[][] inflatedGrid = new boolean[mapHeight][mapWidth];
-        for (int r = 0; r < mapHeight; r++) {
-            System.arraycopy(originalGrid[r], 0, inflatedGrid[r], 0, mapWidth);
-        }
+        int radius = getInflationRadius(tileWidthPx, tileHeightPx, boxWidthPx, boxHeightPx);
+        return SolidityGrid.fromArray(originalGrid).inflate(radius).toArray();
+    }
 
+    /**
+     * Same as above on a SolidityGrid. The result is shared: entities with the same
+     * inflation radius on the same map get the same grid, and a radius of 0 returns
+     * the original grid.
+     */
+    public static SolidityGrid inflateObstacles(
+            SolidityGrid originalGrid,
+            int tileWidthPx,
+            int tileHeightPx,
+            int boxWidthPx,
+            int boxHeightPx)
+    {
+        return originalGrid.inflate(getInflationRadius(tileWidthPx, tileHeightPx, boxWidthPx, boxHeightPx));
+    }
+
+    private static int getInflationRadius(int tileWidthPx, int tileHeightPx, int boxWidthPx, int boxHeightPx) {
         // Compute how many tiles to inflate around each solid tile
         int boxWidthTiles  = (int) Math.ceil((float) boxWidthPx  / tileWidthPx);
         int boxHeightTiles = (int) Math.ceil((float) boxHeightPx / tileHeightPx);
@@ -48,26 +62,6 @@ public class ObstacleInflationUtil {
         int inflateY = (int) Math.floor((boxHeightTiles - 1) / 2.0);
 
         // For a simpler approach, we can unify them:
-        int inflate = Math.max(inflateX, inflateY);
-
-        // Mark around each solid tile
-        for (int row = 0; row < mapHeight; row++) {
-            for (int col = 0; col < mapWidth; col++) {
-                if (originalGrid[row][col]) {
-                    // This tile is solid => inflate
-                    for (int dr = -inflate; dr <= inflate; dr++) {
-                        for (int dc = -inflate; dc <= inflate; dc++) {
-                            int nr = row + dr;
-                            int nc = col + dc;
-                            if (nr >= 0 && nr < mapHeight && nc >= 0 && nc < mapWidth) {
-                                inflatedGrid[nr][nc] = true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        return inflatedGrid;
+        return Math.max(Math.max(inflateX, inflateY), 0);
     }
 }
@@ -12,16 +12,24 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 
+import engine.jfr.PathSearchEvent;
+import world.SolidityGrid;
+
 public abstract class PathFinder {
 
-	protected boolean[][] grid;
+	protected final SolidityGrid grid;
     protected Node startNode;
     protected Node goalNode;
     protected Node[][] nodes;
     protected PriorityQueue<Node> openList;
     protected List<Node> path;
+    protected int expandedNodes; // Nodi estratti dalla open list nell'ultima ricerca
 
     public PathFinder(boolean[][] grid) {
+        this(SolidityGrid.fromArray(grid));
+    }
+
+    public PathFinder(SolidityGrid grid) {
         this.grid = grid;
         initializeNodes();
         openList = new PriorityQueue<>(Comparator.comparingInt(n -> n.fCost));
@@ -49,13 +57,13 @@ public abstract class PathFinder {
 	}
 
 	protected void initializeNodes() {
-        int rows = grid.length;
-        int cols = grid[0].length;
+        int rows = grid.getRows();
+        int cols = grid.getCols();
         nodes = new Node[rows][cols];
         for (int y = 0; y < rows; y++) {
             for (int x = 0; x < cols; x++) {
                 nodes[y][x] = new Node(x, y);
-                nodes[y][x].walkable = !grid[y][x]; // 0 is walkable, 1 is obstacle
+                nodes[y][x].walkable = !grid.isSolid(y, x); // 0 is walkable, 1 is obstacle
             }
         }
     }
@@ -73,8 +81,42 @@ public abstract class PathFinder {
         }
     }
 
+    /**
+     * Searches a path from the start node to the goal node (see setNodes). Returns true
+     * if a path was found (see getPath). Implementations can count the nodes taken from
+     * the open list in expandedNodes, resetting it at the start of the search.
+     */
     public abstract boolean search();
 
+    /**
+     * Like search(), recording the search as a JFR event.
+     */
+    public final boolean timedSearch() {
+        PathSearchEvent event = new PathSearchEvent();
+        event.begin();
+        boolean found = search();
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = getClass().getSimpleName();
+            event.startX = startNode.x;
+            event.startY = startNode.y;
+            event.goalX = goalNode.x;
+            event.goalY = goalNode.y;
+            event.found = found;
+            event.pathLength = (found && path != null) ? path.size() : 0;
+            event.expandedNodes = expandedNodes;
+            event.commit();
+        }
+        return found;
+    }
+
+    /**
+     * Number of nodes expanded by the last search.
+     */
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
     protected abstract int getHeuristic(Node a, Node b);
 
     protected Node getNode(int x, int y) {
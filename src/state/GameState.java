@@ -16,15 +16,38 @@ import transition.TransitionEffect;
 
 public abstract class GameState {
 	protected Engine engine;
+	private volatile float loadingProgress = 0f; // Avanzamento di preload(), da 0 a 1
 
 	public GameState(Engine engine) {
 		this.engine = engine;
 		Entity.resetId();
 	}
 	
+    /**
+     * Loads the assets of the state (images, tilesets, spritesheets, pre-rendered maps)
+     * before it becomes current. Runs on a background thread while the previous state and
+     * its exit transition are still running, so it must not touch the engine: entities
+     * and systems are created in init(), on the game thread, once preload() has returned.
+     * Call setLoadingProgress() to update the loading screen.
+     */
+    public void preload() {
+        // Default: nessun caricamento anticipato, tutto avviene in init()
+    }
+
     public abstract void init();
     public abstract void cleanup();
 
+    /**
+     * Reports how much of preload() is done, from 0 to 1.
+     */
+    protected void setLoadingProgress(float progress) {
+        this.loadingProgress = Math.max(0f, Math.min(1f, progress));
+    }
+
+    public float getLoadingProgress() {
+        return loadingProgress;
+    }
+
     public TransitionEffect getEnterTransition() {
         return null; // Default: nessuna transizione
     }
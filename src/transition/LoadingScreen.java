@@ -0,0 +1,44 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package transition;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import main.GamePanel;
+
+/**
+ * Screen drawn by the engine while the game waits for the next state to finish
+ * GameState.preload(): a black background with a progress bar. Subclasses can
+ * override render() to draw a custom screen.
+ */
+public class LoadingScreen {
+    private static final int BAR_WIDTH = 240;
+    private static final int BAR_HEIGHT = 12;
+    private static final Font FONT = new Font("Monospaced", Font.PLAIN, 12);
+
+    /**
+     * @param progress completed fraction of the preload, from 0 to 1
+     */
+    public void render(Graphics2D g, float progress) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT);
+
+        int x = (GamePanel.GAME_WIDTH - BAR_WIDTH) / 2;
+        int y = (GamePanel.GAME_HEIGHT - BAR_HEIGHT) / 2;
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(x, y, BAR_WIDTH, BAR_HEIGHT);
+        g.setColor(Color.WHITE);
+        g.fillRect(x, y, Math.round(BAR_WIDTH * progress), BAR_HEIGHT);
+        g.drawRect(x, y, BAR_WIDTH, BAR_HEIGHT);
+
+        g.setFont(FONT);
+        g.drawString(String.format("Loading... %d%%", Math.round(progress * 100)), x, y - 8);
+    }
+}
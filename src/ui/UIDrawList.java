@@ -0,0 +1,154 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package ui;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import main.GamePanel;
+
+/**
+ * What the UI draws in a frame, as a list of commands with their arguments copied
+ * (image, text, font, colour, screen position). The UISystem fills it on the game thread
+ * through UIElement.record() and the rendering thread replays it with render(), so the
+ * renderer never reads the UI elements while the game updates them.
+ *
+ * Elements that do not record their commands are drawn by their render() method into an
+ * offscreen layer on the game thread, and the layer is added to the list as an image.
+ * The arrays and the layers are reused from one frame to the next.
+ */
+public final class UIDrawList {
+    private static final byte IMAGE = 0;
+    private static final byte TEXT = 1;
+    private static final byte FILL_RECT = 2;
+
+    private byte[] kinds = new byte[16];
+    private BufferedImage[] images = new BufferedImage[16];
+    private String[] texts = new String[16];
+    private Font[] fonts = new Font[16];
+    private Color[] colors = new Color[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private int[] widths = new int[16];
+    private int[] heights = new int[16];
+    private int count;
+
+    // Layer offscreen per gli elementi senza comandi propri: uno per ogni gruppo consecutivo
+    private BufferedImage[] layers = new BufferedImage[0];
+    private int layersUsed;
+
+    public void clear() {
+        Arrays.fill(images, 0, count, null);
+        Arrays.fill(texts, 0, count, null);
+        Arrays.fill(fonts, 0, count, null);
+        Arrays.fill(colors, 0, count, null);
+        count = 0;
+        layersUsed = 0;
+    }
+
+    public void drawImage(BufferedImage image, int x, int y) {
+        if (image == null) {
+            return;
+        }
+        int i = next(IMAGE, x, y);
+        images[i] = image;
+    }
+
+    public void drawString(String text, Font font, Color color, int x, int y) {
+        if (text == null) {
+            return;
+        }
+        int i = next(TEXT, x, y);
+        texts[i] = text;
+        fonts[i] = font;
+        colors[i] = color;
+    }
+
+    public void fillRect(Color color, int x, int y, int width, int height) {
+        int i = next(FILL_RECT, x, y);
+        colors[i] = color;
+        widths[i] = width;
+        heights[i] = height;
+    }
+
+    /**
+     * Draws the element with its render() method into an offscreen layer, for the elements
+     * that do not record their own commands. Consecutive elements share the same layer.
+     */
+    public void drawElement(UIElement element, int cameraX, int cameraY) {
+        BufferedImage layer;
+        if (layersUsed > 0 && count > 0 && kinds[count - 1] == IMAGE && images[count - 1] == layers[layersUsed - 1]) {
+            layer = layers[layersUsed - 1]; // L'ultimo comando è già il layer corrente
+        } else {
+            if (layersUsed == layers.length) {
+                layers = Arrays.copyOf(layers, layersUsed + 1);
+                layers[layersUsed] = new BufferedImage(GamePanel.GAME_WIDTH, GamePanel.GAME_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            }
+            layer = layers[layersUsed++];
+            Graphics2D g = layer.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, layer.getWidth(), layer.getHeight());
+            g.dispose();
+            drawImage(layer, 0, 0);
+        }
+        Graphics2D g = layer.createGraphics();
+        try {
+            element.render(g, cameraX, cameraY);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private int next(byte kind, int x, int y) {
+        if (count == kinds.length) {
+            int capacity = count * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            images = Arrays.copyOf(images, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            fonts = Arrays.copyOf(fonts, capacity);
+            colors = Arrays.copyOf(colors, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+        }
+        kinds[count] = kind;
+        xs[count] = x;
+        ys[count] = y;
+        return count++;
+    }
+
+    /**
+     * Ripete i comandi nell'ordine in cui sono stati registrati.
+     */
+    public void render(Graphics2D g) {
+        for (int i = 0; i < count; i++) {
+            switch (kinds[i]) {
+                case IMAGE:
+                    g.drawImage(images[i], xs[i], ys[i], null);
+                    break;
+                case TEXT:
+                    g.setFont(fonts[i]);
+                    g.setColor(colors[i]);
+                    g.drawString(texts[i], xs[i], ys[i]);
+                    break;
+                case FILL_RECT:
+                    g.setColor(colors[i]);
+                    g.fillRect(xs[i], ys[i], widths[i], heights[i]);
+                    break;
+            }
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+}
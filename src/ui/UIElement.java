@@ -78,6 +78,15 @@ public abstract class UIElement {
     public abstract void update(float deltaTime);
     public abstract void render(Graphics2D g, int cameraX, int cameraY);
 
+    /**
+     * Copies into the list what render() would draw now. Called by the UISystem on the game
+     * thread, so that the rendering thread never reads the element. By default the element
+     * is drawn with render() into an offscreen layer; subclasses record their commands.
+     */
+    public void record(UIDrawList list, int cameraX, int cameraY) {
+        list.drawElement(this, cameraX, cameraY);
+    }
+
     public void handleInput(KeyInputComponent keyInput) {}
     public void handleMouseInput(MouseInputHandler mouseInput) {}
 }
\ No newline at end of file
@@ -52,6 +52,15 @@ public class UIGroup extends UIElement {
         }
     }
 
+    @Override
+    public void record(UIDrawList list, int xOffset, int yOffset) {
+        if (isVisible()) {
+            for (UIElement child : children) {
+                child.record(list, xOffset, yOffset);
+            }
+        }
+    }
+
     @Override
     public void update(float deltaTime) {
         if (isVisible()) {
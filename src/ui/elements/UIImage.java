@@ -9,12 +9,11 @@ package ui.elements;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import javax.imageio.ImageIO;
 
+import ui.UIDrawList;
 import ui.UIElement;
 import ui.UISpritesheet;
+import world.AssetCache;
 
 public class UIImage extends UIElement {
     private BufferedImage[] images;
@@ -33,15 +32,11 @@ public class UIImage extends UIElement {
 
     public UIImage(int x, int y, int zIndex, String fileName) {
         super(x, y, zIndex);
-        try (InputStream is = getClass().getResourceAsStream(fileName)) {
-            images = new BufferedImage[1];
-            images[0] = ImageIO.read(is);
-            this.looping = false;
-            this.animating = true;
-            this.moving = false;
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        images = new BufferedImage[1];
+        images[0] = AssetCache.getImage(fileName); // Immagine condivisa, decodificata una sola volta
+        this.looping = false;
+        this.animating = true;
+        this.moving = false;
     }
 
     public UIImage(int x, int y, int zIndex, UISpritesheet spritesheet, float frameDuration) {
@@ -152,4 +147,17 @@ public class UIImage extends UIElement {
             g.drawImage(images[currentFrame], drawX, drawY, null);
         }
     }
+
+    @Override
+    public void record(UIDrawList list, int xOffset, int yOffset) {
+        if (isVisible() && images != null && images[currentFrame] != null) {
+            int drawX = getGlobalX();
+            int drawY = getGlobalY();
+            if (this.useCameraOffsets) {
+            	drawX -= xOffset;
+            	drawY -= yOffset;
+            }
+            list.drawImage(images[currentFrame], drawX, drawY);
+        }
+    }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics2D;
 
+import ui.UIDrawList;
 import ui.UIElement;
 
 public class UILabel extends UIElement {
@@ -45,6 +46,18 @@ public class UILabel extends UIElement {
         g2d.drawString(text, drawX, drawY);
     }
 
+    @Override
+    public void record(UIDrawList list, int cameraX, int cameraY) {
+        if (!isVisible()) return;
+        int drawX = getGlobalX();
+        int drawY = getGlobalY();
+        if (usesCameraOffsets()) {
+            drawX -= cameraX;
+            drawY -= cameraY;
+        }
+        list.drawString(text, font, color, drawX, drawY);
+    }
+
     public String getText() {
 		return text;
 	}
@@ -12,6 +12,7 @@ import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import engine.components.MotionComponent;
 import engine.components.ColliderComponent;
+import ui.UIDrawList;
 import ui.UIElement;
 import ui.UISpritesheet;
 import engine.Entity;
@@ -73,6 +74,24 @@ public class UINotification extends UIElement {
         g.drawImage(frames[currentFrame], worldX, worldY, null);
     }
 
+    @Override
+    public void record(UIDrawList list, int cameraX, int cameraY) {
+        if (!isVisible() || frames == null || frames[currentFrame] == null) return;
+
+        MotionComponent position = trackedEntity.getComponent(MotionComponent.class);
+        ColliderComponent collider = trackedEntity.getComponent(ColliderComponent.class);
+        if (position == null || collider == null) return;
+
+        Rectangle boundingBox = collider.getBoundingBox();
+        int worldX = (int) position.getX() + boundingBox.x + offsetX;
+        int worldY = (int) position.getY() + boundingBox.y + offsetY;
+        if (usesCameraOffsets()) {
+            worldX -= cameraX;
+            worldY -= cameraY;
+        }
+        list.drawImage(frames[currentFrame], worldX, worldY);
+    }
+
     public void resetAnimation() {
         this.currentFrame = 0;
         this.elapsedTime = 0f;
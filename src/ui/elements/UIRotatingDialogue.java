@@ -12,17 +12,17 @@ import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
-import javax.imageio.ImageIO;
 import engine.EngineStateManager;
 import engine.components.KeyInputComponent;
 import enums.EngineState;
+import helpers.ImageUtils;
 import helpers.Logger;
 import input.ActionStateManager;
 import main.GamePanel;
 import ui.UIDialogue;
+import ui.UIDrawList;
+import world.AssetCache;
 
 public class UIRotatingDialogue extends UIDialogue {
     private final int width;
@@ -46,14 +46,14 @@ public class UIRotatingDialogue extends UIDialogue {
         BufferedImage loadedPanel = null;
         int loadedWidth = 0;
         int loadedHeight = 0;
-        try (InputStream is = getClass().getResourceAsStream(frameFile)) {
-            loadedPanel = ImageIO.read(is);
+        loadedPanel = AssetCache.getImage(frameFile); // Immagine condivisa, decodificata una sola volta
+        if (loadedPanel != null) {
             loadedWidth = loadedPanel.getWidth();
             loadedHeight = loadedPanel.getHeight();
             setX((GamePanel.GAME_WIDTH - loadedWidth) / 2);
             setY(GamePanel.GAME_HEIGHT - (GamePanel.GAME_HEIGHT / 8) - loadedHeight);
-        } catch (IOException e) {
-            Logger.log("IOException while loading dialogue panel", e);
+        } else {
+            Logger.log("Cannot load dialogue panel " + frameFile);
         }
 
         this.panel = loadedPanel;
@@ -89,7 +89,7 @@ public class UIRotatingDialogue extends UIDialogue {
             imgHeight += fontMetrics.getHeight();
         }
 
-        BufferedImage textImage = new BufferedImage(imgWidth, imgHeight, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage textImage = ImageUtils.createCompatibleImage(imgWidth, imgHeight);
         Graphics2D g2d = textImage.createGraphics();
         g2d.setFont(textFont);
         g2d.setColor(textColor);
@@ -139,6 +139,20 @@ public class UIRotatingDialogue extends UIDialogue {
         g.drawImage(dialogueImages[currentMessageIndex], drawX + 20, drawY + 20, null);
     }
 
+    @Override
+    public void record(UIDrawList list, int xOffset, int yOffset) {
+        if (state != DialogueState.ACTIVE || dialogueImages == null || !isVisible()) return;
+        int drawX = getGlobalX();
+        int drawY = getGlobalY();
+        if (usesCameraOffsets()) {
+            drawX -= xOffset;
+            drawY -= yOffset;
+        }
+        list.fillRect(backgroundColor, drawX, drawY, width, height);
+        list.drawImage(panel, drawX, drawY);
+        list.drawImage(dialogueImages[currentMessageIndex], drawX + 20, drawY + 20);
+    }
+
     @Override
     public void handleInput(KeyInputComponent keyInput) {
         if (state == DialogueState.FINISHED) {
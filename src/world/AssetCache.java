@@ -0,0 +1,272 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+
+package world;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
+
+import helpers.ImageUtils;
+import helpers.Logger;
+
+/**
+ * Registry of the decoded assets (images, sliced spritesheets, character sheets, tilesets),
+ * keyed by resource path and slicing parameters: every resource is decoded once and the
+ * same images are shared by all the objects built from it. Shared images must be treated
+ * as read only.
+ *
+ * Each asset counts the scopes (normally game states) that requested it: the engine sets
+ * the scope of the thread that runs GameState.preload() and init(), and releases it when
+ * the state is cleaned up. An asset no longer used by any scope is kept only through a
+ * SoftReference, so it is reused for free if the next state asks for it again, and
+ * reclaimed by the garbage collector if memory runs low.
+ */
+public final class AssetCache {
+
+    /**
+     * Loads an asset on a cache miss; returning null means the load failed (nothing is cached).
+     */
+    @FunctionalInterface
+    public interface Loader<T, E extends Exception> {
+        T load() throws E;
+    }
+
+    private static final class Entry {
+        final String key;
+        final Set<Object> scopes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Object value;                 // Riferimento forte, finché almeno uno scope usa l'asset
+        SoftReference<Object> cached; // Riferimento debole, sopravvive al rilascio degli scope
+        long bytes;
+        int hits;
+        int loads;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        Object get() {
+            return value != null ? value : (cached != null ? cached.get() : null);
+        }
+    }
+
+    private static final Object GLOBAL_SCOPE = "global"; // Richieste fatte fuori da uno stato: mai rilasciate
+    private static final Map<String, Entry> entries = new HashMap<>();
+    private static final ThreadLocal<Object> threadScope = new ThreadLocal<>();
+
+    private AssetCache() {
+        // Classe di utility, non istanziabile
+    }
+
+    /**
+     * Returns the asset cached under {@code key}, calling the loader if it is not cached
+     * (or has been reclaimed). The asset is retained by the scope of the calling thread.
+     */
+    public static <T, E extends Exception> T get(String key, Class<T> type, Loader<T, E> loader) throws E {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(key, Entry::new);
+        }
+        // Lock per asset: altri asset possono essere caricati in parallelo (preload e gioco)
+        synchronized (entry) {
+            Object value = entry.get();
+            if (value != null) {
+                entry.hits++;
+            } else {
+                value = loader.load();
+                if (value == null) {
+                    return null;
+                }
+                if (entry.loads > 0) {
+                    Logger.log("Asset " + key + " was reclaimed and has been loaded again.");
+                }
+                entry.loads++;
+                entry.cached = new SoftReference<>(value);
+                entry.bytes = estimateBytes(value);
+            }
+            entry.value = value;
+            entry.scopes.add(currentScope());
+            return type.cast(value);
+        }
+    }
+
+    /**
+     * Returns the decoded image at the given resource path, or null if it cannot be read.
+     */
+    public static BufferedImage getImage(String path) {
+        return get("image:" + path, BufferedImage.class, () -> readImage(path));
+    }
+
+    /**
+     * Decodes an image resource without caching it (null if missing or unreadable), converted
+     * to the display format (see ImageUtils).
+     */
+    static BufferedImage readImage(String path) {
+        try (InputStream is = AssetCache.class.getResourceAsStream(path)) {
+            if (is == null) {
+                Logger.log("Image resource not found: " + path);
+                return null;
+            }
+            return ImageUtils.toCompatibleImage(ImageIO.read(is));
+        } catch (IOException e) {
+            Logger.log("Error reading image " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Sets the scope of the calling thread: the assets it requests from now on are retained
+     * by {@code scope} until releaseScope(scope). Null means the global scope.
+     */
+    public static void setThreadScope(Object scope) {
+        if (scope == null) {
+            threadScope.remove();
+        } else {
+            threadScope.set(scope);
+        }
+    }
+
+    private static Object currentScope() {
+        Object scope = threadScope.get();
+        return scope != null ? scope : GLOBAL_SCOPE;
+    }
+
+    /**
+     * Releases every asset retained by {@code scope}: the ones no other scope uses are
+     * kept only softly, ready to be reused or reclaimed.
+     */
+    public static void releaseScope(Object scope) {
+        int released = 0;
+        for (Entry entry : snapshotEntries()) {
+            synchronized (entry) {
+                if (entry.scopes.remove(scope) && entry.scopes.isEmpty()) {
+                    entry.value = null;
+                    released++;
+                }
+            }
+        }
+        if (released > 0) {
+            Logger.log("Released " + released + " assets no longer in use.");
+        }
+    }
+
+    /**
+     * Forgets every asset (the objects already built keep their images).
+     */
+    public static void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Estimated memory of the assets retained by at least one scope, in bytes.
+     */
+    public static long getActiveBytes() {
+        long total = 0;
+        for (Entry entry : snapshotEntries()) {
+            synchronized (entry) {
+                if (entry.value != null) {
+                    total += entry.bytes;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * One line per asset, largest first: estimated size, state (active, soft or reclaimed),
+     * number of scopes using it, cache hits and loads.
+     */
+    public static String getMemoryReport() {
+        List<Entry> list = snapshotEntries();
+        list.sort((a, b) -> Long.compare(b.bytes, a.bytes));
+        StringBuilder report = new StringBuilder();
+        long active = 0, soft = 0;
+        for (Entry entry : list) {
+            synchronized (entry) {
+                String state;
+                if (entry.value != null) {
+                    state = "active";
+                    active += entry.bytes;
+                } else if (entry.get() != null) {
+                    state = "soft";
+                    soft += entry.bytes;
+                } else {
+                    state = "reclaimed";
+                }
+                report.append(String.format("%9.1f KB  %-9s scopes=%d hits=%d loads=%d  %s%n",
+                        entry.bytes / 1024.0, state, entry.scopes.size(), entry.hits, entry.loads, entry.key));
+            }
+        }
+        report.append(String.format("Total: %.1f KB active, %.1f KB soft, %d assets%n",
+                active / 1024.0, soft / 1024.0, list.size()));
+        return report.toString();
+    }
+
+    private static List<Entry> snapshotEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.values());
+        }
+    }
+
+    /**
+     * Stima la memoria delle immagini raggiungibili da un asset. Le sotto-immagini e le
+     * regioni di un texture atlas condividono il DataBuffer dell'immagine da cui sono
+     * ritagliate, che viene contato una volta.
+     */
+    private static long estimateBytes(Object value) {
+        Set<DataBuffer> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        return estimateBytes(value, counted);
+    }
+
+    private static long estimateBytes(Object value, Set<DataBuffer> counted) {
+        if (value instanceof BufferedImage) {
+            DataBuffer buffer = ((BufferedImage) value).getRaster().getDataBuffer();
+            if (!counted.add(buffer)) {
+                return 0;
+            }
+            return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        }
+        if (value instanceof Object[]) {
+            long total = 0;
+            for (Object element : (Object[]) value) {
+                total += estimateBytes(element, counted);
+            }
+            return total;
+        }
+        if (value instanceof CharacterSpritesheet) {
+            CharacterSpritesheet sheet = (CharacterSpritesheet) value;
+            return estimateBytes(sheet.spriteSheet, counted) + estimateBytes(sheet.sprites, counted)
+                    + estimateBytes(sheet.getRegions(), counted);
+        }
+        if (value instanceof Spritesheet) {
+            Spritesheet sheet = (Spritesheet) value;
+            return estimateBytes(sheet.spriteSheet, counted) + estimateBytes(sheet.sprites, counted);
+        }
+        if (value instanceof Tileset) {
+            Tileset tileset = (Tileset) value;
+            return estimateBytes(tileset.tileset, counted) + estimateBytes(tileset.tileRegions, counted);
+        }
+        if (value instanceof AtlasRegion) {
+            AtlasRegion region = (AtlasRegion) value;
+            return estimateBytes(region.getPage(), counted) + estimateBytes(region.getCachedImage(), counted);
+        }
+        return 0;
+    }
+}
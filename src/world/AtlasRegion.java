@@ -0,0 +1,133 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package world;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import helpers.ImageUtils;
+
+/**
+ * A frame (sprite frame or tile) stored in a page of a TextureAtlas. The transparent
+ * borders of the frame are trimmed away: the region covers only the visible pixels,
+ * which start at (offsetX, offsetY) inside the original frame of size
+ * originalWidth x originalHeight. draw() takes care of the offset, so a region is
+ * drawn exactly where the original frame would have been.
+ */
+public final class AtlasRegion {
+    BufferedImage page;  // Null se il frame è completamente trasparente
+    int x;               // Posizione dei pixel visibili nella pagina
+    int y;
+    int width;
+    int height;
+    int offsetX;         // Posizione dei pixel visibili nel frame originale
+    int offsetY;
+    final int originalWidth;
+    final int originalHeight;
+    private BufferedImage image; // Immagine a grandezza originale, creata solo se richiesta
+
+    AtlasRegion(int originalWidth, int originalHeight) {
+        this.originalWidth = originalWidth;
+        this.originalHeight = originalHeight;
+    }
+
+    /**
+     * Region covering a whole image, without packing or trimming (the image is not copied).
+     */
+    public static AtlasRegion wrap(BufferedImage image) {
+        if (image == null) {
+            throw new IllegalArgumentException("Image cannot be null.");
+        }
+        AtlasRegion region = new AtlasRegion(image.getWidth(), image.getHeight());
+        region.page = image;
+        region.width = image.getWidth();
+        region.height = image.getHeight();
+        region.image = image;
+        return region;
+    }
+
+    /**
+     * Draws the frame with its top left corner (before trimming) at (dx, dy).
+     */
+    public void draw(Graphics2D g, int dx, int dy) {
+        if (page == null) {
+            return;
+        }
+        int left = dx + offsetX;
+        int top = dy + offsetY;
+        g.drawImage(page, left, top, left + width, top + height, x, y, x + width, y + height, null);
+    }
+
+    /**
+     * The frame as a separate image of the original size, for code that needs a
+     * BufferedImage. Untrimmed regions return a view on the page; trimmed ones are
+     * copied once into a new image, so draw() should be preferred when rendering.
+     */
+    public synchronized BufferedImage getImage() {
+        if (image == null) {
+            if (page != null && width == originalWidth && height == originalHeight) {
+                image = page.getSubimage(x, y, width, height);
+            } else {
+                image = ImageUtils.createCompatibleImage(originalWidth, originalHeight);
+                Graphics2D g = image.createGraphics();
+                draw(g, 0, 0);
+                g.dispose();
+            }
+        }
+        return image;
+    }
+
+    /** Page of the atlas containing the frame, or null if the frame is fully transparent. */
+    public BufferedImage getPage() {
+        return page;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /** Width of the visible (trimmed) part of the frame. */
+    public int getWidth() {
+        return width;
+    }
+
+    /** Height of the visible (trimmed) part of the frame. */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    public int getOriginalWidth() {
+        return originalWidth;
+    }
+
+    public int getOriginalHeight() {
+        return originalHeight;
+    }
+
+    /** True if transparent borders were removed from the frame. */
+    public boolean isTrimmed() {
+        return width != originalWidth || height != originalHeight;
+    }
+
+    /** Copia dell'immagine già creata da getImage() (per la stima della memoria). */
+    BufferedImage getCachedImage() {
+        return image;
+    }
+}
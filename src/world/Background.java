@@ -8,9 +8,6 @@
 package world;
 
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import javax.imageio.ImageIO;
 
 public class Background {
     private BufferedImage image;
@@ -37,20 +34,6 @@ public class Background {
 	}
 
 	private BufferedImage loadImage(String fileName) {
-		InputStream is = getClass().getResourceAsStream(fileName);
-		BufferedImage image = null;
-		try {
-			image = ImageIO.read(is);
-		} catch (IOException e) {
-			e.printStackTrace();
-		} finally {
-			try {
-				// to free resources
-				is.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		}
-		return image;
+		return AssetCache.getImage(fileName); // Immagine condivisa, decodificata una sola volta
 	}
 }
\ No newline at end of file
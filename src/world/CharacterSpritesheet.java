@@ -14,30 +14,75 @@ import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import engine.jfr.AssetLoadEvent;
 import enums.Action;
 import enums.Direction;
 
 public class CharacterSpritesheet extends Spritesheet {
-    private BufferedImage[][][] images;
+    private AtlasRegion[][][] regions; // regions[action][direction][frame], nelle pagine di un texture atlas
+    private BufferedImage[][][] images; // Creato solo se richiesto da getImages()
     private Rectangle boundingBox;
     private Map<Direction, Rectangle> directionalBoundingBoxes; // Bounding box per direzione
 
     public CharacterSpritesheet(String fileName, int frameWidth, int frameHeight, int margin, int spacing) {
         super(fileName, frameWidth, frameHeight, margin, spacing);
         images = new BufferedImage[Action.values().length][Direction.values().length][];
+        regions = new AtlasRegion[Action.values().length][Direction.values().length][];
         init();
     }
 
     public CharacterSpritesheet(String fileName, int frameWidth, int frameHeight) {
         super(fileName, frameWidth, frameHeight, 0, 0);
         images = new BufferedImage[Action.values().length][Direction.values().length][];
+        regions = new AtlasRegion[Action.values().length][Direction.values().length][];
         init();
     }
+    /**
+     * Spritesheet whose frames are already available in memory, indexed as
+     * images[action][direction][frame] (see Action.getActionIndex and Direction.getDirectionIndex).
+     * The frames are copied into a texture atlas, used for rendering.
+     */
+    public CharacterSpritesheet(BufferedImage[][][] images, int frameWidth, int frameHeight, Rectangle boundingBox) {
+        if (images == null) {
+            throw new IllegalArgumentException("Images cannot be null.");
+        }
+        this.images = images;
+        this.regions = packImages(images);
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.boundingBox = boundingBox;
+        this.directionalBoundingBoxes = Collections.emptyMap();
+    }
+
+    /**
+     * Spritesheet described by a configuration file. Only the frames listed in the file
+     * (flipped ones included) are kept, packed into a texture atlas; getSprite() is not
+     * available for these spritesheets. Frames and bounding boxes are built once per file
+     * and shared through the AssetCache.
+     */
     public CharacterSpritesheet(String configFile) {
-    	loadSpriteData(configFile);
+        CharacterSpritesheet shared = AssetCache.get("character:" + configFile, CharacterSpritesheet.class, () -> {
+            CharacterSpritesheet sheet = new CharacterSpritesheet();
+            sheet.loadSpriteData(configFile);
+            return sheet;
+        });
+        this.spriteSheet = shared.spriteSheet;
+        this.sprites = shared.sprites;
+        this.rows = shared.rows;
+        this.cols = shared.cols;
+        this.frameWidth = shared.frameWidth;
+        this.frameHeight = shared.frameHeight;
+        this.regions = shared.regions;
+        this.boundingBox = shared.boundingBox;
+        this.directionalBoundingBoxes = shared.directionalBoundingBoxes;
+    }
+
+    private CharacterSpritesheet() {
+        // Usato solo per caricare l'istanza condivisa
     }
 
     private void loadSpriteData(String configFile) {
@@ -100,11 +145,10 @@ public class CharacterSpritesheet extends Spritesheet {
             }
 
             if (spriteFile != null) {
-                initialize(spriteFile, frameWidth, frameHeight, 0, 0); // Inizializza il spritesheet
-//                initializeFrames(frameData); // Popola l'array images
-                initializeFrames(frameData, flippedData); // Popola l'array images
+                packFrames(spriteFile, frameWidth, frameHeight, frameData, flippedData); // Popola l'array regions
                 this.boundingBox = boundingBox; // Imposta la bounding box
-                this.directionalBoundingBoxes = directionalBoundingBoxes;
+                // Sola lettura: l'istanza è condivisa tra i thread e tra tutti i personaggi dello stesso file
+                this.directionalBoundingBoxes = Collections.unmodifiableMap(directionalBoundingBoxes);
             }
 
         } catch (Exception e) {
@@ -113,10 +157,27 @@ public class CharacterSpritesheet extends Spritesheet {
         }
     }
     
-	private void initializeFrames(Map<Action, Map<Direction, List<Point>>> frameData,
+	/**
+	 * Copia nel texture atlas solo i frame usati dalle animazioni, ribaltando quelli marcati (f).
+	 * L'immagine decodificata non viene conservata.
+	 */
+	private void packFrames(String spriteFile, int frameWidth, int frameHeight,
+			Map<Action, Map<Direction, List<Point>>> frameData,
 			Map<Action, Map<Direction, List<Boolean>>> flippedData) {
-		this.images = new BufferedImage[Action.values().length][Direction.values().length][];
+		AssetLoadEvent event = new AssetLoadEvent();
+		event.begin();
+		BufferedImage sheet = AssetCache.readImage(spriteFile);
+		if (sheet == null) {
+			throw new IllegalStateException("Error initializing spritesheet: " + spriteFile);
+		}
+		this.frameWidth = frameWidth;
+		this.frameHeight = frameHeight;
+		this.rows = sheet.getHeight() / frameHeight;
+		this.cols = sheet.getWidth() / frameWidth;
+		this.regions = new AtlasRegion[Action.values().length][Direction.values().length][];
 
+		TextureAtlas atlas = new TextureAtlas();
+		int count = 0;
 		for (Map.Entry<Action, Map<Direction, List<Point>>> actionEntry : frameData.entrySet()) {
 			Action action = actionEntry.getKey();
 			Map<Direction, List<Point>> directions = actionEntry.getValue();
@@ -126,39 +187,115 @@ public class CharacterSpritesheet extends Spritesheet {
 				List<Point> frames = directionEntry.getValue();
 				List<Boolean> flippedFrames = flippedData.get(action).get(direction);
 
-				images[action.getActionIndex()][direction.getDirectionIndex()] = new BufferedImage[frames.size()];
+				AtlasRegion[] animation = new AtlasRegion[frames.size()];
 				for (int i = 0; i < frames.size(); i++) {
+					// Come in getSprite(row, col): x è la riga, y la colonna
 					Point frame = frames.get(i);
-					if (flippedFrames.get(i)) {
-						images[action.getActionIndex()][direction.getDirectionIndex()][i] = 
-								getFlippedSprite(frame.x, frame.y);
-					} else {
-						images[action.getActionIndex()][direction.getDirectionIndex()][i] = 
-								getSprite(frame.x, frame.y);
+					animation[i] = atlas.add(sheet, frame.y * frameWidth, frame.x * frameHeight,
+							frameWidth, frameHeight, flippedFrames.get(i));
+				}
+				regions[action.getActionIndex()][direction.getDirectionIndex()] = animation;
+				count += animation.length;
+			}
+		}
+		atlas.pack();
+
+		event.end();
+		if (event.shouldCommit()) {
+			event.assetType = "CharacterSpritesheet";
+			event.resource = spriteFile;
+			event.success = true;
+			event.width = sheet.getWidth();
+			event.height = sheet.getHeight();
+			event.frames = count;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Copia in un texture atlas i frame forniti già in memoria.
+	 */
+	private static AtlasRegion[][][] packImages(BufferedImage[][][] images) {
+		TextureAtlas atlas = new TextureAtlas();
+		AtlasRegion[][][] regions = new AtlasRegion[images.length][][];
+		for (int a = 0; a < images.length; a++) {
+			if (images[a] == null) {
+				continue;
+			}
+			regions[a] = new AtlasRegion[images[a].length][];
+			for (int d = 0; d < images[a].length; d++) {
+				BufferedImage[] frames = images[a][d];
+				if (frames == null) {
+					continue;
+				}
+				regions[a][d] = new AtlasRegion[frames.length];
+				for (int i = 0; i < frames.length; i++) {
+					if (frames[i] != null) {
+						regions[a][d][i] = atlas.add(frames[i]);
 					}
 				}
 			}
 		}
+		atlas.pack();
+		return regions;
 	}
 
+    /**
+     * Copy of the bounding box of the frames.
+     */
     public Rectangle getBoundingBox() {
         if (boundingBox == null) {
             // Fallback a una bounding box predefinita se non è stata specificata
             return new Rectangle(0, 0, frameWidth, frameHeight);
         }
-        return boundingBox;
+        return new Rectangle(boundingBox);
     }
-    
+
+    /**
+     * Bounding boxes per direction, read-only: the map and its rectangles are shared by
+     * every spritesheet loaded from the same file, so they must be copied before changing them.
+     */
     public Map<Direction, Rectangle> getDirectionalBoundingBoxes() {
         if (directionalBoundingBoxes == null) {
-            return new HashMap<>();
+            return Collections.emptyMap();
         }
         return directionalBoundingBoxes;
     }
     
     protected void init() {}
     
-    public BufferedImage[][][] getImages() {
+    /**
+     * The frames as separate images, indexed as images[action][direction][frame]. For the
+     * spritesheets packed into an atlas the images are created on the first call; rendering
+     * uses getRegions() instead.
+     */
+    public synchronized BufferedImage[][][] getImages() {
+		if (images == null && regions != null) {
+			images = new BufferedImage[regions.length][][];
+			for (int a = 0; a < regions.length; a++) {
+				if (regions[a] == null) {
+					continue;
+				}
+				images[a] = new BufferedImage[regions[a].length][];
+				for (int d = 0; d < regions[a].length; d++) {
+					AtlasRegion[] frames = regions[a][d];
+					if (frames == null) {
+						continue;
+					}
+					images[a][d] = new BufferedImage[frames.length];
+					for (int i = 0; i < frames.length; i++) {
+						images[a][d][i] = frames[i] != null ? frames[i].getImage() : null;
+					}
+				}
+			}
+		}
 		return images;
 	}
+
+    /**
+     * The frames in the texture atlas, indexed as regions[action][direction][frame].
+     */
+    public AtlasRegion[][][] getRegions() {
+		return regions;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which tiles of a map are solid, one bit per tile: every row is stored in
+ * (columns + 63) / 64 longs, bit (col % 64) of word (col / 64). That is 64 times less
+ * memory than a boolean[][] of the same map, and checking a span of columns of a row
+ * takes one or two word operations instead of one lookup per tile.
+ *
+ * The grid is immutable, so the TileMap builds it once and the components, the
+ * collision system and the pathfinders share the same instance. The grids with
+ * inflated obstacles are computed once per radius and shared too.
+ * Tiles outside the map are never solid.
+ */
+public final class SolidityGrid {
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] bits;
+    private final Map<Integer, SolidityGrid> inflated = new ConcurrentHashMap<>();
+
+    private SolidityGrid(int rows, int cols, long[] bits) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.bits = bits;
+    }
+
+    /**
+     * Solidity of the tiles of a map (null tiles are not solid).
+     */
+    public static SolidityGrid fromTiles(Tile[][] tiles) {
+        int rows = tiles.length;
+        int cols = tiles[0].length;
+        int wordsPerRow = (cols + 63) >>> 6;
+        long[] bits = new long[rows * wordsPerRow];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (tiles[row][col] != null && tiles[row][col].isSolid()) {
+                    bits[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+        return new SolidityGrid(rows, cols, bits);
+    }
+
+    /**
+     * Grid from a boolean[rows][cols] where true = solid tile.
+     */
+    public static SolidityGrid fromArray(boolean[][] grid) {
+        if (grid == null || grid.length == 0 || grid[0].length == 0) {
+            throw new IllegalArgumentException("Grid cannot be empty.");
+        }
+        int rows = grid.length;
+        int cols = grid[0].length;
+        int wordsPerRow = (cols + 63) >>> 6;
+        long[] bits = new long[rows * wordsPerRow];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (grid[row][col]) {
+                    bits[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+                }
+            }
+        }
+        return new SolidityGrid(rows, cols, bits);
+    }
+
+    public boolean isSolid(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols
+                && (bits[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    /**
+     * True if at least one tile of the row between fromCol and toCol (inclusive) is solid.
+     */
+    public boolean anySolid(int row, int fromCol, int toCol) {
+        if (row < 0 || row >= rows) {
+            return false;
+        }
+        fromCol = Math.max(fromCol, 0);
+        toCol = Math.min(toCol, cols - 1);
+        if (fromCol > toCol) {
+            return false;
+        }
+        int base = row * wordsPerRow;
+        int first = fromCol >>> 6;
+        int last = toCol >>> 6;
+        long firstMask = -1L << fromCol;       // Lo shift usa solo i 6 bit bassi
+        long lastMask = -1L >>> (63 - (toCol & 63));
+        if (first == last) {
+            return (bits[base + first] & firstMask & lastMask) != 0;
+        }
+        if ((bits[base + first] & firstMask) != 0) {
+            return true;
+        }
+        for (int w = first + 1; w < last; w++) {
+            if (bits[base + w] != 0) {
+                return true;
+            }
+        }
+        return (bits[base + last] & lastMask) != 0;
+    }
+
+    /**
+     * True if at least one tile of the area between the given rows and columns (inclusive)
+     * is solid.
+     */
+    public boolean anySolid(int fromRow, int toRow, int fromCol, int toCol) {
+        fromRow = Math.max(fromRow, 0);
+        toRow = Math.min(toRow, rows - 1);
+        for (int row = fromRow; row <= toRow; row++) {
+            if (anySolid(row, fromCol, toCol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Grid where every solid tile also makes solid the tiles within the given radius
+     * (a square of side 2 * radius + 1), so that a large entity can treat the free
+     * tiles as free for its whole bounding box. Computed once per radius.
+     */
+    public SolidityGrid inflate(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius cannot be negative: " + radius);
+        }
+        if (radius == 0) {
+            return this;
+        }
+        return inflated.computeIfAbsent(radius, this::computeInflated);
+    }
+
+    private SolidityGrid computeInflated(int radius) {
+        // 1. Dilatazione orizzontale di ogni riga con shift sulle parole
+        long[] horizontal = bits.clone();
+        for (int row = 0; row < rows; row++) {
+            int base = row * wordsPerRow;
+            for (int shift = 1; shift <= radius && shift < cols; shift++) {
+                int wordShift = shift >>> 6;
+                int bitShift = shift & 63;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    horizontal[base + w] |= shiftedWord(bits, base, w - wordShift, bitShift, true)
+                            | shiftedWord(bits, base, w + wordShift, bitShift, false);
+                }
+            }
+            // Le colonne oltre la fine della mappa restano libere
+            if ((cols & 63) != 0) {
+                horizontal[base + wordsPerRow - 1] &= -1L >>> (64 - (cols & 63));
+            }
+        }
+
+        // 2. Dilatazione verticale: OR delle righe entro il raggio
+        long[] result = new long[bits.length];
+        for (int row = 0; row < rows; row++) {
+            int from = Math.max(row - radius, 0);
+            int to = Math.min(row + radius, rows - 1);
+            int base = row * wordsPerRow;
+            for (int other = from; other <= to; other++) {
+                int otherBase = other * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    result[base + w] |= horizontal[otherBase + w];
+                }
+            }
+        }
+        return new SolidityGrid(rows, cols, result);
+    }
+
+    /**
+     * Parola w di una riga spostata di bitShift bit verso le colonne più alte (toHigher)
+     * o più basse, con il riporto dalla parola vicina.
+     */
+    private long shiftedWord(long[] source, int base, int w, int bitShift, boolean toHigher) {
+        long word = (w >= 0 && w < wordsPerRow) ? source[base + w] : 0L;
+        if (bitShift == 0) {
+            return word;
+        }
+        int neighbour = toHigher ? w - 1 : w + 1;
+        long carry = (neighbour >= 0 && neighbour < wordsPerRow) ? source[base + neighbour] : 0L;
+        return toHigher ? (word << bitShift) | (carry >>> (64 - bitShift))
+                : (word >>> bitShift) | (carry << (64 - bitShift));
+    }
+
+    /**
+     * Copy of the grid as boolean[rows][cols] (true = solid).
+     */
+    public boolean[][] toArray() {
+        boolean[][] grid = new boolean[rows][cols];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                grid[row][col] = isSolid(row, col);
+            }
+        }
+        return grid;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int countSolid() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /** Memory used by the bits, in bytes. */
+    public long getBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -14,6 +14,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import javax.imageio.ImageIO;
 
+import engine.jfr.AssetLoadEvent;
+import helpers.ImageUtils;
+
 public class Spritesheet {
     protected BufferedImage spriteSheet;
     protected BufferedImage[][] sprites;
@@ -34,27 +37,65 @@ public class Spritesheet {
     	initialize(fileName, frameWidth, frameHeight, 0, 0);
     }
 
+    /**
+     * Slices the given image resource into frames. The decoded image and the frames are
+     * shared, through the AssetCache, with every spritesheet built from the same resource
+     * and slicing parameters.
+     */
     public void initialize(String fileName, int frameWidth, int frameHeight, int margin, int spacing) {
-        try (InputStream is = getClass().getResourceAsStream(fileName)) {
-            this.spriteSheet = ImageIO.read(is);
-            int width = spriteSheet.getWidth();
-            int height = spriteSheet.getHeight();
-            this.rows = (height - margin * 2) / (frameHeight + spacing);
-            this.cols = (width - margin * 2) / (frameWidth + spacing);
-            this.frameWidth = frameWidth;
-            this.frameHeight = frameHeight;
-            loadSprites(margin, spacing);
+        String key = "spritesheet:" + fileName + "?" + frameWidth + "x" + frameHeight + "+" + margin + "+" + spacing;
+        Spritesheet shared = AssetCache.get(key, Spritesheet.class,
+                () -> load(fileName, frameWidth, frameHeight, margin, spacing));
+        this.spriteSheet = shared.spriteSheet;
+        this.sprites = shared.sprites;
+        this.rows = shared.rows;
+        this.cols = shared.cols;
+        this.frameWidth = shared.frameWidth;
+        this.frameHeight = shared.frameHeight;
+    }
+
+    private static Spritesheet load(String fileName, int frameWidth, int frameHeight, int margin, int spacing) {
+        Spritesheet sheet = new Spritesheet();
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        try (InputStream is = Spritesheet.class.getResourceAsStream(fileName)) {
+            sheet.spriteSheet = ImageIO.read(is);
+            int width = sheet.spriteSheet.getWidth();
+            int height = sheet.spriteSheet.getHeight();
+            sheet.rows = (height - margin * 2) / (frameHeight + spacing);
+            sheet.cols = (width - margin * 2) / (frameWidth + spacing);
+            sheet.frameWidth = frameWidth;
+            sheet.frameHeight = frameHeight;
+            sheet.loadSprites(margin, spacing);
         } catch (IOException e) {
             e.printStackTrace();
             throw new RuntimeException("Error initializing spritesheet: " + fileName);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.assetType = "Spritesheet";
+                event.resource = fileName;
+                event.success = sheet.sprites != null;
+                if (sheet.spriteSheet != null) {
+                    event.width = sheet.spriteSheet.getWidth();
+                    event.height = sheet.spriteSheet.getHeight();
+                }
+                event.frames = sheet.rows * sheet.cols;
+                event.commit();
+            }
+        }
+        if (ImageUtils.isEnabled()) {
+            sheet.spriteSheet = null; // I frame sono copie indipendenti, l'immagine intera non serve più
         }
+        return sheet;
     }
     
     private void loadSprites(int margin, int spacing) {
         sprites = new BufferedImage[rows][cols];
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
-                sprites[row][col] = spriteSheet.getSubimage(
+                // Ogni frame è una copia nel formato del display, disegnabile senza conversioni
+                sprites[row][col] = ImageUtils.copyCompatibleRegion(spriteSheet,
                         margin + col * (frameWidth + spacing),
                         margin + row * (frameHeight + spacing),
                         frameWidth,
@@ -71,7 +112,7 @@ public class Spritesheet {
 		int width = sprites[row][col].getWidth();
 		int height = sprites[row][col].getHeight();
 		AffineTransform flipTx = new AffineTransform(-1., 0., 0., 1., (double) width, 0.);
-		BufferedImage newImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage newImage = ImageUtils.createCompatibleImage(width, height);
 		Graphics2D g = newImage.createGraphics();
 		g.transform(flipTx);
 		g.drawImage(sprites[row][col], 0, 0, null);
@@ -0,0 +1,269 @@
+/**
+ * RetroEdge Educational Game Engine
+ * 
+ * Copyright (c) 2025 Nicola Christian Barbieri
+ * Licensed under Creative Commons Attribution-NonCommercial-ShareAlike 4.0 International
+ * https://creativecommons.org/licenses/by-nc-sa/4.0/deed.en
+ */
+package world;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import helpers.ImageUtils;
+import helpers.Logger;
+
+/**
+ * Packs sprite frames and tiles into a few large images (pages). Frames are added as
+ * rectangles of a source image, optionally flipped horizontally, and become AtlasRegions
+ * once pack() is called. While packing:
+ * - transparent borders are trimmed, fully transparent frames take no space;
+ * - frames with the same pixels (for example repeated tiles) are stored once;
+ * - the regions are placed on shelves of decreasing height, in pages of at most
+ *   pageSize x pageSize pixels (a larger frame gets a page of its own).
+ *
+ * Only the pages remain in memory: the source images can be released after packing,
+ * and frames drawn one after the other come from the same image.
+ */
+public final class TextureAtlas {
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+    private static final int PADDING = 1; // Pixel vuoti tra le regioni
+
+    private static final class Request {
+        final BufferedImage source;
+        final int x, y, width, height;
+        final boolean flipped;
+        final AtlasRegion region;
+        int[] pixels;   // Pixel visibili (ARGB), dopo il ritaglio
+        int hash;
+        Request same;   // Richiesta con gli stessi pixel, già posizionata
+        int page;
+
+        Request(BufferedImage source, int x, int y, int width, int height, boolean flipped) {
+            this.source = source;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.flipped = flipped;
+            this.region = new AtlasRegion(width, height);
+        }
+    }
+
+    private final int pageSize;
+    private final List<Request> requests = new ArrayList<>();
+    private final Map<String, Request> requestsByKey = new HashMap<>();
+    private final List<BufferedImage> pages = new ArrayList<>();
+    private boolean packed;
+
+    public TextureAtlas() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public TextureAtlas(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Adds a whole image to the atlas.
+     */
+    public AtlasRegion add(BufferedImage source) {
+        return add(source, 0, 0, source.getWidth(), source.getHeight(), false);
+    }
+
+    /**
+     * Adds a rectangle of the source image, flipped horizontally if requested. The returned
+     * region can be drawn only after pack(); adding the same rectangle twice returns the
+     * same region.
+     */
+    public AtlasRegion add(BufferedImage source, int x, int y, int width, int height, boolean flipped) {
+        if (packed) {
+            throw new IllegalStateException("The atlas has already been packed.");
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Source image cannot be null.");
+        }
+        if (width <= 0 || height <= 0 || x < 0 || y < 0
+                || x + width > source.getWidth() || y + height > source.getHeight()) {
+            throw new IllegalArgumentException("Frame " + width + "x" + height + " at " + x + "," + y
+                    + " is outside the source image.");
+        }
+        String key = System.identityHashCode(source) + ":" + x + "," + y + "," + width + "," + height + (flipped ? "f" : "");
+        Request request = requestsByKey.get(key);
+        if (request == null || request.source != source) {
+            request = new Request(source, x, y, width, height, flipped);
+            requestsByKey.put(key, request);
+            requests.add(request);
+        }
+        return request.region;
+    }
+
+    /**
+     * Trims, deduplicates and places all the added frames, then copies their pixels into
+     * the pages. The source images are no longer referenced afterwards.
+     */
+    public void pack() {
+        if (packed) {
+            return;
+        }
+        packed = true;
+
+        List<Request> unique = new ArrayList<>();
+        Map<Integer, List<Request>> byHash = new HashMap<>();
+        long sourceBytes = 0;
+        for (Request request : requests) {
+            sourceBytes += 4L * request.width * request.height;
+            trim(request);
+            if (request.pixels == null) {
+                continue; // Completamente trasparente: nessuno spazio nella pagina
+            }
+            List<Request> candidates = byHash.computeIfAbsent(request.hash, h -> new ArrayList<>());
+            for (Request candidate : candidates) {
+                if (candidate.region.width == request.region.width && Arrays.equals(candidate.pixels, request.pixels)) {
+                    request.same = candidate;
+                    break;
+                }
+            }
+            if (request.same == null) {
+                candidates.add(request);
+                unique.add(request);
+            }
+        }
+
+        // Scaffali: le regioni più alte per prime, poi da sinistra a destra
+        unique.sort((a, b) -> a.region.height != b.region.height
+                ? b.region.height - a.region.height : b.region.width - a.region.width);
+        List<int[]> pageSizes = new ArrayList<>(); // Larghezza e altezza usate di ogni pagina
+        int[] current = null;
+        int currentPage = -1;
+        int shelfX = 0, shelfY = 0, shelfHeight = 0;
+        for (Request request : unique) {
+            int w = request.region.width + PADDING;
+            int h = request.region.height + PADDING;
+            if (w > pageSize || h > pageSize) {
+                // Frame più grande di una pagina: pagina dedicata
+                request.page = pageSizes.size();
+                pageSizes.add(new int[] { w, h });
+                continue;
+            }
+            if (current != null && shelfX + w > pageSize) {
+                // Nuovo scaffale sotto il precedente
+                shelfY += shelfHeight;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            if (current == null || shelfY + h > pageSize) {
+                current = new int[] { 0, 0 };
+                currentPage = pageSizes.size();
+                pageSizes.add(current);
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+            request.page = currentPage;
+            request.region.x = shelfX;
+            request.region.y = shelfY;
+            shelfX += w;
+            shelfHeight = Math.max(shelfHeight, h);
+            current[0] = Math.max(current[0], shelfX);
+            current[1] = Math.max(current[1], shelfY + shelfHeight);
+        }
+
+        // Ogni pagina è grande solo quanto lo spazio effettivamente usato
+        for (int[] size : pageSizes) {
+            pages.add(ImageUtils.createCompatibleImage(size[0], size[1]));
+        }
+        for (Request request : unique) {
+            AtlasRegion region = request.region;
+            region.page = pages.get(request.page);
+            region.page.setRGB(region.x, region.y, region.width, region.height, request.pixels, 0, region.width);
+        }
+        for (Request request : requests) {
+            if (request.same != null) {
+                request.region.page = request.same.region.page;
+                request.region.x = request.same.region.x;
+                request.region.y = request.same.region.y;
+            }
+        }
+
+        Logger.log(String.format("Texture atlas: %d frames (%d unique) in %d pages, %.1f KB instead of %.1f KB.",
+                requests.size(), unique.size(), pages.size(), getBytes() / 1024.0, sourceBytes / 1024.0));
+        requests.clear();
+        requestsByKey.clear();
+    }
+
+    /**
+     * Legge i pixel del frame (ribaltandoli se richiesto), individua il rettangolo dei pixel
+     * non trasparenti e ne conserva solo il contenuto.
+     */
+    private static void trim(Request request) {
+        int width = request.width;
+        int height = request.height;
+        int[] argb = request.source.getRGB(request.x, request.y, width, height, null, 0, width);
+        if (request.flipped) {
+            for (int row = 0; row < height; row++) {
+                int left = row * width;
+                int right = left + width - 1;
+                while (left < right) {
+                    int tmp = argb[left];
+                    argb[left++] = argb[right];
+                    argb[right--] = tmp;
+                }
+            }
+        }
+
+        int minX = width, minY = height, maxX = -1, maxY = -1;
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if ((argb[row * width + col] >>> 24) != 0) {
+                    minX = Math.min(minX, col);
+                    maxX = Math.max(maxX, col);
+                    minY = Math.min(minY, row);
+                    maxY = Math.max(maxY, row);
+                }
+            }
+        }
+        AtlasRegion region = request.region;
+        if (maxX < 0) {
+            region.width = 0;
+            region.height = 0;
+            return;
+        }
+        region.offsetX = minX;
+        region.offsetY = minY;
+        region.width = maxX - minX + 1;
+        region.height = maxY - minY + 1;
+        int[] pixels = new int[region.width * region.height];
+        for (int row = 0; row < region.height; row++) {
+            System.arraycopy(argb, (minY + row) * width + minX, pixels, row * region.width, region.width);
+        }
+        request.pixels = pixels;
+        request.hash = Arrays.hashCode(pixels) * 31 + region.width;
+    }
+
+    public boolean isPacked() {
+        return packed;
+    }
+
+    /** The pages created by pack(). */
+    public List<BufferedImage> getPages() {
+        return Collections.unmodifiableList(pages);
+    }
+
+    /** Memory used by the pages, in bytes (4 bytes per pixel). */
+    public long getBytes() {
+        long total = 0;
+        for (BufferedImage page : pages) {
+            total += 4L * page.getWidth() * page.getHeight();
+        }
+        return total;
+    }
+}
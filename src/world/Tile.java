@@ -11,7 +11,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 
 public class Tile {
-    private BufferedImage[] images;
+    private AtlasRegion[] regions;
     private boolean animated;
     private boolean solid;
     private Rectangle solidBox;
@@ -22,21 +22,31 @@ public class Tile {
 
     // Costruttore per tile statiche
     public Tile(BufferedImage image, boolean solid, int row, int column) {
-        this(new BufferedImage[] { image }, solid, row, column, false, 0);
+        this(new AtlasRegion[] { AtlasRegion.wrap(image) }, solid, row, column, false, 0);
     }
 
     // Costruttore per tile animate
     public Tile(BufferedImage[] animatedTileImages, boolean solid, int row, int column, float timePerFrame) {
-        this(animatedTileImages, solid, row, column, true, timePerFrame);
+        this(wrap(animatedTileImages), solid, row, column, true, timePerFrame);
+    }
+
+    // Costruttore per tile statiche il cui frame è in un texture atlas
+    public Tile(AtlasRegion region, boolean solid, int row, int column) {
+        this(new AtlasRegion[] { region }, solid, row, column, false, 0);
+    }
+
+    // Costruttore per tile animate i cui frame sono in un texture atlas
+    public Tile(AtlasRegion[] animatedTileRegions, boolean solid, int row, int column, float timePerFrame) {
+        this(animatedTileRegions, solid, row, column, true, timePerFrame);
     }
 
     // Costruttore interno comune
-    private Tile(BufferedImage[] images, boolean solid, int row, int column, boolean animated, float timePerFrame) {
+    private Tile(AtlasRegion[] regions, boolean solid, int row, int column, boolean animated, float timePerFrame) {
         this.row = row;
         this.column = column;
-        this.tileWidth = images[0].getWidth();
-        this.tileHeight = images[0].getHeight();
-        this.images = images;
+        this.tileWidth = regions[0].getOriginalWidth();
+        this.tileHeight = regions[0].getOriginalHeight();
+        this.regions = regions;
         this.animated = animated;
         this.solid = solid;
         this.solidBox = new Rectangle(column * tileWidth, row * tileHeight, tileWidth, tileHeight);
@@ -52,7 +62,15 @@ public class Tile {
 
     // Metodo per disegnare la tile con il frame specificato
     public void draw(Graphics2D g, int xOffset, int yOffset, int frameNumber) {
-        g.drawImage(images[animated ? frameNumber : 0], tileWidth * this.column - xOffset, tileHeight * this.row - yOffset, null);
+        regions[animated ? frameNumber : 0].draw(g, tileWidth * this.column - xOffset, tileHeight * this.row - yOffset);
+    }
+
+    private static AtlasRegion[] wrap(BufferedImage[] images) {
+        AtlasRegion[] regions = new AtlasRegion[images.length];
+        for (int i = 0; i < images.length; i++) {
+            regions[i] = AtlasRegion.wrap(images[i]);
+        }
+        return regions;
     }
 
     public boolean isAnimated() {
@@ -28,6 +28,7 @@ public class TileMap {
     protected int numberOfFrames;  // Numero totale di frame per l'animazione
     protected float frameDuration;  // Durata di ciascun frame in secondi
     protected final Map<Point, Float> collidedTiles; // Mappa delle tile in collisione con il timer
+    private volatile SolidityGrid solidityGrid; // Creata alla prima richiesta, poi condivisa
 
     public TileMap(String tilesetFile, String mapFile, float frameDuration) {
 		try {
@@ -53,6 +54,28 @@ public class TileMap {
 		visibleCols = GamePanel.GAME_WIDTH / tileWidth;
     }
 
+    /**
+     * Builds a map from tiles created in code (for example procedurally generated levels,
+     * tests or benchmarks) instead of loading a tileset and a map file.
+     * Null tiles are empty and not solid.
+     */
+    public TileMap(Tile[][] tiles, int tileWidth, int tileHeight, int numberOfFrames, float frameDuration) {
+        if (tiles == null || tiles.length == 0 || tiles[0].length == 0) {
+            throw new IllegalArgumentException("Tile map cannot be empty.");
+        }
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive.");
+        }
+        this.tileMap = tiles;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.numberOfFrames = Math.max(numberOfFrames, 1);
+        this.frameDuration = frameDuration;
+        this.collidedTiles = new HashMap<>();
+		visibleRows = GamePanel.GAME_HEIGHT / tileHeight;
+		visibleCols = GamePanel.GAME_WIDTH / tileWidth;
+    }
+
     // Metodo per caricare la mappa da un file di testo
     protected int[][] loadMap(String filePath, int rows, int cols) {
         int[][] map = new int[rows][cols];
@@ -109,16 +132,29 @@ public class TileMap {
     	return result;
     }
 
-    public boolean[][] getSolidMap() {
-        boolean[][] solidTiles = new boolean[tileMap.length][tileMap[0].length];
-
-        for (int row = 0; row < tileMap.length; row++) {
-            for (int col = 0; col < tileMap[0].length; col++) {
-                solidTiles[row][col] = tileMap[row][col] != null && tileMap[row][col].isSolid();
+    /**
+     * The solid tiles of the map. The grid is built on the first call and the same
+     * instance is returned afterwards: it is immutable and meant to be shared.
+     */
+    public SolidityGrid getSolidityGrid() {
+        SolidityGrid grid = solidityGrid;
+        if (grid == null) {
+            synchronized (this) {
+                grid = solidityGrid;
+                if (grid == null) {
+                    grid = SolidityGrid.fromTiles(tileMap);
+                    solidityGrid = grid;
+                }
             }
         }
-        
-    	return solidTiles;
+        return grid;
+    }
+
+    /**
+     * A new copy of the solid tiles as boolean[rows][cols]; prefer getSolidityGrid.
+     */
+    public boolean[][] getSolidMap() {
+    	return getSolidityGrid().toArray();
     }
 
     public Map<Point, Float> getCollidedTiles() {
@@ -20,11 +20,12 @@ import java.util.List;
 import java.util.Map;
 import javax.imageio.ImageIO;
 
+import engine.jfr.AssetLoadEvent;
 import helpers.Logger;
 
 public class Tileset {
-	protected BufferedImage tileset;
-	protected BufferedImage[][] tileImages;
+	protected BufferedImage tileset;       // Immagine decodificata, rilasciata dopo la creazione dell'atlas
+	protected AtlasRegion[][] tileRegions; // Le tile, in un texture atlas
     private boolean[][] solidTiles;  // Array di booleani per le tile solide
     private Map<Point, List<Point>> animatedTiles;  // Mappa delle tile animate
 	
@@ -38,7 +39,49 @@ public class Tileset {
 		this(fileName, frameWidth, frameHeight, 0, 0);
 	}
 	
+    /**
+     * Tileset whose grid is given by the companion .solid.txt file. The tile images and the
+     * solid and animation data are loaded once per file and shared through the AssetCache.
+     */
     public Tileset(String fileName) throws Exception {
+		copyFrom(AssetCache.get("tileset:" + fileName, Tileset.class, () -> {
+			Tileset tileset = new Tileset();
+			tileset.load(fileName);
+			return tileset.tileRegions != null ? tileset : null;
+		}));
+	}
+
+	public Tileset(String fileName, int tileWidth, int tileHeight, int margin, int spacing) {
+		String key = "tileset:" + fileName + "?" + tileWidth + "x" + tileHeight + "+" + margin + "+" + spacing;
+		copyFrom(AssetCache.get(key, Tileset.class, () -> {
+			Tileset tileset = new Tileset();
+			tileset.load(fileName, tileWidth, tileHeight, margin, spacing);
+			return tileset.tileRegions != null ? tileset : null;
+		}));
+	}
+
+	private Tileset() {
+		// Usato solo per caricare l'istanza condivisa
+	}
+
+	private void copyFrom(Tileset shared) {
+		if (shared == null) {
+			return; // Caricamento fallito, errore già segnalato
+		}
+		this.tileset = shared.tileset;
+		this.tileRegions = shared.tileRegions;
+		this.solidTiles = shared.solidTiles;
+		this.animatedTiles = shared.animatedTiles;
+		this.rows = shared.rows;
+		this.cols = shared.cols;
+		this.tileWidth = shared.tileWidth;
+		this.tileHeight = shared.tileHeight;
+		this.numberOfFrames = shared.numberOfFrames;
+	}
+
+	private void load(String fileName) throws Exception {
+		AssetLoadEvent event = new AssetLoadEvent();
+		event.begin();
 		InputStream is = getClass().getResourceAsStream(fileName);
 		try {
 			tileset = ImageIO.read(is);
@@ -62,16 +105,11 @@ public class Tileset {
            	loadAnimationData(animFileName);
 
            	// Carico le immagini
-			this.tileImages = new BufferedImage[this.rows][this.cols];
-			for (int i = 0; i < this.rows; i++) {
-				for (int j = 0; j < this.cols; j++) {
-					tileImages[i][j] = tileset.getSubimage(tileWidth * j,
-							tileHeight * i, tileWidth, tileHeight);
-				}
-			}
+			packTiles(0, 0);
 		} catch (IOException e) {
 			Logger.log("Error loading tileset.", e);
 		} finally {
+			commitLoadEvent(event, fileName);
 			try {
 				// to free resources
 				is.close();
@@ -82,7 +120,9 @@ public class Tileset {
 		
 	}
 	
-	public Tileset(String fileName, int tileWidth, int tileHeight, int margin, int spacing) {
+	private void load(String fileName, int tileWidth, int tileHeight, int margin, int spacing) {
+		AssetLoadEvent event = new AssetLoadEvent();
+		event.begin();
 		InputStream is = getClass().getResourceAsStream(fileName);
 		try {
 			tileset = ImageIO.read(is);
@@ -103,16 +143,11 @@ public class Tileset {
            	loadAnimationData(animFileName);
 
            	// Carico le immagini
-			this.tileImages = new BufferedImage[this.rows][this.cols];
-			for (int i = 0; i < this.rows; i++) {
-				for (int j = 0; j < this.cols; j++) {
-					tileImages[i][j] = tileset.getSubimage(margin + (tileWidth + spacing) * j,
-							margin + (tileHeight + spacing) * i, tileWidth, tileHeight);
-				}
-			}
+			packTiles(margin, spacing);
 		} catch (IOException e) {
 			e.printStackTrace();
 		} finally {
+			commitLoadEvent(event, fileName);
 			try {
 				// to free resources
 				is.close();
@@ -122,6 +157,39 @@ public class Tileset {
 		}
 	}
 	
+	/**
+	 * Copia le tile in un texture atlas: le tile vuote non occupano spazio e quelle
+	 * ripetute vengono memorizzate una volta sola.
+	 */
+	private void packTiles(int margin, int spacing) {
+		TextureAtlas atlas = new TextureAtlas();
+		AtlasRegion[][] regions = new AtlasRegion[rows][cols];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				regions[i][j] = atlas.add(tileset, margin + (tileWidth + spacing) * j,
+						margin + (tileHeight + spacing) * i, tileWidth, tileHeight, false);
+			}
+		}
+		atlas.pack();
+		this.tileRegions = regions;
+	}
+
+	private void commitLoadEvent(AssetLoadEvent event, String fileName) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.assetType = "Tileset";
+			event.resource = fileName;
+			event.success = tileRegions != null;
+			if (tileset != null) {
+				event.width = tileset.getWidth();
+				event.height = tileset.getHeight();
+			}
+			event.frames = rows * cols;
+			event.commit();
+		}
+		tileset = null; // Da qui in poi servono solo le pagine dell'atlas
+	}
+
 	protected void loadSolidMap(String fileName) {
 	    this.solidTiles = new boolean[rows][cols];
 	    try {
@@ -228,10 +296,14 @@ public class Tileset {
 	}
 	
 	public BufferedImage getTileImage(int index) {
-		return tileImages[index/cols][index%cols];
+		return tileRegions[index/cols][index%cols].getImage();
 	}
 	public BufferedImage getTileImage(int row, int col) {
-		return tileImages[row][col];
+		return tileRegions[row][col].getImage();
+	}
+
+	public AtlasRegion getTileRegion(int row, int col) {
+		return tileRegions[row][col];
 	}
 	
 	public Tile createTile(int index, int row, int col) {
@@ -244,13 +316,13 @@ public class Tileset {
 
 	        if (animationFrames != null) {
 	            // Se la tile è animata, crea una tile animata con i frame corretti
-	            BufferedImage[] animatedImages = new BufferedImage[animationFrames.size()];
+	            AtlasRegion[] animatedImages = new AtlasRegion[animationFrames.size()];
 	            
 	            for (int i = 0; i < animationFrames.size(); i++) {
 	                Point frame = animationFrames.get(i);
 	                // Protezione contro gli array out of bounds per i frame animati
 	                if (frame.y >= 0 && frame.y < rows && frame.x >= 0 && frame.x < cols) {
-	                    animatedImages[i] = tileImages[frame.y][frame.x];  // Recupera l'immagine del frame dalla matrice di immagini
+	                    animatedImages[i] = tileRegions[frame.y][frame.x];  // Recupera l'immagine del frame dalla matrice di immagini
 	                } else {
 	                    // Se uno dei frame è fuori dai limiti, restituisci null
 	                    return null;
@@ -261,7 +333,7 @@ public class Tileset {
 	            return new Tile(animatedImages, solidTiles[tileRow][tileCol], row, col, 0.1f);  // Passa la durata dei frame come parametro
 	        } else {
 	            // Se la tile non è animata, crea una tile statica
-	            return new Tile(tileImages[tileRow][tileCol], solidTiles[tileRow][tileCol], row, col);
+	            return new Tile(tileRegions[tileRow][tileCol], solidTiles[tileRow][tileCol], row, col);
 	        }
 	    } else {
 	        // Se le coordinate della tile sono fuori dai limiti, restituisci null